@@ -0,0 +1,111 @@
+package ru.sviridov.bench;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import ru.sviridov.CustomArrayList;
+
+import java.util.ArrayList;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Добавление (вместе с ростом массива через {@code grow}), вставка в середину и чтение по индексу:
+ * {@link CustomArrayList} против {@link ArrayList}.
+ *
+ * @author Yuriy Sviridov
+ * @since 0.6
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class AddGetBenchmark {
+
+    @Param({"1000", "100000"})
+    int size;
+
+    @Param({"CUSTOM", "JDK"})
+    String impl;
+
+    private Object[] elements;
+    private int[] randomIndexes;
+    private CustomArrayList<Object> custom;
+    private ArrayList<Object> jdk;
+    private final Object sentinel = new Object();
+
+    @Setup
+    public void setup() {
+        elements = BenchmarkData.elements(BenchmarkData.ElementType.INTEGER, BenchmarkData.Distribution.RANDOM, size, 1);
+        custom = new CustomArrayList<>();
+        jdk = new ArrayList<>();
+        for (Object e : elements) {
+            custom.add(e);
+            jdk.add(e);
+        }
+        Random random = new Random(2);
+        randomIndexes = new int[1024];
+        for (int i = 0; i < randomIndexes.length; i++) {
+            randomIndexes[i] = random.nextInt(size);
+        }
+    }
+
+    /**
+     * Заполнение пустого списка: включает все перераспределения массива.
+     */
+    @Benchmark
+    public Object add() {
+        if ("JDK".equals(impl)) {
+            ArrayList<Object> list = new ArrayList<>();
+            for (Object e : elements) {
+                list.add(e);
+            }
+            return list;
+        }
+        CustomArrayList<Object> list = new CustomArrayList<>();
+        for (Object e : elements) {
+            list.add(e);
+        }
+        return list;
+    }
+
+    /**
+     * Вставка в середину и удаление того же элемента (два сдвига половины массива).
+     */
+    @Benchmark
+    public boolean addAtIndexAndRemove() {
+        if ("JDK".equals(impl)) {
+            jdk.add(size / 2, sentinel);
+            return jdk.remove(sentinel);
+        }
+        custom.add(size / 2, sentinel);
+        return custom.remove(sentinel);
+    }
+
+    /**
+     * 1024 чтения по случайным индексам.
+     */
+    @Benchmark
+    public void get(Blackhole bh) {
+        if ("JDK".equals(impl)) {
+            for (int index : randomIndexes) {
+                bh.consume(jdk.get(index));
+            }
+        } else {
+            for (int index : randomIndexes) {
+                bh.consume(custom.get(index));
+            }
+        }
+    }
+}
@@ -0,0 +1,91 @@
+package ru.sviridov.bench;
+
+import ru.sviridov.Cat;
+
+import java.util.Comparator;
+import java.util.Random;
+
+/**
+ * Генерация входных данных для бенчмарков: тип элементов и распределение ключей.
+ *
+ * @author Yuriy Sviridov
+ * @since 0.6
+ */
+public final class BenchmarkData {
+
+    /**
+     * тип элементов списка
+     */
+    public enum ElementType {
+        INTEGER, STRING, CAT
+    }
+
+    /**
+     * распределение ключей во входных данных
+     */
+    public enum Distribution {
+        /** случайные ключи */
+        RANDOM,
+        /** уже отсортированные */
+        SORTED,
+        /** отсортированные в обратном порядке */
+        REVERSED,
+        /** 16 различных ключей на весь массив */
+        DUPLICATES
+    }
+
+    private BenchmarkData() {
+    }
+
+    /**
+     * @return массив из {@code size} элементов заданного типа с заданным распределением ключей
+     */
+    static Object[] elements(ElementType type, Distribution distribution, int size, long seed) {
+        Random random = new Random(seed);
+        Object[] result = new Object[size];
+        for (int i = 0; i < size; i++) {
+            int key;
+            switch (distribution) {
+                case SORTED:
+                    key = i;
+                    break;
+                case REVERSED:
+                    key = size - i;
+                    break;
+                case DUPLICATES:
+                    key = random.nextInt(16);
+                    break;
+                default:
+                    key = random.nextInt(Integer.MAX_VALUE);
+            }
+            result[i] = element(type, key);
+        }
+        return result;
+    }
+
+    /**
+     * @return элемент заданного типа с указанным ключом (для строк порядок совпадает с порядком ключей)
+     */
+    static Object element(ElementType type, int key) {
+        switch (type) {
+            case STRING:
+                return String.format("s%010d", key);
+            case CAT:
+                return new Cat("cat" + key % 1000, key, key % 300);
+            default:
+                return key;
+        }
+    }
+
+    /**
+     * @return компаратор для элементов заданного типа (коты сравниваются по весу)
+     */
+    @SuppressWarnings("unchecked")
+    static Comparator<Object> comparator(ElementType type) {
+        if (type == ElementType.CAT) {
+            Comparator<Cat> byWeight = Comparator.comparingInt(Cat::getWeight);
+            return (Comparator<Object>) (Comparator<?>) byWeight;
+        }
+        return (Comparator<Object>) (Comparator<?>) Comparator.naturalOrder();
+    }
+}
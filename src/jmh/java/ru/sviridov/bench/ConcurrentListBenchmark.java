@@ -0,0 +1,105 @@
+package ru.sviridov.bench;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Group;
+import org.openjdk.jmh.annotations.GroupThreads;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import ru.sviridov.ConcurrentCustomArrayList;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Пропускная способность под конкуренцией потоков: {@link ConcurrentCustomArrayList} (оптимистичное чтение
+ * {@link java.util.concurrent.locks.StampedLock}) против {@link Collections#synchronizedList(List)}.
+ * <ul>
+ *     <li>{@code readOnly} - только читатели: {@code get}, каждое 64-е обращение - {@code contains};</li>
+ *     <li>{@code readWrite} - те же читатели и один писатель ({@code add} и {@code remove(E)} того же значения,
+ *     размер списка не меняется). Результаты читателей и писателя JMH выводит отдельно.</li>
+ * </ul>
+ * Число потоков задается аннотациями; для других значений - {@code -t} и {@code -tg} JMH.
+ *
+ * @author Yuriy Sviridov
+ * @since 0.6
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ConcurrentListBenchmark {
+
+    @Param({"10000"})
+    int size;
+
+    @Param({"CONCURRENT", "SYNCHRONIZED"})
+    String impl;
+
+    private ConcurrentCustomArrayList<Integer> concurrent;
+    private List<Integer> synchronizedList;
+
+    /**
+     * Позиция чтения, своя у каждого потока
+     */
+    @State(Scope.Thread)
+    public static class Cursor {
+        int next;
+    }
+
+    @Setup
+    public void setup() {
+        concurrent = new ConcurrentCustomArrayList<>();
+        synchronizedList = Collections.synchronizedList(new ArrayList<>());
+        for (int i = 0; i < size; i++) {
+            concurrent.add(i);
+            synchronizedList.add(i);
+        }
+    }
+
+    @Benchmark
+    @Threads(4)
+    public Object readOnly(Cursor cursor) {
+        return read(cursor);
+    }
+
+    @Benchmark
+    @Group("readWrite")
+    @GroupThreads(3)
+    public Object reader(Cursor cursor) {
+        return read(cursor);
+    }
+
+    @Benchmark
+    @Group("readWrite")
+    @GroupThreads(1)
+    public boolean writer(Cursor cursor) {
+        Integer value = size + (cursor.next++ & 1023);
+        if ("CONCURRENT".equals(impl)) {
+            concurrent.add(value);
+            return concurrent.remove(value);
+        }
+        synchronizedList.add(value);
+        return synchronizedList.remove(value);
+    }
+
+    private Object read(Cursor cursor) {
+        int i = cursor.next++ & Integer.MAX_VALUE;
+        if ("CONCURRENT".equals(impl)) {
+            return (i & 63) == 0 ? concurrent.contains(size - 1 - i % 100) : concurrent.get(i % size);
+        }
+        return (i & 63) == 0 ? synchronizedList.contains(size - 1 - i % 100) : synchronizedList.get(i % size);
+    }
+}
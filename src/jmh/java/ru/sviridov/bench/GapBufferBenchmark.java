@@ -0,0 +1,101 @@
+package ru.sviridov.bench;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import ru.sviridov.CustomArrayList;
+import ru.sviridov.GapBufferCustomArrayList;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Правки около движущегося курсора и чтение по индексу:
+ * {@link GapBufferCustomArrayList} против {@link CustomArrayList}.
+ * <p>{@code cursorStep} - на сколько позиций курсор может сместиться между правками: при малых шагах
+ * буфер с разрывом сдвигает несколько элементов, плоский массив - весь хвост; при шаге порядка размера
+ * списка преимущество исчезает.
+ *
+ * @author Yuriy Sviridov
+ * @since 0.6
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class GapBufferBenchmark {
+
+    @Param({"10000", "1000000"})
+    int size;
+
+    @Param({"8", "100000"})
+    int cursorStep;
+
+    @Param({"FLAT", "GAP"})
+    String impl;
+
+    private CustomArrayList<Integer> flat;
+    private GapBufferCustomArrayList<Integer> gap;
+    private int[] cursors;
+    private int next;
+
+    @Setup
+    public void setup() {
+        flat = new CustomArrayList<>();
+        gap = new GapBufferCustomArrayList<>();
+        for (int i = 0; i < size; i++) {
+            flat.add(i);
+            gap.add(i);
+        }
+        Random random = new Random(3);
+        cursors = new int[4096];
+        int cursor = size / 2;
+        for (int i = 0; i < cursors.length; i++) {
+            cursor = Math.floorMod(cursor + random.nextInt(2 * cursorStep + 1) - cursorStep, size);
+            cursors[i] = cursor;
+        }
+    }
+
+    /**
+     * Вставка и удаление одного элемента у курсора; размер списка не меняется.
+     */
+    @Benchmark
+    public Object insertAndRemoveNearCursor() {
+        int cursor = cursors[next++ & (cursors.length - 1)];
+        if ("GAP".equals(impl)) {
+            gap.add(cursor, cursor);
+            return gap.removeAt(cursor);
+        }
+        flat.add(cursor, cursor);
+        flat.removeRange(cursor, cursor + 1);
+        return flat;
+    }
+
+    /**
+     * 1024 чтения подряд от курсора.
+     */
+    @Benchmark
+    public void getNearCursor(Blackhole bh) {
+        int cursor = Math.min(cursors[next++ & (cursors.length - 1)], size - 1024);
+        if ("GAP".equals(impl)) {
+            for (int i = cursor; i < cursor + 1024; i++) {
+                bh.consume(gap.get(i));
+            }
+        } else {
+            for (int i = cursor; i < cursor + 1024; i++) {
+                bh.consume(flat.get(i));
+            }
+        }
+    }
+}
@@ -0,0 +1,129 @@
+package ru.sviridov.bench;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import ru.sviridov.CustomArrayList;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Поиск и удаление: {@code indexOf}, {@code contains}, {@code remove(E)} и {@code removeAll}.
+ * {@link CustomArrayList} (с хеш-индексом и без) против {@link ArrayList}.
+ *
+ * @author Yuriy Sviridov
+ * @since 0.6
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SearchBenchmark {
+
+    @Param({"1000", "100000"})
+    int size;
+
+    @Param({"INTEGER", "STRING", "CAT"})
+    BenchmarkData.ElementType elementType;
+
+    @Param({"CUSTOM", "CUSTOM_INDEXED", "JDK"})
+    String impl;
+
+    private Object[] elements;
+    private CustomArrayList<Object> custom;
+    private ArrayList<Object> jdk;
+    private CustomArrayList<Object> customToRemove;
+    private ArrayList<Object> jdkToRemove;
+    private Object probe;
+    private int probeIndex;
+    private Object missing;
+
+    @Setup
+    public void setup() {
+        elements = BenchmarkData.elements(elementType, BenchmarkData.Distribution.RANDOM, size, 1);
+        custom = new CustomArrayList<>();
+        jdk = new ArrayList<>(Arrays.asList(elements));
+        for (Object e : elements) {
+            custom.add(e);
+        }
+        if ("CUSTOM_INDEXED".equals(impl)) {
+            custom.enableIndex();
+        }
+        probeIndex = size * 3 / 4;
+        probe = elements[probeIndex];
+        missing = BenchmarkData.element(elementType, -1);
+        customToRemove = new CustomArrayList<>();
+        jdkToRemove = new ArrayList<>();
+        for (int i = 0; i < size; i += 10) {
+            customToRemove.add(elements[i]);
+            jdkToRemove.add(elements[i]);
+        }
+    }
+
+    @Benchmark
+    public int indexOf() {
+        return "JDK".equals(impl) ? jdk.indexOf(probe) : custom.indexOf(probe);
+    }
+
+    @Benchmark
+    public boolean containsMissing() {
+        return "JDK".equals(impl) ? jdk.contains(missing) : custom.contains(missing);
+    }
+
+    /**
+     * Удаление элемента и вставка его обратно на прежнее место (3/4 списка): поиск и два сдвига хвоста
+     * длиной в четверть списка. Список после вызова такой же, как до него, поэтому каждый вызов сдвигает хвост.
+     * С {@code CUSTOM_INDEXED} индекс обновляется на месте (сдвиги позиций уходят в журнал), а перестраивается
+     * только при заполнении журнала - раз в &radic;n итераций.
+     */
+    @Benchmark
+    public boolean removeAndReinsert() {
+        if ("JDK".equals(impl)) {
+            boolean removed = jdk.remove(probe);
+            jdk.add(probeIndex, probe);
+            return removed;
+        }
+        boolean removed = custom.remove(probe);
+        custom.add(probeIndex, probe);
+        return removed;
+    }
+
+    /**
+     * Заполнение копии списка и удаление 10% элементов через {@code removeAll}.
+     * Оба списка заполняются одинаково - одним копированием массива ({@code addAll}), и оба удаляют
+     * через хеш-поиск: {@link CustomArrayList} строит хеш-множество аргумента сам, для {@link ArrayList}
+     * аргумент оборачивается в {@link HashSet} (со списком {@code ArrayList.removeAll} работал бы за O(n*m)).
+     * Построение множества входит в замер в обоих случаях.
+     * <p>С {@code CUSTOM_INDEXED} у новой копии включается хеш-индекс (до заполнения, поэтому он дополняется
+     * при {@code addAll}): замер показывает, во что обходится поддержка индекса при массовом удалении.
+     */
+    @Benchmark
+    public Object removeAll() {
+        if ("JDK".equals(impl)) {
+            ArrayList<Object> list = new ArrayList<>(elements.length);
+            list.addAll(Arrays.asList(elements));
+            list.removeAll(new HashSet<>(jdkToRemove));
+            return list;
+        }
+        CustomArrayList<Object> list = new CustomArrayList<>(elements.length);
+        if ("CUSTOM_INDEXED".equals(impl)) {
+            list.enableIndex();
+        }
+        list.addAll(elements);
+        list.removeAll(customToRemove);
+        return list;
+    }
+}
@@ -0,0 +1,119 @@
+package ru.sviridov.bench;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import ru.sviridov.CustomArrayList;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Сортировки {@link CustomArrayList} против {@link ArrayList#sort} и {@link Arrays#sort(Object[], Comparator)}
+ * на разных типах элементов и распределениях входных данных.
+ * <p>Каждый вызов сначала заново заполняет список исходными данными. Оба списка заполняются одинаково -
+ * одним групповым {@code addAll}; стоимость заполнения измеряют отдельные бенчмарки {@link #refillOnly()}
+ * и {@link #jdkRefillOnly()}.
+ *
+ * @author Yuriy Sviridov
+ * @since 0.6
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SortBenchmark {
+
+    @Param({"1000", "100000"})
+    int size;
+
+    @Param({"INTEGER", "STRING", "CAT"})
+    BenchmarkData.ElementType elementType;
+
+    @Param({"RANDOM", "SORTED", "REVERSED", "DUPLICATES"})
+    BenchmarkData.Distribution distribution;
+
+    private Object[] source;
+    private Object[] scratch;
+    private Comparator<Object> comparator;
+    private CustomArrayList<Object> custom;
+    private ArrayList<Object> jdk;
+
+    @Setup
+    public void setup() {
+        source = BenchmarkData.elements(elementType, distribution, size, 1);
+        scratch = new Object[size];
+        comparator = BenchmarkData.comparator(elementType);
+        custom = new CustomArrayList<>(size + 1);
+        jdk = new ArrayList<>(size);
+    }
+
+    private CustomArrayList<Object> refillCustom() {
+        custom.clear();
+        custom.addAll(source);
+        return custom;
+    }
+
+    private ArrayList<Object> refillJdk() {
+        jdk.clear();
+        jdk.addAll(Arrays.asList(source));
+        return jdk;
+    }
+
+    @Benchmark
+    public Object refillOnly() {
+        return refillCustom();
+    }
+
+    @Benchmark
+    public Object jdkRefillOnly() {
+        return refillJdk();
+    }
+
+    @Benchmark
+    public Object customSort() {
+        CustomArrayList<Object> list = refillCustom();
+        list.sort(comparator);
+        return list;
+    }
+
+    @Benchmark
+    public Object customStableSort() {
+        CustomArrayList<Object> list = refillCustom();
+        list.stableSort(comparator);
+        return list;
+    }
+
+    @Benchmark
+    public Object customParallelSort() {
+        CustomArrayList<Object> list = refillCustom();
+        list.parallelSort(comparator);
+        return list;
+    }
+
+    @Benchmark
+    public Object jdkListSort() {
+        ArrayList<Object> list = refillJdk();
+        list.sort(comparator);
+        return list;
+    }
+
+    @Benchmark
+    public Object arraysSort() {
+        System.arraycopy(source, 0, scratch, 0, size);
+        Arrays.sort(scratch, comparator);
+        return scratch;
+    }
+}
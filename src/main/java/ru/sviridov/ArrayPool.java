@@ -0,0 +1,291 @@
+package ru.sviridov;
+
+import java.lang.ref.SoftReference;
+import java.util.Arrays;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Пул массивов {@code Object[]} для повторного использования основных массивов {@link CustomArrayList}
+ * (см. {@link CustomArrayList#CustomArrayList(ArrayPool)}).
+ * <p>Массивы делятся на классы размеров - степени двойки от {@value #MIN_LENGTH} до {@value #MAX_LENGTH}
+ * элементов; {@link #acquire(int)} округляет запрошенную длину вверх до класса. Массивы длиннее
+ * {@value #MAX_LENGTH} не кэшируются. Для каждого класса есть:
+ * <ul>
+ *     <li>кэш потока - несколько массивов, доступных без синхронизации. Он есть только у малых классов
+ *     (до {@value #LOCAL_MAX_LENGTH} элементов), поэтому поток удерживает не больше нескольких сотен килобайт;</li>
+ *     <li>общая ограниченная очередь, куда попадают массивы сверх кэша потока. Массивы больших классов
+ *     хранятся в ней через {@link SoftReference}, и сборщик мусора может забрать их при нехватке памяти.</li>
+ * </ul>
+ * <p>Общие очереди ограничены бюджетом памяти ({@link #retainedBytes()}): если возвращаемый массив
+ * не помещается в бюджет или очередь его класса заполнена, массив просто отдается сборщику мусора,
+ * поэтому пул не растет неограниченно.
+ * <p>Возвращаемые в пул массивы зануляются, поэтому выданные пулом массивы не содержат ссылок
+ * на чужие объекты и не удерживают их от сборки мусора. Пул потокобезопасен.
+ *
+ * @author Yuriy Sviridov
+ * @since 0.6
+ */
+public final class ArrayPool {
+
+    /**
+     * длина массивов наименьшего класса
+     */
+    public static final int MIN_LENGTH = 16;
+
+    /**
+     * длина массивов наибольшего кэшируемого класса
+     */
+    public static final int MAX_LENGTH = 1 << 16;
+
+    /**
+     * длина массивов наибольшего класса, который хранится в кэше потока; большие классы хранятся через {@link SoftReference}
+     */
+    public static final int LOCAL_MAX_LENGTH = 1 << 12;
+
+    /**
+     * бюджет общих очередей по умолчанию в байтах
+     */
+    public static final long DEFAULT_MAX_RETAINED_BYTES = 8L << 20;
+
+    /**
+     * оценочный размер ссылки в байтах (сжатые указатели)
+     */
+    private static final int REFERENCE_BYTES = 4;
+
+    /**
+     * оценочный размер заголовка массива в байтах
+     */
+    private static final int ARRAY_HEADER_BYTES = 16;
+
+    private static final int MIN_SHIFT = Integer.numberOfTrailingZeros(MIN_LENGTH);
+
+    private static final int CLASSES = Integer.numberOfTrailingZeros(MAX_LENGTH) - MIN_SHIFT + 1;
+
+    private static final int LOCAL_CLASSES = Integer.numberOfTrailingZeros(LOCAL_MAX_LENGTH) - MIN_SHIFT + 1;
+
+    private static final ArrayPool SHARED = new ArrayPool(4, 64);
+
+    /**
+     * общие очереди: {@code Object[]} для малых классов, {@code SoftReference<Object[]>} для больших
+     */
+    private final ArrayBlockingQueue<Object>[] shared;
+
+    private final long maxRetainedBytes;
+
+    /**
+     * оценка памяти массивов в общих очередях (включая еще не обнаруженные очищенные ссылки)
+     */
+    private final AtomicLong retainedBytes = new AtomicLong();
+
+    private final ThreadLocal<LocalCache> local;
+
+    private final LongAdder allocated = new LongAdder();
+
+    private final LongAdder reused = new LongAdder();
+
+    /**
+     * Создает пул с бюджетом общих очередей {@link #DEFAULT_MAX_RETAINED_BYTES}.
+     *
+     * @param localLimit  сколько массивов каждого малого класса хранит кэш одного потока
+     * @param sharedLimit сколько массивов каждого класса хранит общая очередь
+     * @throws IllegalArgumentException если лимиты отрицательны или оба равны 0
+     */
+    public ArrayPool(int localLimit, int sharedLimit) {
+        this(localLimit, sharedLimit, DEFAULT_MAX_RETAINED_BYTES);
+    }
+
+    /**
+     * Создает пул.
+     *
+     * @param localLimit       сколько массивов каждого малого класса хранит кэш одного потока
+     * @param sharedLimit      сколько массивов каждого класса хранит общая очередь
+     * @param maxRetainedBytes сколько байт могут занимать массивы во всех общих очередях вместе
+     * @throws IllegalArgumentException если лимиты отрицательны или оба равны 0
+     */
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    public ArrayPool(int localLimit, int sharedLimit, long maxRetainedBytes) {
+        if (localLimit < 0 || sharedLimit < 0 || localLimit + sharedLimit == 0 || maxRetainedBytes < 0) {
+            throw new IllegalArgumentException("incorrect limits");
+        }
+        this.maxRetainedBytes = maxRetainedBytes;
+        shared = new ArrayBlockingQueue[CLASSES];
+        for (int c = 0; c < CLASSES; c++) {
+            shared[c] = sharedLimit > 0 ? new ArrayBlockingQueue<>(sharedLimit) : null;
+        }
+        local = ThreadLocal.withInitial(() -> new LocalCache(localLimit));
+    }
+
+    /**
+     * @return общий пул процесса (4 массива каждого малого класса на поток, до 64 каждого класса
+     * в общей очереди в пределах {@link #DEFAULT_MAX_RETAINED_BYTES})
+     */
+    public static ArrayPool shared() {
+        return SHARED;
+    }
+
+    /**
+     * Выдает зануленный массив длиной не меньше {@code minLength}: из кэша потока, из общей очереди
+     * или, если там пусто, новый.
+     *
+     * @param minLength минимальная длина
+     * @return массив длины класса, в который попадает {@code minLength}, либо ровно {@code minLength} для больших массивов
+     * @throws IllegalArgumentException если длина отрицательна
+     */
+    public Object[] acquire(int minLength) {
+        if (minLength < 0) {
+            throw new IllegalArgumentException("incorrect length");
+        }
+        if (minLength > MAX_LENGTH) {
+            allocated.increment();
+            return new Object[minLength];
+        }
+        int c = sizeClass(minLength);
+        Object[] array = c < LOCAL_CLASSES ? local.get().pop(c) : null;
+        if (array == null && shared[c] != null) {
+            array = pollShared(c);
+        }
+        if (array != null) {
+            reused.increment();
+            return array;
+        }
+        allocated.increment();
+        return new Object[MIN_LENGTH << c];
+    }
+
+    /**
+     * Возвращает массив в пул, предварительно занулив его целиком.
+     *
+     * @param array массив; если его длина не совпадает с классом размеров, он не кэшируется
+     */
+    public void release(Object[] array) {
+        release(array, array.length);
+    }
+
+    /**
+     * Возвращает массив в пул, зануляя только первые {@code used} ячеек: остальные должны быть уже пусты.
+     * Массив, длина которого не совпадает с классом размеров, не кэшируется.
+     *
+     * @param array массив
+     * @param used  сколько первых ячеек могут содержать ссылки
+     */
+    public void release(Object[] array, int used) {
+        int length = array.length;
+        if (length < MIN_LENGTH || length > MAX_LENGTH || Integer.bitCount(length) != 1) {
+            return;
+        }
+        Arrays.fill(array, 0, used, null);
+        int c = sizeClass(length);
+        if (c < LOCAL_CLASSES && local.get().push(c, array)) {
+            return;
+        }
+        if (shared[c] != null) {
+            offerShared(c, array);
+        }
+    }
+
+    /**
+     * @return оценка памяти массивов, удерживаемых общими очередями, в байтах (кэши потоков не учитываются)
+     */
+    public long retainedBytes() {
+        return retainedBytes.get();
+    }
+
+    /**
+     * @return сколько массивов пул создал (промахи)
+     */
+    public long allocatedArrays() {
+        return allocated.sum();
+    }
+
+    /**
+     * @return сколько раз массив был выдан повторно (попадания)
+     */
+    public long reusedArrays() {
+        return reused.sum();
+    }
+
+    /**
+     * Кладет массив в общую очередь, если он помещается в бюджет; большие массивы - через {@link SoftReference}.
+     */
+    private void offerShared(int c, Object[] array) {
+        long bytes = bytes(array.length);
+        if (retainedBytes.addAndGet(bytes) > maxRetainedBytes) {
+            retainedBytes.addAndGet(-bytes);
+            return;
+        }
+        Object entry = c < LOCAL_CLASSES ? array : new SoftReference<>(array);
+        if (!shared[c].offer(entry)) {
+            retainedBytes.addAndGet(-bytes);
+        }
+    }
+
+    /**
+     * Забирает массив из общей очереди, пропуская ссылки, очищенные сборщиком мусора.
+     */
+    @SuppressWarnings("unchecked")
+    private Object[] pollShared(int c) {
+        long bytes = bytes(MIN_LENGTH << c);
+        Object entry;
+        while ((entry = shared[c].poll()) != null) {
+            retainedBytes.addAndGet(-bytes);
+            Object[] array = entry instanceof SoftReference ? ((SoftReference<Object[]>) entry).get() : (Object[]) entry;
+            if (array != null) {
+                return array;
+            }
+        }
+        return null;
+    }
+
+    private static long bytes(int length) {
+        return ARRAY_HEADER_BYTES + (long) length * REFERENCE_BYTES;
+    }
+
+    /**
+     * @return длина массива, который {@link #acquire(int)} выдаст для {@code minLength}
+     */
+    static int pooledLength(int minLength) {
+        return minLength > MAX_LENGTH ? minLength : MIN_LENGTH << sizeClass(minLength);
+    }
+
+    private static int sizeClass(int length) {
+        if (length <= MIN_LENGTH) {
+            return 0;
+        }
+        return Integer.SIZE - Integer.numberOfLeadingZeros(length - 1) - MIN_SHIFT;
+    }
+
+    /**
+     * Кэш потока: по стеку массивов на каждый малый класс размеров.
+     */
+    private static final class LocalCache {
+        private final Object[][][] stacks;
+        private final int[] sizes = new int[LOCAL_CLASSES];
+
+        LocalCache(int limit) {
+            stacks = new Object[LOCAL_CLASSES][limit][];
+        }
+
+        Object[] pop(int c) {
+            int top = sizes[c];
+            if (top == 0) {
+                return null;
+            }
+            Object[] array = stacks[c][--top];
+            stacks[c][top] = null;
+            sizes[c] = top;
+            return array;
+        }
+
+        boolean push(int c, Object[] array) {
+            int top = sizes[c];
+            if (top == stacks[c].length) {
+                return false;
+            }
+            stacks[c][top] = array;
+            sizes[c] = top + 1;
+            return true;
+        }
+    }
+}
@@ -0,0 +1,193 @@
+package ru.sviridov;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Кодек {@link Cat} для хранения вне кучи в виде структуры фиксированной ширины:
+ * <pre>
+ * смещение 0: int nameRef  - номер имени в словаре кодека ({@value #NULL_REF} для {@code null})
+ * смещение 4: int weight
+ * смещение 8: int maxSpeed
+ * </pre>
+ * <p>Имена хранятся один раз в словаре кодека (в куче), поэтому повторяющиеся имена не занимают
+ * дополнительной памяти. Имя {@code null} в словарь не попадает и кодируется зарезервированным номером,
+ * как в {@link ColumnarCustomArrayList}. Поиск сравнивает поля прямо в буфере, без создания объектов {@link Cat};
+ * два кота считаются равными, если совпадают имя, вес и максимальная скорость.
+ * <p>Словарь сохраняется вместе со списком в файл ({@link CustomArrayListFiles}): количество имен, затем
+ * каждое имя - int длина и байты UTF-8 (без ограничения {@link DataOutput#writeUTF} в 64 КБ).
+ * <p>Один экземпляр кодека можно использовать в нескольких списках. Кодек не потокобезопасен.
+ *
+ * @author Yuriy Sviridov
+ * @since 0.6
+ */
+public class CatCodec implements ElementCodec<Cat> {
+
+    /**
+     * ширина записи в байтах
+     */
+    public static final int WIDTH = 3 * Integer.BYTES;
+
+    /**
+     * номер имени {@code null}
+     */
+    public static final int NULL_REF = -1;
+
+    /**
+     * размер порции при чтении имени, чтобы поврежденная длина не приводила к выделению огромного массива
+     */
+    private static final int READ_CHUNK = 8192;
+
+    /**
+     * словарь имен: номер - имя
+     */
+    private final CustomArrayList<String> names = new CustomArrayList<>();
+
+    /**
+     * словарь имен: имя - номер
+     */
+    private final Map<String, Integer> ids = new HashMap<>();
+
+    @Override
+    public int width() {
+        return WIDTH;
+    }
+
+    @Override
+    public void encode(Cat cat, ByteBuffer buffer, int offset) {
+        buffer.putInt(offset, nameRef(cat.getName()));
+        buffer.putInt(offset + 4, cat.getWeight());
+        buffer.putInt(offset + 8, cat.getMaxSpeed());
+    }
+
+    @Override
+    public Cat decode(ByteBuffer buffer, int offset) {
+        return new Cat(name(buffer.getInt(offset)), buffer.getInt(offset + 4), buffer.getInt(offset + 8));
+    }
+
+    @Override
+    public boolean matches(Object o, ByteBuffer buffer, int offset) {
+        if (!(o instanceof Cat)) {
+            return false;
+        }
+        Cat cat = (Cat) o;
+        Integer ref = cat.getName() == null ? Integer.valueOf(NULL_REF) : ids.get(cat.getName());
+        return ref != null
+                && ref == buffer.getInt(offset)
+                && cat.getWeight() == buffer.getInt(offset + 4)
+                && cat.getMaxSpeed() == buffer.getInt(offset + 8);
+    }
+
+    /**
+     * @return сравнение записей по весу прямо в буфере (для {@link OffHeapCustomArrayList#sort(RecordComparator)})
+     */
+    public RecordComparator byWeight() {
+        return (a, offsetA, b, offsetB) -> Integer.compare(a.getInt(offsetA + 4), b.getInt(offsetB + 4));
+    }
+
+    /**
+     * @return сравнение записей по максимальной скорости прямо в буфере
+     */
+    public RecordComparator byMaxSpeed() {
+        return (a, offsetA, b, offsetB) -> Integer.compare(a.getInt(offsetA + 8), b.getInt(offsetB + 8));
+    }
+
+    /**
+     * @return сравнение записей по имени ({@code null} первыми): строки берутся из словаря, объекты котов не создаются
+     */
+    public RecordComparator byName() {
+        return (a, offsetA, b, offsetB) -> {
+            int refA = a.getInt(offsetA);
+            int refB = b.getInt(offsetB);
+            if (refA == refB) {
+                return 0;
+            }
+            if (refA == NULL_REF || refB == NULL_REF) {
+                return refA == NULL_REF ? -1 : 1;
+            }
+            return names.get(refA).compareTo(names.get(refB));
+        };
+    }
+
+    /**
+     * Сохраняет словарь имен.
+     */
+    @Override
+    public void writeState(DataOutput out) throws IOException {
+        out.writeInt(names.size());
+        for (int i = 0; i < names.size(); i++) {
+            byte[] bytes = names.get(i).getBytes(StandardCharsets.UTF_8);
+            out.writeInt(bytes.length);
+            out.write(bytes);
+        }
+    }
+
+    /**
+     * Заменяет словарь имен сохраненным. Кодек не должен в этот момент использоваться другими списками.
+     */
+    @Override
+    public void readState(DataInput in) throws IOException {
+        int count = in.readInt();
+        if (count < 0) {
+            throw new IOException("incorrect dictionary size " + count);
+        }
+        names.clear();
+        ids.clear();
+        for (int i = 0; i < count; i++) {
+            nameRef(readName(in));
+        }
+    }
+
+    /**
+     * @return количество различных имен в словаре
+     */
+    public int dictionarySize() {
+        return names.size();
+    }
+
+    /**
+     * Возвращает номер имени в словаре, добавляя его при первом появлении.
+     */
+    private int nameRef(String name) {
+        if (name == null) {
+            return NULL_REF;
+        }
+        Integer ref = ids.get(name);
+        if (ref == null) {
+            ref = names.size();
+            names.add(name);
+            ids.put(name, ref);
+        }
+        return ref;
+    }
+
+    private String name(int ref) {
+        return ref == NULL_REF ? null : names.get(ref);
+    }
+
+    /**
+     * Читает имя, записанное {@link #writeState}: int длина, затем байты UTF-8.
+     */
+    private static String readName(DataInput in) throws IOException {
+        int length = in.readInt();
+        if (length < 0) {
+            throw new IOException("incorrect name length " + length);
+        }
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(Math.min(length, READ_CHUNK));
+        byte[] chunk = new byte[Math.min(length, READ_CHUNK)];
+        int left = length;
+        while (left > 0) {
+            int n = Math.min(left, chunk.length);
+            in.readFully(chunk, 0, n);
+            bytes.write(chunk, 0, n);
+            left -= n;
+        }
+        return bytes.toString(StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,484 @@
+package ru.sviridov;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.IntPredicate;
+import java.util.function.Predicate;
+
+/**
+ * колоночный (struct-of-arrays) список записей
+ * <p>Каждая запись раскладывается схемой {@link RecordSchema} на значения колонок, и каждая колонка хранится
+ * отдельным массивом {@code int[]}: целочисленные поля - как есть, строковые - кодами словаря колонки.
+ * Объекты записей не хранятся и собираются только по запросу ({@link #get(int)}).
+ * <p>Преимущества перед {@code CustomArrayList<Cat>}:
+ * <ul>
+ *     <li>сортировка и фильтрация по колонке читают подряд один массив примитивов, без перехода по ссылке
+ *     к каждому объекту; простые циклы сканирования ({@code filterRange}) JIT-компилятор может векторизовать;</li>
+ *     <li>память: 4 байта на колонку на запись вместо заголовка объекта, ссылки и выравнивания;
+ *     повторяющиеся строки хранятся один раз ({@link #memoryBytes()}).</li>
+ * </ul>
+ * <p>Сортировка по колонке стабильна: ключ и номер строки упаковываются в {@code long}, массив ключей
+ * сортируется поразрядно ({@link RadixSort}), и по полученной перестановке переставляются все колонки.
+ * <p><strong>Обратите внимание, что эта реализация не синхронизирована.</strong></p>
+ *
+ * @param <R> тип записей
+ * @author Yuriy Sviridov
+ * @since 0.6
+ */
+public class ColumnarCustomArrayList<R> {
+    /**
+     * начальная емкость по умолчанию
+     */
+    private static final int DEFAULT_CAPACITY = 10;
+
+    /**
+     * оценочный размер заголовка массива в байтах
+     */
+    private static final int ARRAY_HEADER_BYTES = 16;
+
+    private final RecordSchema<R> schema;
+
+    /**
+     * колонки: значения целочисленных колонок или коды строковых
+     */
+    private final int[][] columns;
+
+    /**
+     * словари строковых колонок ({@code null} для целочисленных)
+     */
+    private final Dictionary[] dictionaries;
+
+    /**
+     * количество записей
+     */
+    private int size;
+
+    /**
+     * Создает пустой список с начальной емкостью по умолчанию.
+     *
+     * @param schema схема записей
+     */
+    public ColumnarCustomArrayList(RecordSchema<R> schema) {
+        this(schema, DEFAULT_CAPACITY);
+    }
+
+    /**
+     * Создает пустой список с указанной начальной емкостью.
+     *
+     * @param schema   схема записей
+     * @param capacity начальная емкость списка
+     * @throws IllegalArgumentException если укажут отрицательную емкость
+     */
+    public ColumnarCustomArrayList(RecordSchema<R> schema, int capacity) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("incorrect capacity");
+        }
+        this.schema = Objects.requireNonNull(schema, "schema");
+        int n = schema.columnCount();
+        columns = new int[n][capacity];
+        dictionaries = new Dictionary[n];
+        for (int c = 0; c < n; c++) {
+            if (schema.isStringColumn(c)) {
+                dictionaries[c] = new Dictionary();
+            }
+        }
+    }
+
+    /**
+     * @return схема записей
+     */
+    public RecordSchema<R> schema() {
+        return schema;
+    }
+
+    /**
+     * Добавляет запись в конец списка, раскладывая ее по колонкам.
+     *
+     * @param record запись
+     */
+    public void add(R record) {
+        if (size == columns[0].length) {
+            grow();
+        }
+        for (int c = 0; c < columns.length; c++) {
+            columns[c][size] = dictionaries[c] == null
+                    ? schema.extractInt(c, record)
+                    : encode(c, schema.extractString(c, record));
+        }
+        size++;
+    }
+
+    /**
+     * Собирает запись по указанному индексу (каждый вызов создает новый объект).
+     *
+     * @param index индекс записи
+     * @return запись
+     * @throws IndexOutOfBoundsException если указан некорректный индекс
+     */
+    public R get(int index) {
+        checkIndex(index);
+        return schema.materialize(new RecordSchema.Row() {
+            @Override
+            public int getInt(int column) {
+                return ColumnarCustomArrayList.this.getInt(index, column);
+            }
+
+            @Override
+            public String getString(int column) {
+                return ColumnarCustomArrayList.this.getString(index, column);
+            }
+        });
+    }
+
+    /**
+     * @param index  индекс записи
+     * @param column номер целочисленной колонки
+     * @return значение колонки без сборки записи
+     * @throws IndexOutOfBoundsException если указан некорректный индекс
+     * @throws IllegalArgumentException  если колонка строковая
+     */
+    public int getInt(int index, int column) {
+        checkIndex(index);
+        if (dictionaries[column] != null) {
+            throw new IllegalArgumentException("column " + schema.columnName(column) + " is not an int column");
+        }
+        return columns[column][index];
+    }
+
+    /**
+     * @param index  индекс записи
+     * @param column номер строковой колонки
+     * @return значение колонки без сборки записи
+     * @throws IndexOutOfBoundsException если указан некорректный индекс
+     * @throws IllegalArgumentException  если колонка целочисленная
+     */
+    public String getString(int index, int column) {
+        checkIndex(index);
+        return stringDictionary(column).value(columns[column][index]);
+    }
+
+    /**
+     * @param column имя целочисленной колонки
+     * @return копия значений колонки
+     */
+    public int[] intColumn(String column) {
+        int c = intColumnIndex(column);
+        return Arrays.copyOf(columns[c], size);
+    }
+
+    /**
+     * Устойчиво сортирует записи по возрастанию колонки (строки - в лексикографическом порядке, {@code null} первыми).
+     *
+     * @param column имя колонки
+     */
+    public void sortBy(String column) {
+        sortBy(schema.columnIndex(column), false);
+    }
+
+    /**
+     * Устойчиво сортирует записи по убыванию колонки.
+     *
+     * @param column имя колонки
+     */
+    public void sortByDescending(String column) {
+        sortBy(schema.columnIndex(column), true);
+    }
+
+    /**
+     * Возвращает новый список из записей, у которых значение целочисленной колонки удовлетворяет условию.
+     *
+     * @param column    имя целочисленной колонки
+     * @param predicate условие на значение
+     * @return новый список с той же схемой
+     */
+    public ColumnarCustomArrayList<R> filter(String column, IntPredicate predicate) {
+        int[] values = columns[intColumnIndex(column)];
+        int[] rows = new int[size];
+        int n = 0;
+        for (int i = 0; i < size; i++) {
+            if (predicate.test(values[i])) {
+                rows[n++] = i;
+            }
+        }
+        return copyRows(rows, n);
+    }
+
+    /**
+     * Возвращает новый список из записей, у которых значение колонки лежит в {@code [min, max]}.
+     * Сканирование - простой цикл по массиву примитивов без вызова функций.
+     *
+     * @param column имя целочисленной колонки
+     * @param min    нижняя граница (включительно)
+     * @param max    верхняя граница (включительно)
+     * @return новый список с той же схемой
+     */
+    public ColumnarCustomArrayList<R> filterRange(String column, int min, int max) {
+        int[] values = columns[intColumnIndex(column)];
+        int[] rows = new int[size];
+        int n = 0;
+        for (int i = 0; i < size; i++) {
+            int v = values[i];
+            rows[n] = i;
+            n += (v >= min & v <= max) ? 1 : 0;
+        }
+        return copyRows(rows, n);
+    }
+
+    /**
+     * Возвращает новый список из записей, у которых значение строковой колонки удовлетворяет условию.
+     * Условие проверяется один раз для каждого значения словаря, затем сравниваются только коды.
+     *
+     * @param column    имя строковой колонки
+     * @param predicate условие на значение
+     * @return новый список с той же схемой
+     */
+    public ColumnarCustomArrayList<R> filterString(String column, Predicate<String> predicate) {
+        int c = schema.columnIndex(column);
+        Dictionary dictionary = stringDictionary(c);
+        boolean[] accepted = new boolean[dictionary.size() + 1];
+        for (int code = -1; code < dictionary.size(); code++) {
+            accepted[code + 1] = predicate.test(dictionary.value(code));
+        }
+        int[] codes = columns[c];
+        int[] rows = new int[size];
+        int n = 0;
+        for (int i = 0; i < size; i++) {
+            if (accepted[codes[i] + 1]) {
+                rows[n++] = i;
+            }
+        }
+        return copyRows(rows, n);
+    }
+
+    /**
+     * Возвращает размер коллекции
+     *
+     * @return {@code int} количество записей
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * @return настоящую емкость коллекции (фактический размер колонок с учетом пустых ячеек)
+     */
+    public int getCapacity() {
+        return columns[0].length;
+    }
+
+    /**
+     * Очищает всю коллекцию (словари строковых колонок сохраняются).
+     */
+    public void clear() {
+        size = 0;
+    }
+
+    /**
+     * Уменьшает колонки до фактического размера коллекции, для экономии памяти.
+     */
+    public void trimToSize() {
+        int capacity = Math.max(size, 1);
+        if (capacity < columns[0].length) {
+            for (int c = 0; c < columns.length; c++) {
+                columns[c] = Arrays.copyOf(columns[c], capacity);
+            }
+        }
+    }
+
+    /**
+     * Оценивает память, занимаемую списком: колонки и словари (строки считаются в UTF-16, при сжатых указателях).
+     * Для сравнения: {@code CustomArrayList<Cat>} тратит на запись ссылку (4 байта) и объект (24 байта),
+     * а также отдельную строку имени на каждого кота, если имена не разделяются.
+     * Словарь, разделенный с результатами фильтрации, учитывается в каждом из списков.
+     *
+     * @return размер в байтах
+     */
+    public long memoryBytes() {
+        long bytes = 0;
+        for (int c = 0; c < columns.length; c++) {
+            bytes += ARRAY_HEADER_BYTES + (long) columns[c].length * Integer.BYTES;
+            if (dictionaries[c] != null) {
+                bytes += dictionaries[c].memoryBytes();
+            }
+        }
+        return bytes;
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder("[");
+        for (int i = 0; i < size; i++) {
+            if (i > 0) {
+                sb.append(", ");
+            }
+            sb.append(get(i));
+        }
+        return sb.append(']').toString();
+    }
+
+    private void sortBy(int column, boolean descending) {
+        int[] values = columns[column];
+        int[] ranks = dictionaries[column] == null ? null : dictionaries[column].ranks();
+        long[] keys = new long[size];
+        for (int i = 0; i < size; i++) {
+            int key = ranks == null ? values[i] : ranks[values[i] + 1];
+            if (descending) {
+                key = ~key;
+            }
+            keys[i] = ((long) key << 32) | i;
+        }
+        RadixSort.sort(keys, 0, size);
+        for (int c = 0; c < columns.length; c++) {
+            int[] source = columns[c];
+            int[] sorted = new int[source.length];
+            for (int i = 0; i < size; i++) {
+                sorted[i] = source[(int) keys[i]];
+            }
+            columns[c] = sorted;
+        }
+    }
+
+    /**
+     * Создает список из указанных строк этого списка. Словари не копируются, а разделяются:
+     * коды существующих строк не меняются, а копия делается при первом добавлении новой строки ({@link #encode}).
+     */
+    private ColumnarCustomArrayList<R> copyRows(int[] rows, int n) {
+        ColumnarCustomArrayList<R> result = new ColumnarCustomArrayList<>(schema, Math.max(n, 1));
+        for (int c = 0; c < columns.length; c++) {
+            int[] source = columns[c];
+            int[] target = result.columns[c];
+            for (int i = 0; i < n; i++) {
+                target[i] = source[rows[i]];
+            }
+            if (dictionaries[c] != null) {
+                dictionaries[c].shared = true;
+                result.dictionaries[c] = dictionaries[c];
+            }
+        }
+        result.size = n;
+        return result;
+    }
+
+    private void grow() {
+        int oldCapacity = columns[0].length;
+        int newCapacity = GrowthPolicy.defaultPolicy().newCapacity(oldCapacity, oldCapacity + 1);
+        for (int c = 0; c < columns.length; c++) {
+            columns[c] = Arrays.copyOf(columns[c], newCapacity);
+        }
+    }
+
+    /**
+     * Возвращает код строки в словаре колонки; разделенный словарь перед добавлением новой строки копируется.
+     */
+    private int encode(int c, String value) {
+        Dictionary dictionary = dictionaries[c];
+        if (dictionary.shared && value != null && !dictionary.codes.containsKey(value)) {
+            dictionary = dictionary.copy();
+            dictionaries[c] = dictionary;
+        }
+        return dictionary.code(value);
+    }
+
+    private int intColumnIndex(String column) {
+        int c = schema.columnIndex(column);
+        if (dictionaries[c] != null) {
+            throw new IllegalArgumentException("column " + column + " is not an int column");
+        }
+        return c;
+    }
+
+    private Dictionary stringDictionary(int column) {
+        Dictionary dictionary = dictionaries[column];
+        if (dictionary == null) {
+            throw new IllegalArgumentException("column " + schema.columnName(column) + " is not a string column");
+        }
+        return dictionary;
+    }
+
+    private void checkIndex(int index) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("Index " + index + " out of bounds for length " + size);
+        }
+    }
+
+    /**
+     * Словарь строковой колонки: строка - код (порядковый номер первого появления), {@code null} - код -1.
+     */
+    private static final class Dictionary {
+        /**
+         * оценочный размер строки без символов и элемента хеш-таблицы в байтах
+         */
+        private static final int ENTRY_OVERHEAD_BYTES = 24 + ARRAY_HEADER_BYTES + 32;
+
+        private final CustomArrayList<String> values;
+        private final Map<String, Integer> codes;
+
+        /**
+         * словарь используется несколькими списками и больше не должен меняться
+         */
+        boolean shared;
+
+        Dictionary() {
+            this(new CustomArrayList<>(), new HashMap<>());
+        }
+
+        private Dictionary(CustomArrayList<String> values, Map<String, Integer> codes) {
+            this.values = values;
+            this.codes = codes;
+        }
+
+        int code(String value) {
+            if (value == null) {
+                return -1;
+            }
+            Integer code = codes.get(value);
+            if (code == null) {
+                code = values.size();
+                values.add(value);
+                codes.put(value, code);
+            }
+            return code;
+        }
+
+        String value(int code) {
+            return code < 0 ? null : values.get(code);
+        }
+
+        int size() {
+            return values.size();
+        }
+
+        /**
+         * @return ранги значений в лексикографическом порядке: {@code ranks[code + 1]}, у {@code null} - наименьший
+         */
+        int[] ranks() {
+            Integer[] order = new Integer[values.size()];
+            for (int i = 0; i < order.length; i++) {
+                order[i] = i;
+            }
+            Arrays.sort(order, Comparator.comparing(values::get));
+            int[] ranks = new int[order.length + 1];
+            for (int rank = 0; rank < order.length; rank++) {
+                ranks[order[rank] + 1] = rank + 1;
+            }
+            return ranks;
+        }
+
+        Dictionary copy() {
+            CustomArrayList<String> valuesCopy = new CustomArrayList<>(Math.max(values.size(), 1));
+            valuesCopy.addAll(values);
+            return new Dictionary(valuesCopy, new HashMap<>(codes));
+        }
+
+        long memoryBytes() {
+            long bytes = 0;
+            for (String value : values) {
+                bytes += ENTRY_OVERHEAD_BYTES + 2L * value.length();
+            }
+            return bytes;
+        }
+    }
+}
@@ -0,0 +1,308 @@
+package ru.sviridov;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Objects;
+import java.util.concurrent.locks.StampedLock;
+
+/**
+ * потокобезопасная реализация изменяемого (динамического) массива
+ * <p>Аналог {@link CustomArrayList} с теми же публичными методами ({@code add}, {@code get}, {@code remove},
+ * {@code clear}, {@code contains}, {@code indexOf}, {@code size}, {@code sort}), которым можно пользоваться
+ * из нескольких потоков без внешней синхронизации.
+ * <p>Синхронизация построена на {@link StampedLock}:
+ * <ul>
+ *     <li>чтения ({@code get}, {@code size}, {@code indexOf}, {@code contains}, {@code toArray}) сначала выполняются оптимистично,
+ *     без захвата блокировки: ссылка на массив и размер копируются в локальные переменные, после чего
+ *     штамп проверяется через {@link StampedLock#validate(long)}. Если за это время была запись, чтение
+ *     повторяется под блокировкой чтения. Поэтому читатели не мешают друг другу и масштабируются по ядрам;</li>
+ *     <li>изменения ({@code add}, {@code remove}, {@code clear}, {@code sort}) выполняются под блокировкой записи.</li>
+ * </ul>
+ * <p>Каждая операция линеаризуема: ее результат соответствует некоторому моменту между ее началом и концом.
+ * Составные действия (например, "проверить и добавить") атомарными не являются.
+ *
+ * @param <E> тип элементов
+ * @author Yuriy Sviridov
+ * @since 0.6
+ */
+public class ConcurrentCustomArrayList<E> {
+    /**
+     * начальная емкость по умолчанию
+     */
+    private static final int DEFAULT_CAPACITY = 10;
+
+    private final StampedLock lock = new StampedLock();
+
+    /**
+     * основной массив для хранения данных (меняется только под блокировкой записи)
+     */
+    private Object[] elementData;
+
+    /**
+     * Размер списка (меняется только под блокировкой записи)
+     */
+    private int size;
+
+    /**
+     * Создает пустой список с начальной емкостью по умолчанию
+     */
+    public ConcurrentCustomArrayList() {
+        elementData = new Object[DEFAULT_CAPACITY];
+    }
+
+    /**
+     * Конструктор, который создает пустой список с указанной начальной емкостью.
+     *
+     * @param capacity начальная емкость списка
+     * @throws IllegalArgumentException если укажут отрицательную емкость
+     */
+    public ConcurrentCustomArrayList(int capacity) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("incorrect capacity");
+        }
+        elementData = new Object[capacity];
+    }
+
+    /**
+     * Добавляет элемент в конец списка.
+     *
+     * @param e входной элемент для добавления
+     */
+    public void add(E e) {
+        long stamp = lock.writeLock();
+        try {
+            if (size == elementData.length) {
+                grow();
+            }
+            elementData[size++] = e;
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    /**
+     * Добавляет элемент по указанному индексу, а также сдвигает последующие элементы вправо.
+     *
+     * @param index индекс, по которому нужно добавить элемент
+     * @param e     элемент для добавления
+     * @throws ArrayIndexOutOfBoundsException если указывается некорректный индекс
+     */
+    public void add(int index, E e) {
+        long stamp = lock.writeLock();
+        try {
+            if (index > size || index < 0) {
+                throw new ArrayIndexOutOfBoundsException("index " + index + " out of bound " + size);
+            }
+            if (size == elementData.length) {
+                grow();
+            }
+            System.arraycopy(elementData, index, elementData, index + 1, size - index);
+            elementData[index] = e;
+            size++;
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    /**
+     * Достает элемент по указанному индексу (оптимистичное чтение).
+     *
+     * @param index указанный индекс для поиска элемента
+     * @return {@code E} нужный элемент по индексу
+     * @throws IndexOutOfBoundsException если указан некорректный индекс
+     */
+    @SuppressWarnings("unchecked")
+    public E get(int index) {
+        long stamp = lock.tryOptimisticRead();
+        Object[] es = elementData;
+        int n = size;
+        Object value = index >= 0 && index < n && index < es.length ? es[index] : null;
+        if (!lock.validate(stamp)) {
+            stamp = lock.readLock();
+            try {
+                es = elementData;
+                n = size;
+                value = index >= 0 && index < n ? es[index] : null;
+            } finally {
+                lock.unlockRead(stamp);
+            }
+        }
+        if (index < 0 || index >= n) {
+            throw new IndexOutOfBoundsException("Index " + index + " out of bounds for length " + n);
+        }
+        return (E) value;
+    }
+
+    /**
+     * Находит и удаляет первое вхождение объекта, а также сдвигает последующие элементы влево.
+     *
+     * @param e элемент для удаления
+     * @return {@code true} если элемент успешно удален
+     */
+    public boolean remove(E e) {
+        long stamp = lock.writeLock();
+        try {
+            int pos = indexOf(elementData, size, e);
+            if (pos < 0) {
+                return false;
+            }
+            System.arraycopy(elementData, pos + 1, elementData, pos, size - pos - 1);
+            elementData[--size] = null;
+            return true;
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    /**
+     * Возвращает индекс первого вхождения элемента или -1, если элемент не найден.
+     * Сначала выполняется оптимистичный проход без блокировки; если во время прохода список изменился,
+     * поиск повторяется под блокировкой чтения.
+     *
+     * @param o элемент для поиска
+     * @return {@code int} индекс элемента
+     */
+    public int indexOf(Object o) {
+        long stamp = lock.tryOptimisticRead();
+        if (stamp != 0L) {
+            Object[] es = elementData;
+            int n = Math.min(size, es.length);
+            int pos = indexOf(es, n, o);
+            if (lock.validate(stamp)) {
+                return pos;
+            }
+        }
+        stamp = lock.readLock();
+        try {
+            return indexOf(elementData, size, o);
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    /**
+     * Возвращает true если эта коллекция содержит указанный элемент.
+     *
+     * @param o элемент для поиска
+     * @return {@code true}, если элемент найден в коллекции
+     */
+    public boolean contains(Object o) {
+        return indexOf(o) >= 0;
+    }
+
+    /**
+     * Возвращает размер коллекции
+     *
+     * @return {@code int} размер коллекции.
+     */
+    public int size() {
+        long stamp = lock.tryOptimisticRead();
+        int n = size;
+        if (!lock.validate(stamp)) {
+            stamp = lock.readLock();
+            try {
+                n = size;
+            } finally {
+                lock.unlockRead(stamp);
+            }
+        }
+        return n;
+    }
+
+    /**
+     * Возвращает копию элементов списка, согласованную на один момент времени: размер и элементы читаются
+     * одной операцией, поэтому, в отличие от пары вызовов {@code size()} и {@code get(i)}, между ними
+     * список не может измениться. Сначала копия снимается оптимистично, без блокировки.
+     *
+     * @return массив элементов в порядке списка
+     */
+    public Object[] toArray() {
+        long stamp = lock.tryOptimisticRead();
+        if (stamp != 0L) {
+            Object[] es = elementData;
+            int n = size;
+            // при гонке с записью n может не соответствовать массиву - такую копию все равно отбросит validate
+            Object[] copy = n <= es.length ? Arrays.copyOf(es, n) : null;
+            if (copy != null && lock.validate(stamp)) {
+                return copy;
+            }
+        }
+        stamp = lock.readLock();
+        try {
+            return Arrays.copyOf(elementData, size);
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    /**
+     * Очищает всю коллекцию.
+     */
+    public void clear() {
+        long stamp = lock.writeLock();
+        try {
+            Arrays.fill(elementData, 0, size, null);
+            size = 0;
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    /**
+     * Сортирует список в естественном порядке элементов (под блокировкой записи).
+     *
+     * @see CustomArrayList#sort()
+     */
+    @SuppressWarnings("unchecked")
+    public void sort() {
+        sort((Comparator<E>) Comparator.naturalOrder());
+    }
+
+    /**
+     * Сортирует список в порядке, заданном компаратором (под блокировкой записи).
+     *
+     * @param c входной компаратор для конкретной сортировки нужных данных
+     * @see CustomArrayList#sort(Comparator)
+     */
+    @SuppressWarnings("unchecked")
+    public void sort(Comparator<E> c) {
+        long stamp = lock.writeLock();
+        try {
+            IntroSort.sort((E[]) elementData, 0, size - 1, c);
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    /**
+     * Поиск в указанном массиве без синхронизации.
+     */
+    private static int indexOf(Object[] es, int n, Object o) {
+        for (int i = 0; i < n; i++) {
+            if (Objects.equals(o, es[i])) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Увеличивает массив в полтора раза. Вызывается под блокировкой записи.
+     */
+    private void grow() {
+        int oldCapacity = elementData.length;
+        int newCapacity = oldCapacity + Math.max(oldCapacity >> 1, 1);
+        if (newCapacity < 0) {
+            newCapacity = Integer.MAX_VALUE - 8;
+            if (newCapacity <= oldCapacity) {
+                throw new OutOfMemoryError("required array size too large");
+            }
+        }
+        elementData = Arrays.copyOf(elementData, newCapacity);
+    }
+
+    @Override
+    public String toString() {
+        return Arrays.toString(toArray());
+    }
+}
@@ -2,15 +2,39 @@ package ru.sviridov;
 
 import java.util.Arrays;
 import java.util.Comparator;
-import java.util.stream.IntStream;
+import java.util.ConcurrentModificationException;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.Set;
+import java.util.Spliterator;
+import java.util.function.BinaryOperator;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+import java.util.function.UnaryOperator;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 /**
  * реализация изменяемого (динамического) массива
- * <p>Реализует публичные методы {@code add}, {@code get}, {@code remove}, {@code removeAll}, {@code trimToSize},
- * {@code clear}, {@code contains}, {@code indexOf}, {@code size} и {@code sort}.
+ * <p>Реализует публичные методы {@code add}, {@code addAll}, {@code get}, {@code setRange}, {@code removeRange}, {@code remove}, {@code removeAll}, {@code retainAll}, {@code removeIf}, {@code trimToSize},
+ * {@code ensureCapacity}, {@code clear}, {@code contains}, {@code indexOf}, {@code size}, {@code sort}, {@code stableSort}, {@code parallelSort} и {@code snapshot}.
+ * <p>Для больших списков есть параллельные массовые операции: {@code parallelIndexOf}, {@code parallelReplaceAll},
+ * {@code parallelForEach}, {@code parallelReduce} и {@code parallelPrefix}.
+ * <p>Для выборок без полной сортировки - {@code select} (k-я порядковая статистика, например медиана),
+ * {@code topK} и {@code parallelTopK} (k наибольших элементов).
+ * <p>Для быстрого поиска можно включить хеш-индекс ({@code enableIndex}).
+ * <p>Операции можно наблюдать через метрики {@link ListMetrics} (включаются системным свойством {@value ListMetrics#PROPERTY}).
+ * <p>Список можно обходить циклом for-each, через {@code spliterator} и потоки {@code stream}/{@code parallelStream}.
+ * Итераторы и сплитераторы отказоустойчивы (fail-fast): если список структурно изменен во время обхода не через сам
+ * итератор, обход завершится {@link ConcurrentModificationException}.
  * <p>Каждый экземпляр CustomArrayList имеет начальную емкость (размер) равный 10. Если в дальнейшем массив будет заполняться данными, то
- * его размер будет автоматически увеличиваться (для чего используется приватный метод {@code grow}).
- * <p>Уменьшение размера производится с помощью метода {@code trimToSize}.
+ * его размер будет автоматически увеличиваться (для чего используется приватный метод {@code grow}) по политике роста
+ * {@link GrowthPolicy} - по умолчанию в полтора раза. Перед массовой загрузкой емкость можно задать заранее через {@code ensureCapacity}.
+ * <p>Уменьшение размера производится с помощью метода {@code trimToSize} или автоматически при удалении ({@code setAutoShrink}).
+ * <p>Основные массивы можно брать из пула {@link ArrayPool} и возвращать в него ({@code release}, {@code reset}),
+ * чтобы короткоживущие списки не создавали нагрузку на сборщик мусора.
  * <p><strong>Обратите внимание, что эта реализация не синхронизирована.</strong></p>
  * Если несколько потоков одновременно обращаются к экземпляру ArrayList и по крайней мере один из потоков изменяет список структурно,
  * он должен быть синхронизирован извне.
@@ -19,12 +43,42 @@ import java.util.stream.IntStream;
  * @author Yuriy Sviridov
  * @since 0.5
  */
-public class CustomArrayList<E> {
+public class CustomArrayList<E> implements Iterable<E> {
     /**
      * начальная емкость по умолчанию
      */
     private static final int DEFAULT_CAPACITY = 10;
 
+    /**
+     * порог параллельной сортировки по умолчанию (части меньше порога сортируются последовательно)
+     */
+    public static final int DEFAULT_PARALLEL_SORT_THRESHOLD = 1 << 13;
+
+    /**
+     * порог параллельных массовых операций по умолчанию (части меньше порога обрабатываются последовательно)
+     */
+    public static final int DEFAULT_PARALLEL_THRESHOLD = 1 << 14;
+
+    /**
+     * начиная с этого размера коллекция-аргумент {@code removeAll}/{@code retainAll} переводится в хеш-множество
+     */
+    static final int BULK_HASH_THRESHOLD = 16;
+
+    /**
+     * пустой массив освобожденного списка ({@link #release()})
+     */
+    private static final Object[] EMPTY_ELEMENT_DATA = {};
+
+    /**
+     * Политика роста массива
+     */
+    private GrowthPolicy growthPolicy = GrowthPolicy.defaultPolicy();
+
+    /**
+     * Уменьшать массив после удалений, когда он заполнен не больше чем на четверть
+     */
+    private boolean autoShrink;
+
     /**
      * основной массив для хранения данных
      */
@@ -35,11 +89,58 @@ public class CustomArrayList<E> {
      */
     private int size;
 
+    /**
+     * Порог параллельной сортировки для этого списка
+     */
+    private int parallelSortThreshold = DEFAULT_PARALLEL_SORT_THRESHOLD;
+
+    /**
+     * Порог параллельных массовых операций для этого списка
+     */
+    private int parallelThreshold = DEFAULT_PARALLEL_THRESHOLD;
+
+    /**
+     * Стабильная сортировка с переиспользуемым буфером слияния (создается при первом вызове {@code stableSort})
+     */
+    private TimSort stableSorter;
+
+    /**
+     * Сколько первых ячеек {@code elementData} видны снимкам ({@link #snapshot()}); 0 - массив ни с кем не разделен.
+     * Эти ячейки нельзя менять на месте: перед такой записью массив копируется ({@link #beforeWrite(int)}).
+     */
+    private int sharedPrefix;
+
+    /**
+     * Хеш-индекс для {@code indexOf}, {@code contains} и {@code remove(E)}; {@code null}, если индекс выключен
+     */
+    private ElementIndex index;
+
+    /**
+     * Индекс устарел (элементы переставлены сортировкой или массовой операцией) и будет перестроен при следующем поиске
+     */
+    private boolean indexStale;
+
+    /**
+     * Счетчик структурных изменений (добавление, удаление, очистка, сортировка) для отказоустойчивых итераторов
+     */
+    private int modCount;
+
+    /**
+     * Пул основных массивов; {@code null} - массивы создаются и отдаются сборщику мусора
+     */
+    private ArrayPool pool;
+
+    /**
+     * Начальная емкость списка, к которой возвращают {@link #release()} и {@link #reset()}
+     */
+    private int initialCapacity;
+
     /**
      * Создает пустой список с начальной емкостью по умолчанию
      */
     public CustomArrayList() {
         elementData = new Object[DEFAULT_CAPACITY];
+        initialCapacity = DEFAULT_CAPACITY;
     }
 
     /**
@@ -53,9 +154,38 @@ public class CustomArrayList<E> {
             throw new IllegalArgumentException("incorrect capacity");
         } else {
             elementData = new Object[capacity];
+            initialCapacity = capacity;
         }
     }
 
+    /**
+     * Создает пустой список с начальной емкостью по умолчанию, основные массивы которого берутся из пула
+     * и возвращаются в него. Емкости округляются вверх до классов размеров пула.
+     *
+     * @param pool пул массивов, например {@link ArrayPool#shared()}
+     */
+    public CustomArrayList(ArrayPool pool) {
+        this(DEFAULT_CAPACITY, pool);
+    }
+
+    /**
+     * Создает пустой список с указанной начальной емкостью, основные массивы которого берутся из пула.
+     * <p>Массив возвращается в пул при увеличении, уменьшении, {@link #release()} и {@link #reset()} - если только
+     * он не разделен со снимками ({@link #snapshot()}): такие массивы в пул не возвращаются никогда.
+     *
+     * @param capacity начальная емкость списка
+     * @param pool     пул массивов
+     * @throws IllegalArgumentException если укажут отрицательную емкость
+     */
+    public CustomArrayList(int capacity, ArrayPool pool) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("incorrect capacity");
+        }
+        this.pool = Objects.requireNonNull(pool, "pool");
+        elementData = pool.acquire(capacity);
+        initialCapacity = elementData.length;
+    }
+
     /**
      * @return настоящую емкость коллекции (фактический размер с учетом пустых ячеек)
      */
@@ -70,9 +200,13 @@ public class CustomArrayList<E> {
      * @param e входной элемент для добавления
      */
     public void add(E e) {
-        if (size == elementData.length - 1) {
-            elementData = grow();
+        if (size == elementData.length) {
+            grow(size + 1);
         }
+        if (indexLive()) {
+            index.add(e, size);
+        }
+        modCount++;
         elementData[size++] = e;
     }
 
@@ -88,13 +222,138 @@ public class CustomArrayList<E> {
         if (index > size || index < 0) {
             throw new ArrayIndexOutOfBoundsException("index " + index + " out of bound " + size);
         }
-        if (size == (elementData.length - 1)) {
-            elementData = grow();
+        if (size == elementData.length) {
+            grow(size + 1);
+        }
+        beforeWrite(index);
+        if (indexLive()) {
+            if (this.index.shift(index, 1)) {
+                this.index.add(e, index);
+            } else {
+                invalidateIndex();
+            }
+        }
+        if (ListMetrics.ENABLED) {
+            ListMetrics.recordShift(size - index);
         }
+        modCount++;
         System.arraycopy(elementData, index, elementData, index + 1, (size++) - index);
         elementData[index] = e;
     }
 
+    /**
+     * Добавляет все элементы указанного списка в конец этого списка.
+     * Массив увеличивается не больше одного раза, элементы копируются одним {@link System#arraycopy}.
+     *
+     * @param c список с элементами для добавления (может быть этим же списком)
+     * @return {@code true}, если список изменился
+     */
+    public boolean addAll(CustomArrayList<? extends E> c) {
+        return addAll(size, c);
+    }
+
+    /**
+     * Вставляет все элементы указанного списка начиная с указанного индекса, сдвигая последующие элементы вправо.
+     * Вставка m элементов стоит O(n + m): массив увеличивается не больше одного раза, хвост сдвигается один раз.
+     *
+     * @param index индекс, по которому вставляется первый элемент
+     * @param c     список с элементами для добавления (может быть этим же списком)
+     * @return {@code true}, если список изменился
+     * @throws ArrayIndexOutOfBoundsException если указывается некорректный индекс
+     */
+    public boolean addAll(int index, CustomArrayList<? extends E> c) {
+        Object[] src = c == this ? Arrays.copyOf(elementData, size) : c.elementData;
+        return insert(index, src, c.size);
+    }
+
+    /**
+     * Добавляет все элементы массива в конец списка. Подробнее - в {@link #addAll(CustomArrayList)}.
+     *
+     * @param a массив с элементами для добавления
+     * @return {@code true}, если список изменился
+     */
+    public boolean addAll(E[] a) {
+        return insert(size, a, a.length);
+    }
+
+    /**
+     * Вставляет все элементы массива начиная с указанного индекса. Подробнее - в {@link #addAll(int, CustomArrayList)}.
+     *
+     * @param index индекс, по которому вставляется первый элемент
+     * @param a     массив с элементами для добавления
+     * @return {@code true}, если список изменился
+     * @throws ArrayIndexOutOfBoundsException если указывается некорректный индекс
+     */
+    public boolean addAll(int index, E[] a) {
+        return insert(index, a, a.length);
+    }
+
+    /**
+     * Заменяет элементы начиная с {@code fromIndex} элементами массива (одним {@link System#arraycopy}).
+     * Размер списка не меняется.
+     *
+     * @param fromIndex индекс первого заменяемого элемента
+     * @param a         новые значения
+     * @throws IndexOutOfBoundsException если диапазон {@code [fromIndex, fromIndex + a.length)} выходит за пределы списка
+     */
+    public void setRange(int fromIndex, E[] a) {
+        if (fromIndex < 0 || fromIndex > size - a.length) {
+            throw new IndexOutOfBoundsException("Range [" + fromIndex + ", " + fromIndex + " + " + a.length
+                    + ") out of bounds for length " + size);
+        }
+        if (a.length == 0) {
+            return;
+        }
+        beforeWrite(fromIndex);
+        if (indexLive() && index.cheaperThanRebuild(2 * a.length)) {
+            for (int i = 0; i < a.length; i++) {
+                index.remove(elementData[fromIndex + i], fromIndex + i);
+                index.add(a[i], fromIndex + i);
+            }
+        } else {
+            invalidateIndex();
+        }
+        System.arraycopy(a, 0, elementData, fromIndex, a.length);
+    }
+
+    /**
+     * Удаляет элементы с индексами из диапазона {@code [fromIndex, toIndex)}, сдвигая хвост влево одним
+     * {@link System#arraycopy}. Освободившиеся ячейки зануляются.
+     *
+     * @param fromIndex индекс первого удаляемого элемента
+     * @param toIndex   индекс после последнего удаляемого элемента
+     * @throws IndexOutOfBoundsException если диапазон некорректен
+     */
+    public void removeRange(int fromIndex, int toIndex) {
+        if (fromIndex < 0 || toIndex > size || fromIndex > toIndex) {
+            throw new IndexOutOfBoundsException("Range [" + fromIndex + ", " + toIndex
+                    + ") out of bounds for length " + size);
+        }
+        if (fromIndex == toIndex) {
+            return;
+        }
+        beforeWrite(fromIndex);
+        if (indexLive() && index.cheaperThanRebuild(toIndex - fromIndex)) {
+            for (int i = fromIndex; i < toIndex; i++) {
+                index.remove(elementData[i], i);
+            }
+            if (toIndex < size && !index.shift(fromIndex, fromIndex - toIndex)) {
+                invalidateIndex();
+            }
+        } else {
+            invalidateIndex();
+        }
+        if (ListMetrics.ENABLED) {
+            ListMetrics.recordShift(size - toIndex);
+        }
+        System.arraycopy(elementData, toIndex, elementData, fromIndex, size - toIndex);
+        int newSize = size - (toIndex - fromIndex);
+        Arrays.fill(elementData, newSize, size, null);
+        size = newSize;
+        modCount++;
+        shrinkIfSparse();
+    }
+
     /**
      * Достает элемент по указанному индексу.
      *
@@ -104,7 +363,7 @@ public class CustomArrayList<E> {
      */
     @SuppressWarnings("unchecked")
     public E get(int index) {
-        if (index < 0 || index > size) {
+        if (index < 0 || index >= size) {
             throw new IndexOutOfBoundsException("Index " + index + " out of bounds for length " + size);
         }
         return (E) elementData[index];
@@ -119,8 +378,21 @@ public class CustomArrayList<E> {
     public boolean remove(E e) {
         int pos = indexOf(e);
         if (pos >= 0) {
-            System.arraycopy(elementData, pos + 1, elementData, pos, size - pos);
-            size--;
+            beforeWrite(pos);
+            if (index != null) {
+                // после indexOf индекс актуален
+                index.remove(e, pos);
+                if (pos < size - 1 && !index.shift(pos, -1)) {
+                    invalidateIndex();
+                }
+            }
+            if (ListMetrics.ENABLED) {
+                ListMetrics.recordShift(size - pos - 1);
+            }
+            System.arraycopy(elementData, pos + 1, elementData, pos, size - pos - 1);
+            modCount++;
+            elementData[--size] = null;
+            shrinkIfSparse();
             return true;
         }
         return false;
@@ -131,7 +403,95 @@ public class CustomArrayList<E> {
      */
     public void trimToSize() {
         if (size < elementData.length) {
-            elementData = Arrays.copyOf(elementData, size);
+            if (ListMetrics.ENABLED) {
+                ListMetrics.recordCopy(size);
+            }
+            Object[] old = elementData;
+            elementData = Arrays.copyOf(old, size);
+            releaseArray(old);
+            sharedPrefix = 0;
+        }
+    }
+
+    /**
+     * Увеличивает емкость так, чтобы в список поместилось не меньше {@code minCapacity} элементов
+     * без перераспределения массива. Удобно перед массовым добавлением: массив копируется один раз.
+     * Новая емкость вычисляется политикой роста ({@link #setGrowthPolicy(GrowthPolicy)}).
+     *
+     * @param minCapacity требуемая емкость
+     */
+    public void ensureCapacity(int minCapacity) {
+        if (minCapacity > elementData.length) {
+            grow(minCapacity);
+        }
+    }
+
+    /**
+     * @return текущая политика роста массива
+     */
+    public GrowthPolicy getGrowthPolicy() {
+        return growthPolicy;
+    }
+
+    /**
+     * Задает политику роста массива, например {@link GrowthPolicy#geometric(double)} или {@link GrowthPolicy#fixedChunk(int)}.
+     *
+     * @param growthPolicy политика роста
+     * @throws NullPointerException если политика {@code null}
+     */
+    public void setGrowthPolicy(GrowthPolicy growthPolicy) {
+        this.growthPolicy = Objects.requireNonNull(growthPolicy, "growthPolicy");
+    }
+
+    /**
+     * @return {@code true}, если массив автоматически уменьшается после удалений
+     */
+    public boolean isAutoShrink() {
+        return autoShrink;
+    }
+
+    /**
+     * Включает или выключает автоматическое уменьшение массива после удалений ({@code remove}, {@code removeAll},
+     * {@code retainAll}, {@code removeIf}, {@code clear}).
+     * <p>Массив уменьшается вдвое относительно размера, когда заполнен не больше чем на четверть (но не меньше
+     * емкости по умолчанию). Между порогами уменьшения и роста остается запас, поэтому чередование добавлений
+     * и удалений около порога не вызывает постоянного копирования массива.
+     *
+     * @param autoShrink {@code true} - уменьшать массив автоматически
+     */
+    public void setAutoShrink(boolean autoShrink) {
+        this.autoShrink = autoShrink;
+        shrinkIfSparse();
+    }
+
+    /**
+     * Очищает список и отказывается от основного массива: возвращает его в пул (если список создан с пулом
+     * и массив не разделен со снимками) или отдает сборщику мусора. После вызова список пуст и не занимает
+     * массива; им можно пользоваться дальше - первое добавление сразу выделит массив начальной емкости.
+     */
+    public void release() {
+        releaseArray(elementData);
+        elementData = EMPTY_ELEMENT_DATA;
+        sharedPrefix = 0;
+        size = 0;
+        modCount++;
+        if (index != null) {
+            index.clear();
+            indexStale = false;
+        }
+    }
+
+    /**
+     * Очищает список для повторного использования. Если массив вырос сверх начальной емкости, он заменяется
+     * массивом начальной емкости (прежний возвращается в пул, если он задан) - так список не удерживает память
+     * после одной большой загрузки. Иначе работает как {@link #clear()}.
+     */
+    public void reset() {
+        if (elementData.length > initialCapacity) {
+            release();
+            elementData = pool != null ? pool.acquire(initialCapacity) : new Object[initialCapacity];
+        } else {
+            clear();
         }
     }
 
@@ -139,40 +499,137 @@ public class CustomArrayList<E> {
      * Очищает всю коллекцию.
      */
     public void clear() {
-        for (int i = 0; i < size; i++) {
-            elementData[i] = null;
+        if (sharedPrefix > 0) {
+            // массив принадлежит снимкам - вместо очистки берем новый
+            elementData = pool != null ? pool.acquire(elementData.length) : new Object[elementData.length];
+            sharedPrefix = 0;
+        } else {
+            for (int i = 0; i < size; i++) {
+                elementData[i] = null;
+            }
         }
         size = 0;
+        modCount++;
+        if (index != null) {
+            index.clear();
+            indexStale = false;
+        }
+        shrinkIfSparse();
     }
 
     /**
-     * Возвращает индекс по найденному элементу или -1, если элемент не найден
+     * Возвращает индекс первого вхождения элемента или -1, если элемент не найден.
+     * Элементы сравниваются через {@link Objects#equals(Object, Object)}, поэтому можно искать и {@code null}.
+     * <p>Без индекса поиск линейный - O(n); с включенным индексом ({@link #enableIndex()}) - в среднем O(1)
+     * после добавлений в конец и до O(&radic;n) после вставок и удалений в середине.
      *
      * @param e элемент для поиска
      * @return {@code int} индекс элемента
      */
     public int indexOf(Object e) {
-        return IntStream.range(0, size).takeWhile(i -> elementData[i] != null).filter(i -> elementData[i].equals(e)).findFirst().orElse(-1);
+        if (index != null) {
+            return freshIndex().indexOf(e);
+        }
+        Object[] es = elementData;
+        for (int i = 0; i < size; i++) {
+            if (Objects.equals(e, es[i])) {
+                if (ListMetrics.ENABLED) {
+                    ListMetrics.recordLookup(i + 1);
+                }
+                return i;
+            }
+        }
+        if (ListMetrics.ENABLED) {
+            ListMetrics.recordLookup(size);
+        }
+        return -1;
+    }
+
+    /**
+     * Включает вторичный хеш-индекс (элемент - все позиции его вхождений), который поддерживается при изменениях:
+     * <ul>
+     *     <li>{@code contains} работает в среднем за O(1);</li>
+     *     <li>{@code add(E)} и {@code addAll} в конец обновляют индекс за O(1) на элемент;</li>
+     *     <li>вставка и удаление в середине ({@code add(int, E)}, {@code remove(E)}, {@code removeRange},
+     *     {@code setRange}) меняют только записи затронутых элементов, а сдвиг остальных позиций откладывается
+     *     в журнал длиной около &radic;n, а заполненный журнал приводит к перестроению индекса за O(n);
+     *     {@code indexOf} и {@code remove(E)} поэтому стоят амортизированно O(&radic;n), а не O(n);</li>
+     *     <li>сортировки, {@code removeAll}/{@code retainAll}/{@code removeIf}, параллельные операции и крупные
+     *     вставки и удаления переставляют слишком много элементов: индекс помечается устаревшим и перестраивается
+     *     за O(n) при следующем поиске - один раз на серию таких изменений.</li>
+     * </ul>
+     * Элементы должны корректно реализовывать {@code hashCode} и {@code equals}.
+     * Повторный вызов ничего не делает.
+     */
+    public void enableIndex() {
+        if (index == null) {
+            index = new ElementIndex(size);
+            index.rebuild(elementData, size);
+            indexStale = false;
+        }
+    }
+
+    /**
+     * Выключает хеш-индекс и освобождает его память.
+     */
+    public void disableIndex() {
+        index = null;
+        indexStale = false;
+    }
+
+    /**
+     * @return {@code true}, если хеш-индекс включен
+     */
+    public boolean isIndexEnabled() {
+        return index != null;
+    }
+
+    /**
+     * Возвращает оценку памяти, занимаемой хеш-индексом (при сжатых указателях), или 0, если индекс выключен.
+     *
+     * @return размер индекса в байтах
+     */
+    public long indexMemoryBytes() {
+        return index == null ? 0 : index.memoryBytes();
     }
 
     /**
      * Удаляет из этого списка все его элементы, содержащиеся в указанной коллекции.
+     * <p>Выполняется за один проход со сжатием массива. Если коллекция-аргумент большая и без хеш-индекса,
+     * ее элементы сначала складываются в хеш-множество, поэтому общая сложность - O(n + m).
      *
      * @param c коллекция, содержащая элементы, которые нужно удалить из этого списка
      * @return {@code false} если ни один элемент из переданной коллекции не был найден и удален в искомой
      */
-
-    @SuppressWarnings("unchecked")
     public boolean removeAll(CustomArrayList<?> c) {
-        int removeCount = 0;
-        for (int i = 0; i < size; i++) {
-            if (c.contains(elementData[i])) {
-                remove((E) elementData[i]);
-                i--;
-                removeCount++;
-            }
-        }
-        return removeCount > 0;
+        Predicate<Object> contains = membership(c);
+        return batchRemove(contains);
+    }
+
+    /**
+     * Оставляет в этом списке только элементы, содержащиеся в указанной коллекции. Работает как {@link #removeAll}.
+     *
+     * @param c коллекция, элементы которой нужно сохранить
+     * @return {@code true}, если список изменился
+     */
+    public boolean retainAll(CustomArrayList<?> c) {
+        Predicate<Object> contains = membership(c);
+        return batchRemove(contains.negate());
+    }
+
+    /**
+     * Удаляет все элементы, удовлетворяющие условию, за один проход со сжатием массива - O(n).
+     * Если условие бросит исключение, список останется целым: уже удаленные элементы не вернутся,
+     * а непроверенные сохранятся.
+     *
+     * @param filter условие удаления
+     * @return {@code true}, если был удален хотя бы один элемент
+     */
+    public boolean removeIf(Predicate<? super E> filter) {
+        Objects.requireNonNull(filter, "filter");
+        @SuppressWarnings("unchecked")
+        Predicate<Object> test = (Predicate<Object>) filter;
+        return batchRemove(test);
     }
 
     /**
@@ -182,6 +639,9 @@ public class CustomArrayList<E> {
      * @return {@code true}, если элемент найден в коллекции
      */
     public boolean contains(Object o) {
+        if (index != null) {
+            return freshIndex().contains(o);
+        }
         return indexOf(o) >= 0;
     }
 
@@ -194,111 +654,703 @@ public class CustomArrayList<E> {
         return size;
     }
 
+    /**
+     * Возвращает неизменяемый снимок текущего содержимого списка за O(1), без копирования массива.
+     * <p>Снимок и список разделяют основной массив. Добавление в конец списка не затрагивает снимок и ничего
+     * не копирует; первое изменение уже существующих элементов (вставка, удаление, сортировка, очистка)
+     * один раз копирует массив, после чего список снова пишет в собственный массив.
+     * <p>Снимок можно передавать читателям в другие потоки: они не блокируются и всегда видят согласованное
+     * состояние на момент создания снимка.
+     *
+     * @return {@link CustomArrayListSnapshot} с элементами списка
+     */
+    public CustomArrayListSnapshot<E> snapshot() {
+        sharedPrefix = Math.max(sharedPrefix, size);
+        return new CustomArrayListSnapshot<>(elementData, size);
+    }
+
+    /**
+     * Возвращает проверку принадлежности коллекции: для большой коллекции без индекса - через хеш-множество.
+     * Используется также {@link GapBufferCustomArrayList}.
+     */
+    static Predicate<Object> membership(CustomArrayList<?> c) {
+        if (c.size() < BULK_HASH_THRESHOLD || c.isIndexEnabled()) {
+            return c::contains;
+        }
+        Set<Object> set = new HashSet<>(Math.max(16, (int) (c.size() / .75f) + 1));
+        for (int i = 0; i < c.size(); i++) {
+            set.add(c.elementData[i]);
+        }
+        return set::contains;
+    }
+
+    /**
+     * Удаляет элементы, для которых {@code filter} вернул {@code true}, сжимая массив за один проход.
+     * Освободившиеся ячейки в конце зануляются, чтобы сборщик мусора мог освободить удаленные объекты.
+     */
+    private boolean batchRemove(Predicate<Object> filter) {
+        int r = 0;
+        while (r < size && !filter.test(elementData[r])) {
+            r++;
+        }
+        if (r == size) {
+            return false;
+        }
+        beforeWrite(r);
+        Object[] es = elementData;
+        int w = r++;
+        try {
+            for (; r < size; r++) {
+                Object e = es[r];
+                if (!filter.test(e)) {
+                    es[w++] = e;
+                }
+            }
+        } finally {
+            // если условие бросило исключение - сохраняем непроверенный хвост
+            if (r < size) {
+                System.arraycopy(es, r, es, w, size - r);
+                w += size - r;
+            }
+            Arrays.fill(es, w, size, null);
+            size = w;
+            modCount++;
+            // после сжатия: условие могло обратиться к индексу этого же списка и перестроить его
+            invalidateIndex();
+        }
+        shrinkIfSparse();
+        return true;
+    }
+
+    /**
+     * Вставляет первые {@code n} элементов {@code src} по индексу {@code index}: один рост массива и один сдвиг хвоста.
+     * Хеш-индекс дополняется (со сдвигом позиций хвоста), а для больших вставок в середину помечается устаревшим.
+     */
+    private boolean insert(int index, Object[] src, int n) {
+        if (index > size || index < 0) {
+            throw new ArrayIndexOutOfBoundsException("index " + index + " out of bound " + size);
+        }
+        if (n == 0) {
+            return false;
+        }
+        int newSize = size + n;
+        if (newSize < 0 || newSize > elementData.length) {
+            grow(newSize);
+        }
+        beforeWrite(index);
+        if (indexLive() && (index == size || this.index.cheaperThanRebuild(n) && this.index.shift(index, n))) {
+            for (int i = 0; i < n; i++) {
+                this.index.add(src[i], index + i);
+            }
+        } else {
+            invalidateIndex();
+        }
+        if (index < size) {
+            if (ListMetrics.ENABLED) {
+                ListMetrics.recordShift(size - index);
+            }
+            System.arraycopy(elementData, index, elementData, index + n, size - index);
+        }
+        System.arraycopy(src, 0, elementData, index, n);
+        size = newSize;
+        modCount++;
+        return true;
+    }
+
+    @SuppressWarnings("unchecked")
+    private CustomArrayList<E> topK(int k, Comparator<E> c, int threshold) {
+        if (k < 0) {
+            throw new IllegalArgumentException("incorrect k");
+        }
+        Objects.requireNonNull(c, "c");
+        Object[] top = Selection.topK((E[]) elementData, 0, size, Math.min(k, size), c, threshold);
+        CustomArrayList<E> result = new CustomArrayList<>(Math.max(top.length, 1));
+        result.addAll((E[]) top);
+        return result;
+    }
+
+    /**
+     * Возвращает основной массив для изменения элементов на месте внутри пакета (например, слияния
+     * в {@link SortedCustomArrayList}): массив не разделен со снимками, хеш-индекс помечен устаревшим,
+     * изменение учтено в {@code modCount}. Размер списка при этом не меняется.
+     */
+    Object[] writableArray() {
+        beforeWrite(0);
+        invalidateIndex();
+        modCount++;
+        return elementData;
+    }
+
+    /**
+     * @return {@code true}, если хеш-индекс включен и актуален, то есть его нужно обновлять при изменениях
+     */
+    private boolean indexLive() {
+        return index != null && !indexStale;
+    }
+
+    /**
+     * @return хеш-индекс, перестроенный, если он устарел
+     */
+    private ElementIndex freshIndex() {
+        if (indexStale) {
+            index.rebuild(elementData, size);
+            indexStale = false;
+        }
+        return index;
+    }
+
+    /**
+     * Помечает хеш-индекс устаревшим после перестановки элементов.
+     */
+    private void invalidateIndex() {
+        if (index != null) {
+            indexStale = true;
+        }
+    }
+
+    /**
+     * Вызывается перед изменением ячеек начиная с {@code fromIndex}: если они видны снимкам, массив копируется.
+     */
+    private void beforeWrite(int fromIndex) {
+        if (fromIndex < sharedPrefix) {
+            if (ListMetrics.ENABLED) {
+                ListMetrics.recordCopy(size);
+            }
+            reallocate(elementData.length);
+        }
+    }
+
     /**
      * Приватный метод для увеличения размера коллекции по достижении лимита.
+     * Новая емкость вычисляется политикой роста, но не меньше {@code minCapacity}.
      *
-     * @return {@code Object[]} увеличенный массив (коллекцию)
+     * @param minCapacity минимально необходимая емкость
+     * @throws OutOfMemoryError если требуемая емкость больше {@link Integer#MAX_VALUE}
+     */
+    private void grow(int minCapacity) {
+        if (minCapacity < 0) {
+            throw new OutOfMemoryError("required array size too large");
+        }
+        int newCapacity = elementData == EMPTY_ELEMENT_DATA
+                // после release() сразу возвращаемся к начальной емкости, а не растем с нуля
+                ? Math.max(initialCapacity, minCapacity)
+                : GrowthPolicies.clamp(growthPolicy.newCapacity(elementData.length, minCapacity), minCapacity);
+        if (ListMetrics.ENABLED) {
+            ListMetrics.recordGrow(size);
+        }
+        reallocate(newCapacity);
+    }
+
+    /**
+     * Уменьшает массив, если включено автоматическое уменьшение и массив заполнен не больше чем на четверть.
+     */
+    private void shrinkIfSparse() {
+        int capacity = elementData.length;
+        if (autoShrink && capacity > DEFAULT_CAPACITY && size <= capacity >> 2) {
+            int newCapacity = Math.max(size << 1, DEFAULT_CAPACITY);
+            if (pool != null && ArrayPool.pooledLength(newCapacity) >= capacity) {
+                return;
+            }
+            if (ListMetrics.ENABLED) {
+                ListMetrics.recordCopy(size);
+            }
+            reallocate(newCapacity);
+        }
+    }
+
+    /**
+     * Заменяет основной массив массивом длины {@code length} (из пула, если он задан) с теми же элементами.
+     * Старый массив возвращается в пул, если он не разделен со снимками.
+     */
+    private void reallocate(int length) {
+        Object[] old = elementData;
+        if (pool == null) {
+            elementData = Arrays.copyOf(old, length);
+        } else {
+            elementData = pool.acquire(length);
+            System.arraycopy(old, 0, elementData, 0, Math.min(size, length));
+            releaseArray(old);
+        }
+        sharedPrefix = 0;
+    }
+
+    /**
+     * Возвращает прежний основной массив в пул (с занулением занятых ячеек), если пул задан
+     * и массив не виден снимкам. Вызывается до сброса {@code sharedPrefix}.
      */
-    private Object[] grow() {
-        int growFactor = elementData.length + (size / 2);
-        return Arrays.copyOf(elementData, growFactor);
+    private void releaseArray(Object[] old) {
+        if (pool != null && sharedPrefix == 0) {
+            pool.release(old, Math.min(size, old.length));
+        }
     }
 
     /**
-     * Публичный вспомогательный метод для сортировки.
-     * (при необходимости можно указать другой вид сортировки).
+     * Сортирует список в естественном порядке элементов (элементы должны реализовывать {@link Comparable}).
+     * <p>Используется интроспективная сортировка ({@link IntroSort}): быстрая сортировка с трехчастным
+     * разбиением и выбором опорного элемента медианой трех / "ниндером", сортировка вставками для
+     * небольших диапазонов и пирамидальная сортировка при слишком глубокой рекурсии.
+     * Сложность алгоритма составляет: худшая = O(n log(n)), средняя = O(n log(n)).
+     * Сортировка не стабильна.
      */
     @SuppressWarnings("unchecked")
     public void sort() {
-        quickSort((E[]) elementData, 0, size - 1);
+        sort((Comparator<E>) Comparator.naturalOrder());
     }
 
     /**
-     * Публичный вспомогательный метод для сортировки с компаратором.
-     * (при необходимости можно указать другой вид сортировки).
+     * Сортирует список в порядке, заданном компаратором.
+     * Используется та же интроспективная сортировка, что и в {@link #sort()}.
+     *
      * @param c входной компаратор для конкретной сортировки нужных данных
      */
     @SuppressWarnings("unchecked")
     public void sort(Comparator<E> c) {
-        quickSort(c, (E[]) elementData, 0, size - 1);
-    }
-
-    /**
-     * Метод сортировки посредством алгоритма быстрой сортировки.
-     * Достигается путем выбора опорного элемента и сортировки соседних, а также с помощью рекурсии.
-     * В теле метода описаны важные этапы
-     * Сложность алгоритма составляет: худшая = O(n^2), средняя = O(n log(n))
-     *
-     * @param sortArr сортируемый массив
-     * @param first   первый элемент коллекции
-     * @param last    крайний элемент
-     */
-    private void quickSort(E[] sortArr, int first, int last) {
-        // завершаем, если массив пуст или уже нечего делить
-        if (sortArr.length == 0 || first >= last) return;
-
-        // выбираем опорный элемент
-        int middle = first + (last - first) / 2;
-        E border = sortArr[middle];
-
-        // разделяем на подмассивы и меняем местами
-        int i = first;
-        int j = last;
-        while (i <= j) {
-            while (((Comparable<E>) sortArr[i]).compareTo(border) < 0) i++;
-            while (((Comparable<E>) sortArr[j]).compareTo(border) > 0) j--;
-            if (i <= j) { // меняем местами
-                E swap = sortArr[i];
-                sortArr[i] = sortArr[j];
-                sortArr[j] = swap;
-                i++;
-                j--;
-            }
+        beforeWrite(0);
+        invalidateIndex();
+        modCount++;
+        if (ListMetrics.ENABLED) {
+            ListMetrics.SortProbe<E> probe = ListMetrics.startSort("introSort", size, c);
+            IntroSort.sort((E[]) elementData, 0, size - 1, probe);
+            probe.finish();
+        } else {
+            IntroSort.sort((E[]) elementData, 0, size - 1, c);
         }
-        // рекурсия для сортировки левой и правой частей
-        if (first < j) quickSort(sortArr, first, j);
-        if (last > i) quickSort(sortArr, i, last);
-    }
-    /**
-     * Метод сортировки посредством алгоритма быстрой сортировки
-     * Достигается путем выбора опорного элемента и сортировки соседних, а также с помощью рекурсии.
-     * В теле метода описаны важные этапы
-     * Сложность алгоритма составляет: худшая = O(n^2), средняя = O(n log(n)).
-     * <p>Компаратор определяет - по каким параметрам нужно сортировать.
-     * @param c входной компаратор
-     * @param sortArr сортируемый массив
-     * @param first   первый элемент коллекции
-     * @param last    крайний элемент
-     */
-    private void quickSort(Comparator<E> c, E[] sortArr, int first, int last) {
-        // завершаем, если массив пуст или уже нечего делить
-        if (sortArr.length == 0 || first >= last) return;
-
-        // выбираем опорный элемент
-        int middle = first + (last - first) / 2;
-        E border = sortArr[middle];
-
-        // разделяем на подмассивы и меняем местами
-        int i = first;
-        int j = last;
-        while (i <= j) {
-            while (c.compare(sortArr[i], border) < 0) i++;
-            while (c.compare(sortArr[j], border) > 0) j--;
-            if (i <= j) { // меняем местами
-                E swap = sortArr[i];
-                sortArr[i] = sortArr[j];
-                sortArr[j] = swap;
-                i++;
-                j--;
-            }
+    }
+
+    /**
+     * Стабильная сортировка в естественном порядке элементов (элементы должны реализовывать {@link Comparable}).
+     * <p>Используется адаптивная сортировка слиянием в стиле TimSort: естественные возрастающие и убывающие
+     * серии находятся за один проход и сливаются с галопом, поэтому почти отсортированные данные
+     * сортируются практически за O(n). Равные элементы сохраняют исходный порядок.
+     * <p>Буфер слияния хранится в списке и переиспользуется повторными вызовами.
+     */
+    @SuppressWarnings("unchecked")
+    public void stableSort() {
+        stableSort((Comparator<E>) Comparator.naturalOrder());
+    }
+
+    /**
+     * Стабильная сортировка с компаратором: элементы, равные с точки зрения компаратора,
+     * сохраняют исходный порядок. Подробнее - в {@link #stableSort()}.
+     *
+     * @param c входной компаратор для конкретной сортировки нужных данных
+     * @throws IllegalArgumentException если компаратор нарушает свой контракт
+     */
+    @SuppressWarnings("unchecked")
+    public void stableSort(Comparator<E> c) {
+        if (stableSorter == null) {
+            stableSorter = new TimSort();
+        }
+        beforeWrite(0);
+        invalidateIndex();
+        modCount++;
+        if (ListMetrics.ENABLED) {
+            ListMetrics.SortProbe<E> probe = ListMetrics.startSort("timSort", size, c);
+            stableSorter.sort((E[]) elementData, 0, size - 1, probe);
+            probe.finish();
+        } else {
+            stableSorter.sort((E[]) elementData, 0, size - 1, c);
+        }
+    }
+
+    /**
+     * Параллельная сортировка в естественном порядке элементов (элементы должны реализовывать {@link Comparable}).
+     * <p>Сортировка выполняется в общем пуле {@link java.util.concurrent.ForkJoinPool}: после разбиения по
+     * опорному элементу обе части сортируются отдельными задачами, а части меньше порога
+     * ({@link #getParallelSortThreshold()}) сортируются последовательно. Результат совпадает с {@link #sort()}.
+     */
+    @SuppressWarnings("unchecked")
+    public void parallelSort() {
+        parallelSort((Comparator<E>) Comparator.naturalOrder());
+    }
+
+    /**
+     * Параллельная сортировка с компаратором. Результат совпадает с {@link #sort(Comparator)}.
+     *
+     * @param c входной компаратор для конкретной сортировки нужных данных
+     * @see #parallelSort()
+     */
+    @SuppressWarnings("unchecked")
+    public void parallelSort(Comparator<E> c) {
+        beforeWrite(0);
+        invalidateIndex();
+        modCount++;
+        if (ListMetrics.ENABLED) {
+            ListMetrics.SortProbe<E> probe = ListMetrics.startSort("parallelQuickSort", size, c);
+            ParallelQuickSort.sort((E[]) elementData, 0, size - 1, probe, parallelSortThreshold);
+            probe.finish();
+        } else {
+            ParallelQuickSort.sort((E[]) elementData, 0, size - 1, c, parallelSortThreshold);
         }
-        // рекурсия для сортировки левой и правой частей
-        if (first < j) quickSort(c, sortArr, first, j);
-        if (last > i) quickSort(c, sortArr, i, last);
+    }
+
+    /**
+     * Возвращает элемент, который стоял бы на месте {@code k} после сортировки компаратором (k-я порядковая
+     * статистика; например, {@code select(size() / 2, c)} - медиана), без полной сортировки.
+     * <p>Используется интроселект: то же разбиение, что в {@link #sort(Comparator)}, но рекурсия идет только
+     * в часть с k-м элементом, поэтому в среднем O(n). Список переставляется: после вызова слева от {@code k}
+     * стоят не большие, справа - не меньшие элементы.
+     *
+     * @param k индекс в отсортированном порядке
+     * @param c компаратор
+     * @return k-й по порядку элемент
+     * @throws IndexOutOfBoundsException если {@code k} вне списка
+     */
+    @SuppressWarnings("unchecked")
+    public E select(int k, Comparator<E> c) {
+        if (k < 0 || k >= size) {
+            throw new IndexOutOfBoundsException("Index " + k + " out of bounds for length " + size);
+        }
+        beforeWrite(0);
+        invalidateIndex();
+        modCount++;
+        Selection.select((E[]) elementData, 0, size - 1, k, c);
+        return (E) elementData[k];
+    }
+
+    /**
+     * Возвращает k наибольших (с точки зрения компаратора) элементов по убыванию, не меняя список.
+     * Используется ограниченная куча из k элементов: O(n log(k)) вместо O(n log(n)) полной сортировки.
+     * Например, 100 самых быстрых котов: {@code cats.topK(100, Comparator.comparingInt(Cat::getMaxSpeed))}.
+     *
+     * @param k сколько элементов нужно; если больше размера списка - возвращаются все
+     * @param c компаратор
+     * @return новый список из не более чем k элементов по убыванию
+     * @throws IllegalArgumentException если {@code k} отрицательно
+     */
+    public CustomArrayList<E> topK(int k, Comparator<E> c) {
+        return topK(k, c, Integer.MAX_VALUE);
+    }
+
+    /**
+     * Параллельный вариант {@link #topK(int, Comparator)}: части списка размером до порога
+     * ({@link #getParallelThreshold()}) обрабатываются задачами общего пула, их кучи затем объединяются.
+     * Результат совпадает с {@code topK} с точностью до порядка равных элементов.
+     *
+     * @param k сколько элементов нужно; если больше размера списка - возвращаются все
+     * @param c компаратор
+     * @return новый список из не более чем k элементов по убыванию
+     * @throws IllegalArgumentException если {@code k} отрицательно
+     */
+    public CustomArrayList<E> parallelTopK(int k, Comparator<E> c) {
+        return topK(k, c, Math.max(parallelThreshold, k));
+    }
+
+    /**
+     * @return порог параллельной сортировки: части меньшего размера сортируются последовательно
+     */
+    public int getParallelSortThreshold() {
+        return parallelSortThreshold;
+    }
+
+    /**
+     * Задает порог параллельной сортировки.
+     *
+     * @param threshold размер части, начиная с которого она делится на параллельные задачи
+     * @throws IllegalArgumentException если порог меньше 2
+     */
+    public void setParallelSortThreshold(int threshold) {
+        if (threshold < 2) {
+            throw new IllegalArgumentException("incorrect threshold");
+        }
+        parallelSortThreshold = threshold;
+    }
+
+    /**
+     * Параллельный поиск: возвращает индекс первого (наименьшего) вхождения элемента или -1, как {@link #indexOf(Object)}.
+     * <p>Список делится на части, которые просматриваются задачами общего пула {@link java.util.concurrent.ForkJoinPool};
+     * после нахождения совпадения части правее него пропускаются. Хеш-индекс не используется.
+     *
+     * @param o элемент для поиска
+     * @return {@code int} индекс первого вхождения элемента
+     */
+    public int parallelIndexOf(Object o) {
+        return ParallelOps.indexOf(elementData, 0, size, o, parallelThreshold);
+    }
+
+    /**
+     * Параллельно заменяет каждый элемент результатом функции.
+     * Функция не должна зависеть от порядка вызовов и изменять список.
+     *
+     * @param operator функция, вычисляющая новое значение элемента
+     */
+    public void parallelReplaceAll(UnaryOperator<E> operator) {
+        Objects.requireNonNull(operator, "operator");
+        beforeWrite(0);
+        invalidateIndex();
+        modCount++;
+        ParallelOps.replaceAll(elementData, 0, size, operator, parallelThreshold);
+    }
+
+    /**
+     * Параллельно выполняет действие для каждого элемента; порядок вызовов не определен,
+     * действие может выполняться одновременно в нескольких потоках.
+     *
+     * @param action действие для каждого элемента
+     * @throws ConcurrentModificationException если список был структурно изменен во время обхода
+     */
+    public void parallelForEach(Consumer<? super E> action) {
+        Objects.requireNonNull(action, "action");
+        int expectedModCount = modCount;
+        ParallelOps.forEach(elementData, 0, size, action, parallelThreshold);
+        if (modCount != expectedModCount) {
+            throw new ConcurrentModificationException();
+        }
+    }
+
+    /**
+     * Параллельная свертка списка: {@code identity op e0 op e1 op ... op en-1}.
+     * Части сворачиваются независимо и объединяются с сохранением порядка, поэтому операция
+     * должна быть ассоциативной, но может быть некоммутативной (например, конкатенация строк).
+     *
+     * @param identity нейтральный элемент операции
+     * @param op       ассоциативная операция
+     * @return результат свертки; {@code identity}, если список пуст
+     */
+    public E parallelReduce(E identity, BinaryOperator<E> op) {
+        Objects.requireNonNull(op, "op");
+        return ParallelOps.reduce(elementData, 0, size, identity, op, parallelThreshold);
+    }
+
+    /**
+     * Параллельная префиксная свертка на месте: каждый элемент заменяется сверткой всех элементов
+     * от начала списка до него включительно (например, с {@code Integer::sum} - накопленными суммами).
+     * Операция должна быть ассоциативной; функция вызывается примерно 2n раз.
+     *
+     * @param op ассоциативная операция
+     */
+    public void parallelPrefix(BinaryOperator<E> op) {
+        Objects.requireNonNull(op, "op");
+        beforeWrite(0);
+        invalidateIndex();
+        modCount++;
+        ParallelOps.prefix(elementData, 0, size, op, parallelThreshold);
+    }
+
+    /**
+     * @return порог параллельных массовых операций: списки и части меньшего размера обрабатываются последовательно
+     */
+    public int getParallelThreshold() {
+        return parallelThreshold;
+    }
+
+    /**
+     * Задает порог параллельных массовых операций ({@code parallelIndexOf}, {@code parallelReplaceAll},
+     * {@code parallelForEach}, {@code parallelReduce}, {@code parallelPrefix}).
+     *
+     * @param threshold размер части, начиная с которого она делится на параллельные задачи
+     * @throws IllegalArgumentException если порог меньше 1
+     */
+    public void setParallelThreshold(int threshold) {
+        if (threshold < 1) {
+            throw new IllegalArgumentException("incorrect threshold");
+        }
+        parallelThreshold = threshold;
+    }
+
+    /**
+     * Возвращает отказоустойчивый итератор по элементам списка в порядке индексов.
+     * Итератор поддерживает {@link Iterator#remove()}.
+     *
+     * @return итератор по элементам списка
+     */
+    @Override
+    public Iterator<E> iterator() {
+        return new Itr();
+    }
+
+    /**
+     * Выполняет действие для каждого элемента списка по порядку, без проверки границ на каждом элементе.
+     *
+     * @param action действие для каждого элемента
+     * @throws ConcurrentModificationException если список был структурно изменен во время обхода
+     */
+    @Override
+    @SuppressWarnings("unchecked")
+    public void forEach(Consumer<? super E> action) {
+        Objects.requireNonNull(action, "action");
+        int expectedModCount = modCount;
+        Object[] es = elementData;
+        int n = size;
+        for (int i = 0; i < n && modCount == expectedModCount; i++) {
+            action.accept((E) es[i]);
+        }
+        if (modCount != expectedModCount) {
+            throw new ConcurrentModificationException();
+        }
+    }
+
+    /**
+     * Возвращает сплитератор с характеристиками {@link Spliterator#ORDERED}, {@link Spliterator#SIZED}
+     * и {@link Spliterator#SUBSIZED}. Диапазон делится пополам, поэтому части получаются равными.
+     * Границы фиксируются при первом обходе или делении (позднее связывание), изменения после этого
+     * обнаруживаются в конце обхода.
+     *
+     * @return сплитератор по элементам списка
+     */
+    @Override
+    public Spliterator<E> spliterator() {
+        return new ListSpliterator(0, -1, 0);
+    }
+
+    /**
+     * @return последовательный поток элементов списка
+     */
+    public Stream<E> stream() {
+        return StreamSupport.stream(spliterator(), false);
+    }
+
+    /**
+     * Возвращает параллельный поток элементов списка: обработка распределяется по общему пулу
+     * {@link java.util.concurrent.ForkJoinPool} без копирования элементов в другую коллекцию.
+     *
+     * @return параллельный поток элементов списка
+     */
+    public Stream<E> parallelStream() {
+        return StreamSupport.stream(spliterator(), true);
     }
 
     @Override
     public String toString() {
         return Arrays.toString(Arrays.copyOf(elementData, size));
     }
+
+    /**
+     * Итератор списка с проверкой {@code modCount}.
+     */
+    private class Itr implements Iterator<E> {
+        /**
+         * индекс следующего элемента
+         */
+        private int cursor;
+
+        /**
+         * индекс последнего возвращенного элемента или -1
+         */
+        private int lastRet = -1;
+
+        private int expectedModCount = modCount;
+
+        @Override
+        public boolean hasNext() {
+            return cursor < size;
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public E next() {
+            checkForComodification();
+            int i = cursor;
+            if (i >= size) {
+                throw new NoSuchElementException();
+            }
+            cursor = i + 1;
+            return (E) elementData[lastRet = i];
+        }
+
+        @Override
+        public void remove() {
+            if (lastRet < 0) {
+                throw new IllegalStateException();
+            }
+            checkForComodification();
+            removeRange(lastRet, lastRet + 1);
+            cursor = lastRet;
+            lastRet = -1;
+            expectedModCount = modCount;
+        }
+
+        private void checkForComodification() {
+            if (modCount != expectedModCount) {
+                throw new ConcurrentModificationException();
+            }
+        }
+    }
+
+    /**
+     * Сплитератор по диапазону индексов {@code [index, fence)} с поздним связыванием и делением пополам.
+     */
+    private final class ListSpliterator implements Spliterator<E> {
+        private int index;
+
+        /**
+         * конец диапазона (не включительно); -1 - еще не зафиксирован
+         */
+        private int fence;
+
+        private int expectedModCount;
+
+        ListSpliterator(int origin, int fence, int expectedModCount) {
+            this.index = origin;
+            this.fence = fence;
+            this.expectedModCount = expectedModCount;
+        }
+
+        private int getFence() {
+            int hi = fence;
+            if (hi < 0) {
+                expectedModCount = modCount;
+                hi = fence = size;
+            }
+            return hi;
+        }
+
+        @Override
+        public Spliterator<E> trySplit() {
+            int hi = getFence();
+            int lo = index;
+            int mid = (lo + hi) >>> 1;
+            if (lo >= mid) {
+                return null;
+            }
+            index = mid;
+            return new ListSpliterator(lo, mid, expectedModCount);
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public boolean tryAdvance(Consumer<? super E> action) {
+            Objects.requireNonNull(action, "action");
+            int hi = getFence();
+            int i = index;
+            if (i >= hi) {
+                return false;
+            }
+            index = i + 1;
+            action.accept((E) elementData[i]);
+            if (modCount != expectedModCount) {
+                throw new ConcurrentModificationException();
+            }
+            return true;
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public void forEachRemaining(Consumer<? super E> action) {
+            Objects.requireNonNull(action, "action");
+            int hi = getFence();
+            Object[] es = elementData;
+            int i = index;
+            index = hi;
+            if (hi > es.length) {
+                throw new ConcurrentModificationException();
+            }
+            for (; i < hi; i++) {
+                action.accept((E) es[i]);
+            }
+            if (modCount != expectedModCount) {
+                throw new ConcurrentModificationException();
+            }
+        }
+
+        @Override
+        public long estimateSize() {
+            return getFence() - index;
+        }
+
+        @Override
+        public int characteristics() {
+            return Spliterator.ORDERED | Spliterator.SIZED | Spliterator.SUBSIZED;
+        }
+    }
 }
@@ -0,0 +1,464 @@
+package ru.sviridov;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Сохранение списков в двоичный файл и загрузка из него.
+ * <p>Файл состоит из заголовка и данных. Все числа записаны в порядке байтов little-endian:
+ * <pre>
+ * смещение  0: int  magic       - 0x4C414331 ("CAL1")
+ * смещение  4: int  version     - версия формата ({@value #VERSION})
+ * смещение  8: long dataOffset  - начало данных (кратно 8)
+ * смещение 16: int  width       - ширина записи в байтах
+ * смещение 20: int  size        - количество элементов
+ * смещение 24: int  capacity    - емкость исходного списка
+ * смещение 28: int  idLength, затем UTF-8 байты идентификатора кодека ({@link ElementCodec#id()})
+ * dataOffset:  size записей по width байт подряд
+ * после данных: int stateLength, затем состояние кодека ({@link ElementCodec#writeState})
+ * </pre>
+ * <p>Поля заголовка проверяются до выделения памяти: размер данных, идентификатор кодека и состояние должны
+ * помещаться в файл, поэтому поврежденный или обрезанный файл приводит к {@link IOException}, а не к
+ * {@link OutOfMemoryError}. Емкость - только подсказка: она восстанавливается, если не больше
+ * чем вдвое превышает размер списка (иначе список создается по размеру).
+ * <p>Состояние кодека записывается после данных, потому что кодек может дополнять его при кодировании
+ * (например, словарь имен {@link CatCodec}).
+ * <p>Данные лежат в том же виде, что и в {@link OffHeapCustomArrayList}, поэтому список можно загрузить двумя способами:
+ * <ul>
+ *     <li>сразу ({@code load...}) - элементы читаются в обычный список в куче;</li>
+ *     <li>лениво ({@link #map}) - файл отображается в память ({@link FileChannel#map}) и используется напрямую,
+ *     без построчного декодирования; страницы файла подгружаются операционной системой при обращении.</li>
+ * </ul>
+ * <p>Списки примитивов ({@link IntArrayList}, {@link LongArrayList}, {@link DoubleArrayList}) сохраняются
+ * и загружаются целыми блоками, без поэлементной обработки, и совместимы с кодеками
+ * {@link ElementCodec#ints()}, {@link ElementCodec#longs()} и {@link ElementCodec#doubles()}.
+ *
+ * @author Yuriy Sviridov
+ * @since 0.6
+ */
+public final class CustomArrayListFiles {
+
+    /**
+     * сигнатура файла
+     */
+    private static final int MAGIC = 0x4C414331;
+
+    /**
+     * версия формата
+     */
+    public static final int VERSION = 1;
+
+    /**
+     * размер фиксированной части заголовка (до идентификатора кодека)
+     */
+    private static final int FIXED_HEADER = 32;
+
+    /**
+     * максимальный размер одного отображаемого блока
+     */
+    private static final int MAX_MAPPED_CHUNK_BYTES = 1 << 30;
+
+    /**
+     * размер буфера при поблочном чтении и записи
+     */
+    private static final int IO_BLOCK_BYTES = 1 << 16;
+
+    /**
+     * запас емкости сверх удвоенного размера, который еще восстанавливается при загрузке
+     */
+    private static final int CAPACITY_SLACK = 16;
+
+    private CustomArrayListFiles() {
+    }
+
+    /**
+     * Сохраняет список в файл, кодируя элементы кодеком.
+     *
+     * @param list  список (без {@code null} элементов)
+     * @param codec кодек элементов
+     * @param file  путь к файлу (перезаписывается)
+     * @param <E>   тип элементов
+     * @throws IOException при ошибке записи
+     */
+    public static <E> void save(CustomArrayList<E> list, ElementCodec<E> codec, Path file) throws IOException {
+        int width = codec.width();
+        int size = list.size();
+        try (FileChannel channel = openForWrite(file)) {
+            writeHeader(channel, codec, size, list.getCapacity());
+            int batch = Math.max(1, IO_BLOCK_BYTES / width);
+            ByteBuffer buffer = ByteBuffer.allocate(batch * width).order(DirectMemory.ORDER);
+            for (int from = 0; from < size; from += batch) {
+                int to = Math.min(size, from + batch);
+                for (int i = from; i < to; i++) {
+                    codec.encode(list.get(i), buffer, (i - from) * width);
+                }
+                buffer.limit((to - from) * width).position(0);
+                writeFully(channel, buffer);
+                buffer.clear();
+            }
+            writeState(channel, codec);
+        }
+    }
+
+    /**
+     * Сохраняет список вне кучи: блоки памяти записываются в файл как есть.
+     *
+     * @param list список
+     * @param file путь к файлу (перезаписывается)
+     * @param <E>  тип элементов
+     * @throws IOException           при ошибке записи
+     * @throws IllegalStateException если список закрыт (файл при этом не трогается)
+     */
+    public static <E> void save(OffHeapCustomArrayList<E> list, Path file) throws IOException {
+        if (list.isClosed()) {
+            throw new IllegalStateException("list is closed");
+        }
+        ElementCodec<E> codec = list.codec();
+        int width = codec.width();
+        try (FileChannel channel = openForWrite(file)) {
+            writeHeader(channel, codec, list.size(), (int) Math.min(Integer.MAX_VALUE, list.getCapacity()));
+            int remaining = list.size();
+            for (int c = 0; remaining > 0; c++) {
+                int count = Math.min(remaining, list.chunkElements());
+                ByteBuffer chunk = list.chunkAt(c).duplicate();
+                chunk.limit(count * width).position(0);
+                writeFully(channel, chunk);
+                remaining -= count;
+            }
+            writeState(channel, codec);
+        }
+    }
+
+    /**
+     * Сохраняет список {@code int} целыми блоками, без поэлементного кодирования.
+     *
+     * @param list список
+     * @param file путь к файлу (перезаписывается)
+     * @throws IOException при ошибке записи
+     */
+    public static void save(IntArrayList list, Path file) throws IOException {
+        int[] array = list.array();
+        savePrimitive(ElementCodec.ints(), list.size(), list.getCapacity(), file,
+                (block, from, count) -> block.asIntBuffer().put(array, from, count));
+    }
+
+    /**
+     * Сохраняет список {@code long} целыми блоками, без поэлементного кодирования.
+     *
+     * @param list список
+     * @param file путь к файлу (перезаписывается)
+     * @throws IOException при ошибке записи
+     */
+    public static void save(LongArrayList list, Path file) throws IOException {
+        long[] array = list.array();
+        savePrimitive(ElementCodec.longs(), list.size(), list.getCapacity(), file,
+                (block, from, count) -> block.asLongBuffer().put(array, from, count));
+    }
+
+    /**
+     * Сохраняет список {@code double} целыми блоками, без поэлементного кодирования.
+     *
+     * @param list список
+     * @param file путь к файлу (перезаписывается)
+     * @throws IOException при ошибке записи
+     */
+    public static void save(DoubleArrayList list, Path file) throws IOException {
+        double[] array = list.array();
+        savePrimitive(ElementCodec.doubles(), list.size(), list.getCapacity(), file,
+                (block, from, count) -> block.asDoubleBuffer().put(array, from, count));
+    }
+
+    /**
+     * Загружает список в кучу, декодируя каждый элемент. Емкость списка восстанавливается из заголовка.
+     * Состояние кодека (например, словарь) заменяется сохраненным.
+     *
+     * @param file  путь к файлу
+     * @param codec кодек, совместимый с тем, которым файл был записан
+     * @param <E>   тип элементов
+     * @return новый список
+     * @throws IOException при ошибке чтения, некорректном заголовке или несовместимом кодеке
+     */
+    public static <E> CustomArrayList<E> load(Path file, ElementCodec<E> codec) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            Header header = readHeader(channel, codec);
+            CustomArrayList<E> list = new CustomArrayList<>(header.allocationCapacity());
+            if (header.size > 0) {
+                OffHeapCustomArrayList<E> mapped = map(channel, header, codec);
+                try {
+                    for (int i = 0; i < header.size; i++) {
+                        list.add(mapped.get(i));
+                    }
+                } finally {
+                    mapped.close();
+                }
+            }
+            return list;
+        }
+    }
+
+    /**
+     * Загружает список {@code int} целыми блоками, без поэлементного декодирования.
+     *
+     * @param file путь к файлу
+     * @return новый список
+     * @throws IOException при ошибке чтения или если файл записан другим кодеком
+     */
+    public static IntArrayList loadIntArrayList(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            Header header = readHeader(channel, ElementCodec.ints());
+            int[] data = new int[header.allocationCapacity()];
+            readData(channel, header, (block, from, count) -> block.asIntBuffer().get(data, from, count));
+            return new IntArrayList(data, header.size);
+        }
+    }
+
+    /**
+     * Загружает список {@code long} целыми блоками, без поэлементного декодирования.
+     *
+     * @param file путь к файлу
+     * @return новый список
+     * @throws IOException при ошибке чтения или если файл записан другим кодеком
+     */
+    public static LongArrayList loadLongArrayList(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            Header header = readHeader(channel, ElementCodec.longs());
+            long[] data = new long[header.allocationCapacity()];
+            readData(channel, header, (block, from, count) -> block.asLongBuffer().get(data, from, count));
+            return new LongArrayList(data, header.size);
+        }
+    }
+
+    /**
+     * Загружает список {@code double} целыми блоками, без поэлементного декодирования.
+     *
+     * @param file путь к файлу
+     * @return новый список
+     * @throws IOException при ошибке чтения или если файл записан другим кодеком
+     */
+    public static DoubleArrayList loadDoubleArrayList(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            Header header = readHeader(channel, ElementCodec.doubles());
+            double[] data = new double[header.allocationCapacity()];
+            readData(channel, header, (block, from, count) -> block.asDoubleBuffer().get(data, from, count));
+            return new DoubleArrayList(data, header.size);
+        }
+    }
+
+    /**
+     * Лениво загружает список: данные файла отображаются в память только для чтения и не декодируются заранее.
+     * Состояние кодека (например, словарь) заменяется сохраненным.
+     * <p>Отображение снимается методом {@link OffHeapCustomArrayList#close()}; после этого список использовать нельзя.
+     *
+     * @param file  путь к файлу
+     * @param codec кодек, совместимый с тем, которым файл был записан
+     * @param <E>   тип элементов
+     * @return отображенный список только для чтения
+     * @throws IOException при ошибке чтения, некорректном заголовке или несовместимом кодеке
+     */
+    public static <E> OffHeapCustomArrayList<E> map(Path file, ElementCodec<E> codec) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            return map(channel, readHeader(channel, codec), codec);
+        }
+    }
+
+    /**
+     * Отображает данные блоками не больше {@value #MAX_MAPPED_CHUNK_BYTES} байт.
+     * Отображения остаются действительными после закрытия канала.
+     */
+    private static <E> OffHeapCustomArrayList<E> map(FileChannel channel, Header header, ElementCodec<E> codec)
+            throws IOException {
+        int chunkElements = Integer.highestOneBit(MAX_MAPPED_CHUNK_BYTES / header.width);
+        long chunkBytes = (long) chunkElements * header.width;
+        int chunkCount = (int) (((long) header.size + chunkElements - 1) / chunkElements);
+        ByteBuffer[] chunks = new ByteBuffer[chunkCount];
+        long dataBytes = (long) header.size * header.width;
+        for (int c = 0; c < chunkCount; c++) {
+            long position = c * chunkBytes;
+            long length = Math.min(chunkBytes, dataBytes - position);
+            chunks[c] = channel.map(FileChannel.MapMode.READ_ONLY, header.dataOffset + position, length)
+                    .order(DirectMemory.ORDER);
+        }
+        return new OffHeapCustomArrayList<>(codec, chunkElements, chunks, header.size);
+    }
+
+    /**
+     * Записывает заголовок и данные списка примитивов блоками по {@value #IO_BLOCK_BYTES} байт.
+     */
+    private static void savePrimitive(ElementCodec<?> codec, int size, int capacity, Path file, BlockCopier copier)
+            throws IOException {
+        int width = codec.width();
+        int blockElements = IO_BLOCK_BYTES / width;
+        ByteBuffer block = ByteBuffer.allocate(blockElements * width).order(DirectMemory.ORDER);
+        try (FileChannel channel = openForWrite(file)) {
+            writeHeader(channel, codec, size, capacity);
+            for (int from = 0; from < size; from += blockElements) {
+                int count = Math.min(blockElements, size - from);
+                block.clear();
+                copier.copy(block, from, count);
+                block.limit(count * width);
+                writeFully(channel, block);
+            }
+            writeState(channel, codec);
+        }
+    }
+
+    /**
+     * Читает данные блоками по {@value #IO_BLOCK_BYTES} байт и передает каждый блок в {@code copier}.
+     */
+    private static void readData(FileChannel channel, Header header, BlockCopier copier) throws IOException {
+        int blockElements = IO_BLOCK_BYTES / header.width;
+        ByteBuffer block = ByteBuffer.allocate(blockElements * header.width).order(DirectMemory.ORDER);
+        long position = header.dataOffset;
+        for (int from = 0; from < header.size; from += blockElements) {
+            int count = Math.min(blockElements, header.size - from);
+            block.clear().limit(count * header.width);
+            readFully(channel, block, position);
+            position += block.limit();
+            block.flip();
+            copier.copy(block, from, count);
+        }
+    }
+
+    private static FileChannel openForWrite(Path file) throws IOException {
+        return FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING);
+    }
+
+    /**
+     * Записывает заголовок с начала файла; позиция канала после вызова равна началу данных.
+     */
+    private static void writeHeader(FileChannel channel, ElementCodec<?> codec, int size, int capacity)
+            throws IOException {
+        byte[] id = codec.id().getBytes(StandardCharsets.UTF_8);
+        long dataOffset = (FIXED_HEADER + id.length + 7L) & ~7L;
+        ByteBuffer header = ByteBuffer.allocate((int) dataOffset).order(DirectMemory.ORDER);
+        header.putInt(MAGIC)
+                .putInt(VERSION)
+                .putLong(dataOffset)
+                .putInt(codec.width())
+                .putInt(size)
+                .putInt(capacity)
+                .putInt(id.length)
+                .put(id);
+        header.position(0);
+        writeFully(channel, header);
+    }
+
+    /**
+     * Дописывает состояние кодека после данных.
+     */
+    private static void writeState(FileChannel channel, ElementCodec<?> codec) throws IOException {
+        ByteArrayOutputStream state = new ByteArrayOutputStream();
+        try (DataOutputStream out = new DataOutputStream(state)) {
+            codec.writeState(out);
+        }
+        ByteBuffer buffer = ByteBuffer.allocate(Integer.BYTES + state.size()).order(DirectMemory.ORDER);
+        buffer.putInt(state.size()).put(state.toByteArray()).flip();
+        writeFully(channel, buffer);
+    }
+
+    /**
+     * Читает и проверяет заголовок, восстанавливает состояние кодека.
+     */
+    private static Header readHeader(FileChannel channel, ElementCodec<?> codec) throws IOException {
+        ByteBuffer fixed = ByteBuffer.allocate(FIXED_HEADER).order(DirectMemory.ORDER);
+        readFully(channel, fixed, 0);
+        if (fixed.getInt(0) != MAGIC) {
+            throw new IOException("not a CustomArrayList file");
+        }
+        if (fixed.getInt(4) != VERSION) {
+            throw new IOException("unsupported version " + fixed.getInt(4));
+        }
+        Header header = new Header();
+        header.dataOffset = fixed.getLong(8);
+        header.width = fixed.getInt(16);
+        header.size = fixed.getInt(20);
+        header.capacity = fixed.getInt(24);
+        int idLength = fixed.getInt(28);
+        long fileSize = channel.size();
+        if (header.size < 0 || header.width <= 0 || header.capacity < header.size
+                || idLength < 0 || idLength > fileSize - FIXED_HEADER
+                || header.dataOffset != ((FIXED_HEADER + idLength + 7L) & ~7L)) {
+            throw new IOException("corrupted header");
+        }
+        long stateOffset = header.dataOffset + (long) header.size * header.width;
+        if (fileSize < stateOffset + Integer.BYTES) {
+            throw new IOException("unexpected end of file");
+        }
+
+        ByteBuffer id = ByteBuffer.allocate(idLength);
+        readFully(channel, id, FIXED_HEADER);
+        String codecId = new String(id.array(), StandardCharsets.UTF_8);
+        if (!codecId.equals(codec.id()) || header.width != codec.width()) {
+            throw new IOException("file was written with codec " + codecId + " (width " + header.width
+                    + "), but " + codec.id() + " (width " + codec.width() + ") was given");
+        }
+
+        ByteBuffer stateLength = ByteBuffer.allocate(Integer.BYTES).order(DirectMemory.ORDER);
+        readFully(channel, stateLength, stateOffset);
+        int length = stateLength.getInt(0);
+        if (length < 0 || fileSize < stateOffset + Integer.BYTES + length) {
+            throw new IOException("corrupted codec state");
+        }
+        ByteBuffer state = ByteBuffer.allocate(length);
+        readFully(channel, state, stateOffset + Integer.BYTES);
+        try (DataInputStream in = new DataInputStream(new ByteArrayInputStream(state.array()))) {
+            codec.readState(in);
+        }
+        return header;
+    }
+
+    private static void readFully(FileChannel channel, ByteBuffer buffer, long position) throws IOException {
+        while (buffer.hasRemaining()) {
+            int read = channel.read(buffer, position);
+            if (read < 0) {
+                throw new IOException("unexpected end of file");
+            }
+            position += read;
+        }
+    }
+
+    private static void writeFully(FileChannel channel, ByteBuffer buffer) throws IOException {
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+    }
+
+    /**
+     * Копирование блока элементов между буфером и массивом списка.
+     */
+    private interface BlockCopier {
+        /**
+         * @param block буфер блока (позиция 0)
+         * @param from  индекс первого элемента блока в списке
+         * @param count количество элементов в блоке
+         */
+        void copy(ByteBuffer block, int from, int count);
+    }
+
+    /**
+     * Прочитанный заголовок файла.
+     */
+    private static final class Header {
+        long dataOffset;
+        int width;
+        int size;
+        int capacity;
+
+        /**
+         * @return емкость загружаемого списка: сохраненная, если она правдоподобна, иначе по размеру
+         */
+        int allocationCapacity() {
+            long limit = 2L * size + CAPACITY_SLACK;
+            return Math.max(1, capacity <= limit ? capacity : size);
+        }
+    }
+}
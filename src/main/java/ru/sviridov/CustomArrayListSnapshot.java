@@ -0,0 +1,110 @@
+package ru.sviridov;
+
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+
+/**
+ * Неизменяемый снимок содержимого {@link CustomArrayList}, созданный методом {@link CustomArrayList#snapshot()}.
+ * <p>Снимок создается за O(1): он ссылается на основной массив списка и запоминает размер на момент создания.
+ * Список, пока на массив ссылаются снимки, не меняет его начало: добавление в конец пишет за пределы снимка,
+ * а первое изменение внутри снимка (вставка, удаление, сортировка, очистка) сначала копирует массив.
+ * <p>Снимок безопасно читать из любых потоков без блокировок, в том числе пока владелец списка продолжает
+ * его изменять: поля снимка финальные, поэтому другой поток видит все элементы, записанные до создания снимка.
+ *
+ * @param <E> тип элементов
+ * @author Yuriy Sviridov
+ * @since 0.6
+ */
+public final class CustomArrayListSnapshot<E> implements Iterable<E> {
+
+    /**
+     * массив списка на момент создания снимка (первые {@code size} ячеек больше не меняются)
+     */
+    private final Object[] elementData;
+
+    /**
+     * размер списка на момент создания снимка
+     */
+    private final int size;
+
+    CustomArrayListSnapshot(Object[] elementData, int size) {
+        this.elementData = elementData;
+        this.size = size;
+    }
+
+    /**
+     * Достает элемент по указанному индексу.
+     *
+     * @param index указанный индекс
+     * @return {@code E} элемент по индексу
+     * @throws IndexOutOfBoundsException если указан некорректный индекс
+     */
+    @SuppressWarnings("unchecked")
+    public E get(int index) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("Index " + index + " out of bounds for length " + size);
+        }
+        return (E) elementData[index];
+    }
+
+    /**
+     * @return количество элементов в снимке
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Возвращает индекс первого вхождения элемента или -1, если элемент не найден.
+     *
+     * @param o элемент для поиска
+     * @return {@code int} индекс элемента
+     */
+    public int indexOf(Object o) {
+        for (int i = 0; i < size; i++) {
+            if (Objects.equals(o, elementData[i])) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * @param o элемент для поиска
+     * @return {@code true}, если элемент есть в снимке
+     */
+    public boolean contains(Object o) {
+        return indexOf(o) >= 0;
+    }
+
+    /**
+     * @return итератор по элементам снимка (без {@code remove})
+     */
+    @Override
+    public Iterator<E> iterator() {
+        return new Iterator<>() {
+            private int cursor;
+
+            @Override
+            public boolean hasNext() {
+                return cursor < size;
+            }
+
+            @Override
+            @SuppressWarnings("unchecked")
+            public E next() {
+                if (cursor >= size) {
+                    throw new NoSuchElementException();
+                }
+                return (E) elementData[cursor++];
+            }
+        };
+    }
+
+    @Override
+    public String toString() {
+        return Arrays.toString(Arrays.copyOf(elementData, size));
+    }
+}
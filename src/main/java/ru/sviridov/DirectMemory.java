@@ -0,0 +1,92 @@
+package ru.sviridov;
+
+import com.sun.management.HotSpotDiagnosticMXBean;
+
+import java.lang.management.ManagementFactory;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+
+/**
+ * Выделение и явное освобождение памяти вне кучи.
+ * <p>Память выделяется через {@link ByteBuffer#allocateDirect(int)} в порядке байтов {@link #ORDER}.
+ * Для немедленного освобождения используется {@code sun.misc.Unsafe#invokeCleaner} (модуль
+ * {@code jdk.unsupported}); если он недоступен, память освобождается сборщиком мусора,
+ * когда на буфер не останется ссылок.
+ *
+ * @author Yuriy Sviridov
+ * @since 0.6
+ */
+final class DirectMemory {
+
+    /**
+     * порядок байтов всех буферов вне кучи
+     */
+    static final ByteOrder ORDER = ByteOrder.LITTLE_ENDIAN;
+
+    private static final Object UNSAFE;
+    private static final Method INVOKE_CLEANER;
+
+    static {
+        Object unsafe = null;
+        Method invokeCleaner = null;
+        try {
+            Class<?> unsafeClass = Class.forName("sun.misc.Unsafe");
+            Field field = unsafeClass.getDeclaredField("theUnsafe");
+            field.setAccessible(true);
+            unsafe = field.get(null);
+            invokeCleaner = unsafeClass.getMethod("invokeCleaner", ByteBuffer.class);
+        } catch (ReflectiveOperationException | RuntimeException ignored) {
+            // освобождение останется за сборщиком мусора
+        }
+        UNSAFE = unsafe;
+        INVOKE_CLEANER = invokeCleaner;
+    }
+
+    private DirectMemory() {
+    }
+
+    /**
+     * Возвращает предел памяти прямых буферов: значение {@code -XX:MaxDirectMemorySize}, а если флаг не задан -
+     * {@link Runtime#maxMemory()}, то есть размер кучи ({@code -Xmx}), как и у самой JVM.
+     *
+     * @return предел в байтах
+     */
+    static long limit() {
+        try {
+            HotSpotDiagnosticMXBean bean = ManagementFactory.getPlatformMXBean(HotSpotDiagnosticMXBean.class);
+            long value = Long.parseLong(bean.getVMOption("MaxDirectMemorySize").getValue());
+            if (value > 0) {
+                return value;
+            }
+        } catch (RuntimeException | LinkageError ignored) {
+            // не HotSpot: используется значение по умолчанию
+        }
+        return Runtime.getRuntime().maxMemory();
+    }
+
+    /**
+     * @param bytes размер буфера
+     * @return новый буфер вне кучи, заполненный нулями
+     */
+    static ByteBuffer allocate(int bytes) {
+        return ByteBuffer.allocateDirect(bytes).order(ORDER);
+    }
+
+    /**
+     * Освобождает память буфера. После вызова буфер использовать нельзя.
+     *
+     * @param buffer буфер, полученный из {@link #allocate(int)} или отображенный из файла
+     */
+    static void free(ByteBuffer buffer) {
+        if (INVOKE_CLEANER == null || buffer == null || !buffer.isDirect()) {
+            return;
+        }
+        try {
+            INVOKE_CLEANER.invoke(UNSAFE, buffer);
+        } catch (ReflectiveOperationException | RuntimeException ignored) {
+            // буфер освободится сборщиком мусора
+        }
+    }
+}
@@ -0,0 +1,120 @@
+package ru.sviridov;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.Objects;
+
+/**
+ * Кодек элементов фиксированной ширины для хранения вне кучи ({@link OffHeapCustomArrayList}).
+ * <p>Кодек описывает, как элемент раскладывается в {@code width()} байт буфера и как собирается обратно.
+ * Все методы работают с абсолютными смещениями и не меняют позицию буфера.
+ * <p>Готовые кодеки для чисел возвращают {@link #ints()}, {@link #longs()} и {@link #doubles()},
+ * пример кодека для записи - {@link CatCodec}.
+ *
+ * @param <E> тип элементов
+ * @author Yuriy Sviridov
+ * @since 0.6
+ */
+public interface ElementCodec<E> {
+
+    /**
+     * @return ширина одного элемента в байтах (постоянная для кодека)
+     */
+    int width();
+
+    /**
+     * Записывает элемент в буфер.
+     *
+     * @param e      элемент (не {@code null})
+     * @param buffer буфер
+     * @param offset смещение первого байта элемента
+     */
+    void encode(E e, ByteBuffer buffer, int offset);
+
+    /**
+     * Читает элемент из буфера.
+     *
+     * @param buffer буфер
+     * @param offset смещение первого байта элемента
+     * @return новый экземпляр элемента
+     */
+    E decode(ByteBuffer buffer, int offset);
+
+    /**
+     * Проверяет, равен ли объект элементу, записанному в буфере. Используется при поиске
+     * ({@code indexOf}, {@code contains}, {@code remove}). Реализация по умолчанию декодирует элемент
+     * и сравнивает через {@link Objects#equals}; кодеки могут сравнивать поля напрямую, без создания объекта.
+     *
+     * @param o      искомый объект
+     * @param buffer буфер
+     * @param offset смещение первого байта элемента
+     * @return {@code true}, если элемент равен объекту
+     */
+    default boolean matches(Object o, ByteBuffer buffer, int offset) {
+        return Objects.equals(o, decode(buffer, offset));
+    }
+
+    /**
+     * Естественный порядок элементов в виде сравнения закодированных записей ({@link RecordComparator}).
+     * Используется {@link OffHeapCustomArrayList#sort()}. Реализация по умолчанию декодирует обе записи
+     * и сравнивает их через {@link Comparable}; кодеки чисел сравнивают значения прямо в буфере, без создания объектов.
+     *
+     * @return сравнение записей в естественном порядке элементов
+     */
+    @SuppressWarnings("unchecked")
+    default RecordComparator encodedOrder() {
+        return (a, offsetA, b, offsetB) -> ((Comparable<Object>) decode(a, offsetA)).compareTo(decode(b, offsetB));
+    }
+
+    /**
+     * Идентификатор формата записи. Сохраняется в заголовке файла ({@link CustomArrayListFiles}) и проверяется
+     * при загрузке. По умолчанию - имя класса кодека.
+     *
+     * @return идентификатор кодека
+     */
+    default String id() {
+        return getClass().getName();
+    }
+
+    /**
+     * Сохраняет внутреннее состояние кодека (например, словарь), без которого записи нельзя декодировать.
+     * По умолчанию кодек состояния не имеет.
+     *
+     * @param out поток для записи
+     * @throws IOException при ошибке записи
+     */
+    default void writeState(DataOutput out) throws IOException {
+    }
+
+    /**
+     * Восстанавливает состояние, сохраненное {@link #writeState(DataOutput)}, заменяя текущее.
+     *
+     * @param in поток для чтения
+     * @throws IOException при ошибке чтения или некорректных данных
+     */
+    default void readState(DataInput in) throws IOException {
+    }
+
+    /**
+     * @return кодек {@link Integer} шириной 4 байта
+     */
+    static ElementCodec<Integer> ints() {
+        return PrimitiveCodecs.INT;
+    }
+
+    /**
+     * @return кодек {@link Long} шириной 8 байт
+     */
+    static ElementCodec<Long> longs() {
+        return PrimitiveCodecs.LONG;
+    }
+
+    /**
+     * @return кодек {@link Double} шириной 8 байт
+     */
+    static ElementCodec<Double> doubles() {
+        return PrimitiveCodecs.DOUBLE;
+    }
+}
@@ -0,0 +1,386 @@
+package ru.sviridov;
+
+import java.util.Arrays;
+import java.util.Objects;
+
+/**
+ * Вторичный хеш-индекс списка: элемент - все его позиции (по возрастанию).
+ * <p>Открытая адресация с линейным пробированием и удалением со сдвигом назад: ключи, число вхождений
+ * и позиции лежат в параллельных массивах, поэтому поиск не создает объектов. Таблица заполняется
+ * не более чем наполовину. Элемент с одним вхождением хранит позицию прямо в таблице, отдельный массив
+ * позиций заводится только для повторов. Ключ {@code null} хранится через служебный объект {@link #NULL_KEY}.
+ * <p>Индекс поддерживается при изменениях, а не перестраивается:
+ * <ul>
+ *     <li>добавление и удаление элемента меняют только его запись - O(1) в среднем;</li>
+ *     <li>сдвиг позиций при вставке или удалении в середине не трогает записи: он дописывается в журнал сдвигов
+ *     ({@link #shift(int, int)}), а позиции записи пересчитываются по журналу лениво, при следующем обращении к ней.
+ *     Когда журнал заполняется (его длина - около квадратного корня из размера списка), список перестраивает
+ *     индекс за O(n) - один раз на &radic;n сдвигов.</li>
+ * </ul>
+ * <p>Итого {@code contains} стоит O(1), а {@code indexOf} и изменения - O(1 + длина журнала) = O(&radic;n),
+ * с учетом перестроений - амортизированно. Для сравнения, линейный поиск - O(n).
+ * <p>Индекс используется {@link CustomArrayList} (см. {@link CustomArrayList#enableIndex()}).
+ * Класс служебный и используется только внутри пакета.
+ *
+ * @author Yuriy Sviridov
+ * @since 0.6
+ */
+final class ElementIndex {
+
+    /**
+     * заменитель ключа {@code null}
+     */
+    private static final Object NULL_KEY = new Object();
+
+    private static final int MIN_CAPACITY = 16;
+
+    /**
+     * наименьшая длина журнала сдвигов
+     */
+    private static final int MIN_LOG_LIMIT = 8;
+
+    /**
+     * оценочный размер ссылки в байтах (сжатые указатели)
+     */
+    private static final int REFERENCE_BYTES = 4;
+
+    /**
+     * оценочный размер заголовка массива в байтах
+     */
+    private static final int ARRAY_HEADER_BYTES = 16;
+
+    private Object[] keys;
+
+    /**
+     * число вхождений элемента
+     */
+    private int[] counts;
+
+    /**
+     * единственная позиция элемента (если вхождение одно)
+     */
+    private int[] firsts;
+
+    /**
+     * позиции элемента по возрастанию (если вхождений больше одного), иначе {@code null}
+     */
+    private int[][] positions;
+
+    /**
+     * длина журнала сдвигов, до которой позиции записи уже пересчитаны
+     */
+    private int[] epochs;
+
+    /**
+     * количество ключей в таблице
+     */
+    private int used;
+
+    /**
+     * количество проиндексированных элементов (сумма вхождений)
+     */
+    private int total;
+
+    /**
+     * журнал сдвигов: позиции от {@code logAt[t]} сдвигаются на {@code logDelta[t]}
+     * (при отрицательном сдвиге - позиции от {@code logAt[t] - logDelta[t]})
+     */
+    private int[] logAt = new int[MIN_LOG_LIMIT];
+    private int[] logDelta = new int[MIN_LOG_LIMIT];
+    private int logSize;
+
+    ElementIndex(int expectedSize) {
+        allocate(tableSizeFor(expectedSize));
+    }
+
+    /**
+     * Перестраивает индекс по первым {@code size} элементам массива.
+     */
+    void rebuild(Object[] es, int size) {
+        int capacity = tableSizeFor(size);
+        if (capacity != keys.length) {
+            allocate(capacity);
+        } else {
+            clear();
+        }
+        resizeLog(size);
+        for (int i = 0; i < size; i++) {
+            add(es[i], i);
+        }
+    }
+
+    /**
+     * Учитывает элемент на позиции {@code position} (в текущих координатах списка; сдвиг, освобождающий
+     * эту позицию, должен быть уже записан через {@link #shift(int, int)}).
+     */
+    void add(Object e, int position) {
+        if ((used + 1) * 2 > keys.length) {
+            resize();
+        }
+        Object key = e == null ? NULL_KEY : e;
+        int slot = find(key);
+        total++;
+        if (slot < 0) {
+            slot = ~slot;
+            keys[slot] = key;
+            counts[slot] = 1;
+            firsts[slot] = position;
+            epochs[slot] = logSize;
+            used++;
+            return;
+        }
+        refresh(slot);
+        int count = counts[slot];
+        int[] ps = positions[slot];
+        if (count == 1) {
+            ps = new int[4];
+            ps[0] = firsts[slot];
+            positions[slot] = ps;
+        } else if (count == ps.length) {
+            ps = Arrays.copyOf(ps, count * 2);
+            positions[slot] = ps;
+        }
+        int at = -Arrays.binarySearch(ps, 0, count, position) - 1;
+        System.arraycopy(ps, at, ps, at + 1, count - at);
+        ps[at] = position;
+        counts[slot] = count + 1;
+    }
+
+    /**
+     * Забывает вхождение элемента на позиции {@code position} (до записи сдвига, закрывающего эту позицию).
+     */
+    void remove(Object e, int position) {
+        int slot = find(e == null ? NULL_KEY : e);
+        if (slot < 0) {
+            return;
+        }
+        refresh(slot);
+        int count = counts[slot];
+        if (count == 1) {
+            if (firsts[slot] == position) {
+                deleteSlot(slot);
+                used--;
+                total--;
+            }
+            return;
+        }
+        int[] ps = positions[slot];
+        int at = Arrays.binarySearch(ps, 0, count, position);
+        if (at < 0) {
+            return;
+        }
+        System.arraycopy(ps, at + 1, ps, at, count - at - 1);
+        total--;
+        if (--count == 1) {
+            firsts[slot] = ps[0];
+            positions[slot] = null;
+        }
+        counts[slot] = count;
+    }
+
+    /**
+     * Записывает сдвиг позиций: при {@code delta > 0} позиции от {@code at} увеличиваются на {@code delta}
+     * (вставка), при {@code delta < 0} позиции от {@code at - delta} уменьшаются на {@code -delta}
+     * (удаление диапазона {@code [at, at - delta)}, элементы которого уже забыты через {@link #remove}).
+     *
+     * @return {@code false}, если журнал заполнен и сдвиг не записан: индекс нужно перестроить
+     */
+    boolean shift(int at, int delta) {
+        if (logSize == logAt.length) {
+            return false;
+        }
+        logAt[logSize] = at;
+        logDelta[logSize] = delta;
+        logSize++;
+        return true;
+    }
+
+    /**
+     * @return {@code true}, если изменить {@code changed} записей дешевле, чем перестроить индекс
+     */
+    boolean cheaperThanRebuild(int changed) {
+        return (long) changed * (logSize + 1) <= total + MIN_CAPACITY;
+    }
+
+    /**
+     * @return индекс первого вхождения элемента или -1
+     */
+    int indexOf(Object o) {
+        int slot = find(o == null ? NULL_KEY : o);
+        if (slot < 0) {
+            return -1;
+        }
+        refresh(slot);
+        return counts[slot] == 1 ? firsts[slot] : positions[slot][0];
+    }
+
+    /**
+     * @return {@code true}, если элемент есть в списке (позиции не пересчитываются)
+     */
+    boolean contains(Object o) {
+        return find(o == null ? NULL_KEY : o) >= 0;
+    }
+
+    void clear() {
+        Arrays.fill(keys, null);
+        Arrays.fill(positions, null);
+        used = 0;
+        total = 0;
+        logSize = 0;
+    }
+
+    /**
+     * @return оценка памяти, занимаемой индексом, в байтах
+     */
+    long memoryBytes() {
+        long bytes = 7L * ARRAY_HEADER_BYTES
+                + (long) keys.length * (2 * REFERENCE_BYTES + 3 * Integer.BYTES)
+                + 2L * logAt.length * Integer.BYTES;
+        for (int[] ps : positions) {
+            if (ps != null) {
+                bytes += ARRAY_HEADER_BYTES + (long) ps.length * Integer.BYTES;
+            }
+        }
+        return bytes;
+    }
+
+    /**
+     * Пересчитывает позиции записи по сдвигам, записанным в журнал после ее последнего пересчета.
+     * Сдвиги сохраняют порядок оставшихся позиций, поэтому массив позиций остается отсортированным.
+     */
+    private void refresh(int slot) {
+        int from = epochs[slot];
+        if (from == logSize) {
+            return;
+        }
+        if (counts[slot] == 1) {
+            firsts[slot] = translate(firsts[slot], from);
+        } else {
+            int[] ps = positions[slot];
+            for (int i = 0, n = counts[slot]; i < n; i++) {
+                ps[i] = translate(ps[i], from);
+            }
+        }
+        epochs[slot] = logSize;
+    }
+
+    private int translate(int p, int from) {
+        for (int t = from; t < logSize; t++) {
+            int at = logAt[t];
+            int delta = logDelta[t];
+            if (delta > 0 ? p >= at : p >= at - delta) {
+                p += delta;
+            }
+        }
+        return p;
+    }
+
+    private void resizeLog(int size) {
+        int limit = Math.max(MIN_LOG_LIMIT, (int) Math.sqrt(size));
+        if (limit != logAt.length) {
+            logAt = new int[limit];
+            logDelta = new int[limit];
+        }
+        logSize = 0;
+    }
+
+    /**
+     * @return ячейка ключа или {@code ~ячейка}, куда его можно вставить
+     */
+    private int find(Object key) {
+        int mask = keys.length - 1;
+        int i = hash(key) & mask;
+        Object k;
+        while ((k = keys[i]) != null) {
+            if (k == key || Objects.equals(key, k)) {
+                return i;
+            }
+            i = (i + 1) & mask;
+        }
+        return ~i;
+    }
+
+    /**
+     * Удаляет ключ из ячейки, сдвигая назад следующие за ним ключи той же цепочки пробирования.
+     */
+    private void deleteSlot(int hole) {
+        int mask = keys.length - 1;
+        int j = hole;
+        while (true) {
+            j = (j + 1) & mask;
+            Object key = keys[j];
+            if (key == null) {
+                break;
+            }
+            int home = hash(key) & mask;
+            // ключ остается на месте, если его исходная ячейка лежит циклически в (hole, j]
+            boolean stays = hole <= j ? hole < home && home <= j : hole < home || home <= j;
+            if (!stays) {
+                moveSlot(j, hole);
+                hole = j;
+            }
+        }
+        keys[hole] = null;
+        positions[hole] = null;
+    }
+
+    private void moveSlot(int from, int to) {
+        keys[to] = keys[from];
+        counts[to] = counts[from];
+        firsts[to] = firsts[from];
+        positions[to] = positions[from];
+        epochs[to] = epochs[from];
+    }
+
+    private void resize() {
+        Object[] oldKeys = keys;
+        int[] oldCounts = counts;
+        int[] oldFirsts = firsts;
+        int[][] oldPositions = positions;
+        int[] oldEpochs = epochs;
+        allocate(oldKeys.length * 2);
+        int mask = keys.length - 1;
+        for (int j = 0; j < oldKeys.length; j++) {
+            Object key = oldKeys[j];
+            if (key != null) {
+                int i = hash(key) & mask;
+                while (keys[i] != null) {
+                    i = (i + 1) & mask;
+                }
+                keys[i] = key;
+                counts[i] = oldCounts[j];
+                firsts[i] = oldFirsts[j];
+                positions[i] = oldPositions[j];
+                epochs[i] = oldEpochs[j];
+            }
+        }
+    }
+
+    private void allocate(int capacity) {
+        keys = new Object[capacity];
+        counts = new int[capacity];
+        firsts = new int[capacity];
+        positions = new int[capacity][];
+        epochs = new int[capacity];
+    }
+
+    /**
+     * Перемешивает хеш-код умножением: последовательные ключи (например, {@link Integer}) иначе занимают
+     * сплошной участок таблицы, и удаление со сдвигом назад проходит его целиком.
+     */
+    private static int hash(Object key) {
+        int h = key.hashCode() * 0x9E3779B9;
+        return h ^ (h >>> 16);
+    }
+
+    /**
+     * @return степень двойки, в которую {@code size} элементов помещаются с заполнением не больше половины
+     */
+    private static int tableSizeFor(int size) {
+        int capacity = MIN_CAPACITY;
+        while (capacity < size * 2L && capacity < (1 << 30)) {
+            capacity <<= 1;
+        }
+        return capacity;
+    }
+}
@@ -0,0 +1,732 @@
+package ru.sviridov;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.ConcurrentModificationException;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Predicate;
+
+/**
+ * реализация изменяемого массива на основе буфера с разрывом (gap buffer)
+ * <p>Основные публичные методы те же, что у {@link CustomArrayList}: {@code add}, {@code addAll}, {@code get},
+ * {@code setRange}, {@code removeRange}, {@code remove}, {@code removeAll}, {@code retainAll}, {@code removeIf},
+ * {@code trimToSize}, {@code ensureCapacity}, {@code getGrowthPolicy}/{@code setGrowthPolicy}, {@code clear},
+ * {@code contains}, {@code indexOf}, {@code size}, {@code sort}, {@code stableSort}, {@code parallelSort}
+ * (с порогом {@code getParallelSortThreshold}/{@code setParallelSortThreshold}) и итерация ({@link Iterable}).
+ * Групповые операции принимают и {@link CustomArrayList}, и {@code GapBufferCustomArrayList}.
+ * Дополнительно есть удаление по индексу {@code removeAt}. Итератор быстро отказывает
+ * ({@link ConcurrentModificationException}), а удаление через итератор стоит O(1): разрыв следует за курсором.
+ * <p>Не поддерживаются (они опираются на непрерывный массив {@link CustomArrayList}):
+ * <ul>
+ *     <li>снимки ({@code snapshot});</li>
+ *     <li>сплитератор и потоки ({@code spliterator}, {@code stream}, {@code parallelStream});</li>
+ *     <li>параллельные операции ({@code parallelIndexOf}, {@code parallelReplaceAll}, {@code parallelForEach},
+ *     {@code parallelReduce}, {@code parallelPrefix}, {@code parallelTopK}) и их порог {@code getParallelThreshold};</li>
+ *     <li>хеш-индекс ({@code enableIndex}, {@code disableIndex}, {@code isIndexEnabled}, {@code indexMemoryBytes});</li>
+ *     <li>выборка ({@code select}, {@code topK});</li>
+ *     <li>пул массивов и управление памятью ({@link ArrayPool} в конструкторе, {@code release}, {@code reset},
+ *     {@code isAutoShrink}/{@code setAutoShrink}).</li>
+ * </ul>
+ * Для них список можно скопировать в {@link CustomArrayList} обходом for-each.
+ * <p>Свободные ячейки массива образуют один непрерывный разрыв, который стоит в месте последнего изменения
+ * ("курсор"). Вставка и удаление у курсора стоят O(1) амортизированно; перед изменением в другом месте разрыв
+ * переносится туда за O(расстояние), а не за O(n) на каждую операцию, как у {@link CustomArrayList}.
+ * Поэтому список выгоден, когда правки идут рядом друг с другом (например, редактирование текста).
+ * Чтение по индексу - O(1), с одним дополнительным сравнением.
+ * <p><strong>Обратите внимание, что эта реализация не синхронизирована.</strong></p>
+ *
+ * @param <E> тип элементов
+ * @author Yuriy Sviridov
+ * @since 0.6
+ */
+public class GapBufferCustomArrayList<E> implements Iterable<E> {
+    /**
+     * начальная емкость по умолчанию
+     */
+    private static final int DEFAULT_CAPACITY = 10;
+
+    /**
+     * основной массив: элементы лежат в {@code [0, gapStart)} и {@code [gapEnd, length)}, ячейки разрыва пусты
+     */
+    private Object[] elementData;
+
+    /**
+     * начало разрыва (индекс курсора)
+     */
+    private int gapStart;
+
+    /**
+     * конец разрыва (не включительно)
+     */
+    private int gapEnd;
+
+    /**
+     * Политика роста массива
+     */
+    private GrowthPolicy growthPolicy = GrowthPolicy.defaultPolicy();
+
+    /**
+     * Сортировка TimSort для {@link #stableSort(Comparator)}; создается при первом вызове, буфер слияния переиспользуется
+     */
+    private TimSort stableSorter;
+
+    /**
+     * Порог параллельной сортировки
+     */
+    private int parallelSortThreshold = CustomArrayList.DEFAULT_PARALLEL_SORT_THRESHOLD;
+
+    /**
+     * Счетчик структурных изменений для быстрого отказа итератора
+     */
+    private int modCount;
+
+    /**
+     * Создает пустой список с начальной емкостью по умолчанию
+     */
+    public GapBufferCustomArrayList() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    /**
+     * Конструктор, который создает пустой список с указанной начальной емкостью.
+     *
+     * @param capacity начальная емкость списка
+     * @throws IllegalArgumentException если укажут отрицательную емкость
+     */
+    public GapBufferCustomArrayList(int capacity) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("incorrect capacity");
+        }
+        elementData = new Object[capacity];
+        gapEnd = capacity;
+    }
+
+    /**
+     * @return настоящую емкость коллекции (фактический размер с учетом пустых ячеек)
+     */
+    public int getCapacity() {
+        return elementData.length;
+    }
+
+    /**
+     * @return текущая политика роста массива
+     */
+    public GrowthPolicy getGrowthPolicy() {
+        return growthPolicy;
+    }
+
+    /**
+     * Задает политику роста массива.
+     *
+     * @param growthPolicy политика роста
+     * @throws NullPointerException если политика {@code null}
+     * @see CustomArrayList#setGrowthPolicy(GrowthPolicy)
+     */
+    public void setGrowthPolicy(GrowthPolicy growthPolicy) {
+        this.growthPolicy = Objects.requireNonNull(growthPolicy, "growthPolicy");
+    }
+
+    /**
+     * Добавляет элемент в конец списка.
+     *
+     * @param e входной элемент для добавления
+     */
+    public void add(E e) {
+        add(size(), e);
+    }
+
+    /**
+     * Добавляет элемент по указанному индексу: разрыв переносится к индексу, и элемент занимает его первую ячейку.
+     *
+     * @param index индекс, по которому нужно добавить элемент
+     * @param e     элемент для добавления
+     * @throws ArrayIndexOutOfBoundsException если указывается некорректный индекс
+     */
+    public void add(int index, E e) {
+        int size = size();
+        if (index > size || index < 0) {
+            throw new ArrayIndexOutOfBoundsException("index " + index + " out of bound " + size);
+        }
+        if (gapStart == gapEnd) {
+            grow(size + 1);
+        }
+        moveGap(index);
+        elementData[gapStart++] = e;
+        modCount++;
+    }
+
+    /**
+     * Добавляет все элементы указанного списка в конец этого списка.
+     *
+     * @param c список с элементами для добавления (может быть этим же списком)
+     * @return {@code true}, если список изменился
+     */
+    public boolean addAll(GapBufferCustomArrayList<? extends E> c) {
+        return addAll(size(), c);
+    }
+
+    /**
+     * Добавляет все элементы указанного списка {@link CustomArrayList} в конец этого списка.
+     *
+     * @param c список с элементами для добавления
+     * @return {@code true}, если список изменился
+     */
+    public boolean addAll(CustomArrayList<? extends E> c) {
+        return addAll(size(), c);
+    }
+
+    /**
+     * Вставляет все элементы указанного списка {@link CustomArrayList} начиная с указанного индекса.
+     * Подробнее - в {@link #addAll(int, GapBufferCustomArrayList)}.
+     *
+     * @param index индекс, по которому вставляется первый элемент
+     * @param c     список с элементами для добавления
+     * @return {@code true}, если список изменился
+     * @throws ArrayIndexOutOfBoundsException если указывается некорректный индекс
+     */
+    public boolean addAll(int index, CustomArrayList<? extends E> c) {
+        Object[] src = new Object[c.size()];
+        for (int i = 0; i < src.length; i++) {
+            src[i] = c.get(i);
+        }
+        return insert(index, src, src.length);
+    }
+
+    /**
+     * Вставляет все элементы указанного списка начиная с указанного индекса: массив увеличивается не больше
+     * одного раза, разрыв переносится один раз, элементы копируются в него одним {@link System#arraycopy}.
+     *
+     * @param index индекс, по которому вставляется первый элемент
+     * @param c     список с элементами для добавления (может быть этим же списком)
+     * @return {@code true}, если список изменился
+     * @throws ArrayIndexOutOfBoundsException если указывается некорректный индекс
+     */
+    public boolean addAll(int index, GapBufferCustomArrayList<? extends E> c) {
+        Object[] src = c.toArray();
+        return insert(index, src, src.length);
+    }
+
+    /**
+     * Добавляет все элементы массива в конец списка.
+     *
+     * @param a массив с элементами для добавления
+     * @return {@code true}, если список изменился
+     */
+    public boolean addAll(E[] a) {
+        return insert(size(), a, a.length);
+    }
+
+    /**
+     * Вставляет все элементы массива начиная с указанного индекса. Подробнее - в {@link #addAll(int, GapBufferCustomArrayList)}.
+     *
+     * @param index индекс, по которому вставляется первый элемент
+     * @param a     массив с элементами для добавления
+     * @return {@code true}, если список изменился
+     * @throws ArrayIndexOutOfBoundsException если указывается некорректный индекс
+     */
+    public boolean addAll(int index, E[] a) {
+        return insert(index, a, a.length);
+    }
+
+    /**
+     * Заменяет элементы начиная с {@code fromIndex} элементами массива. Разрыв не переносится:
+     * части до и после разрыва копируются отдельно. Размер списка не меняется.
+     *
+     * @param fromIndex индекс первого заменяемого элемента
+     * @param a         новые значения
+     * @throws IndexOutOfBoundsException если диапазон {@code [fromIndex, fromIndex + a.length)} выходит за пределы списка
+     */
+    public void setRange(int fromIndex, E[] a) {
+        int size = size();
+        if (fromIndex < 0 || fromIndex > size - a.length) {
+            throw new IndexOutOfBoundsException("Range [" + fromIndex + ", " + fromIndex + " + " + a.length
+                    + ") out of bounds for length " + size);
+        }
+        int before = Math.max(0, Math.min(a.length, gapStart - fromIndex));
+        System.arraycopy(a, 0, elementData, fromIndex, before);
+        System.arraycopy(a, before, elementData, fromIndex + before + gapEnd - gapStart, a.length - before);
+    }
+
+    /**
+     * Удаляет элементы с индексами из диапазона {@code [fromIndex, toIndex)}: разрыв переносится к {@code fromIndex}
+     * и поглощает диапазон. Освободившиеся ячейки зануляются.
+     *
+     * @param fromIndex индекс первого удаляемого элемента
+     * @param toIndex   индекс после последнего удаляемого элемента
+     * @throws IndexOutOfBoundsException если диапазон некорректен
+     */
+    public void removeRange(int fromIndex, int toIndex) {
+        int size = size();
+        if (fromIndex < 0 || toIndex > size || fromIndex > toIndex) {
+            throw new IndexOutOfBoundsException("Range [" + fromIndex + ", " + toIndex
+                    + ") out of bounds for length " + size);
+        }
+        if (fromIndex == toIndex) {
+            return;
+        }
+        moveGap(fromIndex);
+        int newGapEnd = gapEnd + (toIndex - fromIndex);
+        Arrays.fill(elementData, gapEnd, newGapEnd, null);
+        gapEnd = newGapEnd;
+        modCount++;
+    }
+
+    /**
+     * Достает элемент по указанному индексу.
+     *
+     * @param index указанный индекс для поиска элемента
+     * @return {@code E} нужный элемент по индексу
+     * @throws IndexOutOfBoundsException если указан некорректный индекс
+     */
+    @SuppressWarnings("unchecked")
+    public E get(int index) {
+        if (index < 0 || index >= size()) {
+            throw new IndexOutOfBoundsException("Index " + index + " out of bounds for length " + size());
+        }
+        return (E) elementData[index < gapStart ? index : index + gapEnd - gapStart];
+    }
+
+    /**
+     * Удаляет элемент по указанному индексу: разрыв переносится к индексу и поглощает ячейку.
+     *
+     * @param index индекс удаляемого элемента
+     * @return удаленный элемент
+     * @throws IndexOutOfBoundsException если указан некорректный индекс
+     */
+    @SuppressWarnings("unchecked")
+    public E removeAt(int index) {
+        if (index < 0 || index >= size()) {
+            throw new IndexOutOfBoundsException("Index " + index + " out of bounds for length " + size());
+        }
+        moveGap(index);
+        E removed = (E) elementData[gapEnd];
+        elementData[gapEnd++] = null;
+        modCount++;
+        return removed;
+    }
+
+    /**
+     * Находит и удаляет первое вхождение объекта.
+     *
+     * @param e элемент для удаления
+     * @return {@code true} если элемент успешно удален
+     */
+    public boolean remove(E e) {
+        int pos = indexOf(e);
+        if (pos >= 0) {
+            removeAt(pos);
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * Удаляет из этого списка все его элементы, содержащиеся в указанной коллекции, за один проход со сжатием.
+     * Большая коллекция без хеш-индекса сначала складывается в хеш-множество, как в {@link CustomArrayList#removeAll}.
+     *
+     * @param c коллекция, содержащая элементы, которые нужно удалить из этого списка
+     * @return {@code true}, если список изменился
+     */
+    public boolean removeAll(CustomArrayList<?> c) {
+        return batchRemove(CustomArrayList.membership(c));
+    }
+
+    /**
+     * Удаляет из этого списка все его элементы, содержащиеся в указанном списке. Работает как
+     * {@link #removeAll(CustomArrayList)}.
+     *
+     * @param c список, содержащий элементы, которые нужно удалить из этого списка
+     * @return {@code true}, если список изменился
+     */
+    public boolean removeAll(GapBufferCustomArrayList<?> c) {
+        return batchRemove(membership(c));
+    }
+
+    /**
+     * Оставляет в этом списке только элементы, содержащиеся в указанной коллекции. Работает как {@link #removeAll}.
+     *
+     * @param c коллекция, элементы которой нужно сохранить
+     * @return {@code true}, если список изменился
+     */
+    public boolean retainAll(CustomArrayList<?> c) {
+        return batchRemove(CustomArrayList.membership(c).negate());
+    }
+
+    /**
+     * Оставляет в этом списке только элементы, содержащиеся в указанном списке. Работает как {@link #removeAll}.
+     *
+     * @param c список, элементы которого нужно сохранить
+     * @return {@code true}, если список изменился
+     */
+    public boolean retainAll(GapBufferCustomArrayList<?> c) {
+        return batchRemove(membership(c).negate());
+    }
+
+    /**
+     * Удаляет все элементы, удовлетворяющие условию, за один проход со сжатием массива - O(n).
+     * Если условие бросит исключение, список останется целым.
+     *
+     * @param filter условие удаления
+     * @return {@code true}, если был удален хотя бы один элемент
+     */
+    public boolean removeIf(Predicate<? super E> filter) {
+        Objects.requireNonNull(filter, "filter");
+        @SuppressWarnings("unchecked")
+        Predicate<Object> test = (Predicate<Object>) filter;
+        return batchRemove(test);
+    }
+
+    /**
+     * Очищает пустые ячейки массива до фактического размера коллекции, для экономии памяти.
+     */
+    public void trimToSize() {
+        int size = size();
+        if (size < elementData.length) {
+            moveGap(size);
+            elementData = Arrays.copyOf(elementData, size);
+            gapEnd = size;
+        }
+    }
+
+    /**
+     * Увеличивает емкость так, чтобы в список поместилось не меньше {@code minCapacity} элементов
+     * без перераспределения массива.
+     *
+     * @param minCapacity требуемая емкость
+     */
+    public void ensureCapacity(int minCapacity) {
+        if (minCapacity > elementData.length) {
+            grow(minCapacity);
+        }
+    }
+
+    /**
+     * Очищает всю коллекцию.
+     */
+    public void clear() {
+        Arrays.fill(elementData, 0, gapStart, null);
+        Arrays.fill(elementData, gapEnd, elementData.length, null);
+        gapStart = 0;
+        gapEnd = elementData.length;
+        modCount++;
+    }
+
+    /**
+     * Возвращает индекс первого вхождения элемента или -1, если элемент не найден.
+     *
+     * @param o элемент для поиска
+     * @return {@code int} индекс элемента
+     */
+    public int indexOf(Object o) {
+        Object[] es = elementData;
+        for (int i = 0; i < gapStart; i++) {
+            if (Objects.equals(o, es[i])) {
+                return i;
+            }
+        }
+        int shift = gapEnd - gapStart;
+        for (int i = gapEnd; i < es.length; i++) {
+            if (Objects.equals(o, es[i])) {
+                return i - shift;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Возвращает true если эта коллекция содержит указанный элемент.
+     *
+     * @param o элемент для поиска
+     * @return {@code true}, если элемент найден в коллекции
+     */
+    public boolean contains(Object o) {
+        return indexOf(o) >= 0;
+    }
+
+    /**
+     * Возвращает размер коллекции
+     *
+     * @return {@code int} размер коллекции.
+     */
+    public int size() {
+        return elementData.length - (gapEnd - gapStart);
+    }
+
+    /**
+     * Сортирует список в естественном порядке элементов (элементы должны реализовывать {@link Comparable}).
+     * Разрыв переносится в конец, после чего используется та же сортировка, что и в {@link CustomArrayList#sort()}.
+     */
+    @SuppressWarnings("unchecked")
+    public void sort() {
+        sort((Comparator<E>) Comparator.naturalOrder());
+    }
+
+    /**
+     * Сортирует список в порядке, заданном компаратором.
+     *
+     * @param c входной компаратор для конкретной сортировки нужных данных
+     */
+    @SuppressWarnings("unchecked")
+    public void sort(Comparator<E> c) {
+        int size = size();
+        moveGap(size);
+        IntroSort.sort((E[]) elementData, 0, size - 1, c);
+        modCount++;
+    }
+
+    /**
+     * Стабильная сортировка в естественном порядке элементов. Подробнее - в {@link CustomArrayList#stableSort()}.
+     */
+    @SuppressWarnings("unchecked")
+    public void stableSort() {
+        stableSort((Comparator<E>) Comparator.naturalOrder());
+    }
+
+    /**
+     * Стабильная сортировка с компаратором: разрыв переносится в конец, после чего используется TimSort.
+     *
+     * @param c входной компаратор для конкретной сортировки нужных данных
+     * @throws IllegalArgumentException если компаратор нарушает свой контракт
+     */
+    @SuppressWarnings("unchecked")
+    public void stableSort(Comparator<E> c) {
+        if (stableSorter == null) {
+            stableSorter = new TimSort();
+        }
+        int size = size();
+        moveGap(size);
+        stableSorter.sort((E[]) elementData, 0, size - 1, c);
+        modCount++;
+    }
+
+    /**
+     * Параллельная сортировка в естественном порядке элементов. Подробнее - в {@link CustomArrayList#parallelSort()}.
+     */
+    @SuppressWarnings("unchecked")
+    public void parallelSort() {
+        parallelSort((Comparator<E>) Comparator.naturalOrder());
+    }
+
+    /**
+     * Параллельная сортировка с компаратором: разрыв переносится в конец, после чего массив сортируется
+     * в общем пуле {@link java.util.concurrent.ForkJoinPool}. Результат совпадает с {@link #sort(Comparator)}.
+     *
+     * @param c входной компаратор для конкретной сортировки нужных данных
+     */
+    @SuppressWarnings("unchecked")
+    public void parallelSort(Comparator<E> c) {
+        int size = size();
+        moveGap(size);
+        ParallelQuickSort.sort((E[]) elementData, 0, size - 1, c, parallelSortThreshold);
+        modCount++;
+    }
+
+    /**
+     * @return порог параллельной сортировки: части меньшего размера сортируются последовательно
+     */
+    public int getParallelSortThreshold() {
+        return parallelSortThreshold;
+    }
+
+    /**
+     * Задает порог параллельной сортировки.
+     *
+     * @param threshold размер части, начиная с которого она делится на параллельные задачи
+     * @throws IllegalArgumentException если порог меньше 2
+     */
+    public void setParallelSortThreshold(int threshold) {
+        if (threshold < 2) {
+            throw new IllegalArgumentException("incorrect threshold");
+        }
+        parallelSortThreshold = threshold;
+    }
+
+    /**
+     * @return итератор по элементам в порядке списка
+     */
+    @Override
+    public Iterator<E> iterator() {
+        return new Itr();
+    }
+
+    /**
+     * @return массив элементов в порядке списка
+     */
+    public Object[] toArray() {
+        Object[] es = new Object[size()];
+        System.arraycopy(elementData, 0, es, 0, gapStart);
+        System.arraycopy(elementData, gapEnd, es, gapStart, elementData.length - gapEnd);
+        return es;
+    }
+
+    /**
+     * Вставляет первые {@code n} элементов {@code src} по индексу {@code index}: разрыв переносится к индексу
+     * (при нехватке места массив один раз увеличивается), и элементы копируются в начало разрыва.
+     */
+    private boolean insert(int index, Object[] src, int n) {
+        int size = size();
+        if (index > size || index < 0) {
+            throw new ArrayIndexOutOfBoundsException("index " + index + " out of bound " + size);
+        }
+        if (n == 0) {
+            return false;
+        }
+        if (gapEnd - gapStart < n) {
+            grow(size + n);
+        }
+        moveGap(index);
+        System.arraycopy(src, 0, elementData, gapStart, n);
+        gapStart += n;
+        modCount++;
+        return true;
+    }
+
+    /**
+     * Проверка вхождения в список: большой список сначала складывается в хеш-множество,
+     * как в {@link CustomArrayList#removeAll}.
+     */
+    private static Predicate<Object> membership(GapBufferCustomArrayList<?> c) {
+        if (c.size() < CustomArrayList.BULK_HASH_THRESHOLD) {
+            return c::contains;
+        }
+        Object[] es = c.toArray();
+        Set<Object> set = new HashSet<>(Math.max(16, (int) (es.length / .75f) + 1));
+        for (Object e : es) {
+            set.add(e);
+        }
+        return set::contains;
+    }
+
+    /**
+     * Удаляет элементы, для которых {@code filter} вернул {@code true}: разрыв переносится в конец,
+     * и элементы сжимаются за один проход. Освободившиеся ячейки становятся частью разрыва и зануляются.
+     */
+    private boolean batchRemove(Predicate<Object> filter) {
+        int size = size();
+        moveGap(size);
+        Object[] es = elementData;
+        int r = 0;
+        while (r < size && !filter.test(es[r])) {
+            r++;
+        }
+        if (r == size) {
+            return false;
+        }
+        int w = r++;
+        try {
+            for (; r < size; r++) {
+                Object e = es[r];
+                if (!filter.test(e)) {
+                    es[w++] = e;
+                }
+            }
+        } finally {
+            // если условие бросило исключение - сохраняем непроверенный хвост
+            if (r < size) {
+                System.arraycopy(es, r, es, w, size - r);
+                w += size - r;
+            }
+            Arrays.fill(es, w, size, null);
+            gapStart = w;
+            modCount++;
+        }
+        return true;
+    }
+
+    /**
+     * Переносит разрыв так, чтобы он начинался с логического индекса {@code index}.
+     * Сдвигаются только элементы между старым и новым положением разрыва; освободившиеся ячейки зануляются.
+     */
+    private void moveGap(int index) {
+        if (index < gapStart) {
+            int count = gapStart - index;
+            System.arraycopy(elementData, index, elementData, gapEnd - count, count);
+            Arrays.fill(elementData, index, Math.min(gapStart, gapEnd - count), null);
+            gapStart = index;
+            gapEnd -= count;
+        } else if (index > gapStart) {
+            int count = index - gapStart;
+            System.arraycopy(elementData, gapEnd, elementData, gapStart, count);
+            Arrays.fill(elementData, Math.max(index, gapEnd), gapEnd + count, null);
+            gapStart = index;
+            gapEnd += count;
+        }
+    }
+
+    /**
+     * Увеличивает массив по политике роста; разрыв остается на месте и расширяется.
+     */
+    private void grow(int minCapacity) {
+        if (minCapacity < 0) {
+            throw new OutOfMemoryError("required array size too large");
+        }
+        int oldCapacity = elementData.length;
+        int newCapacity = GrowthPolicies.clamp(growthPolicy.newCapacity(oldCapacity, minCapacity), minCapacity);
+        Object[] grown = new Object[newCapacity];
+        int tail = oldCapacity - gapEnd;
+        System.arraycopy(elementData, 0, grown, 0, gapStart);
+        System.arraycopy(elementData, gapEnd, grown, newCapacity - tail, tail);
+        elementData = grown;
+        gapEnd = newCapacity - tail;
+    }
+
+    @Override
+    public String toString() {
+        return Arrays.toString(toArray());
+    }
+
+    /**
+     * Итератор по логическим индексам; удаление через итератор переносит разрыв к курсору.
+     */
+    private class Itr implements Iterator<E> {
+        /**
+         * индекс следующего элемента
+         */
+        private int cursor;
+
+        /**
+         * индекс последнего возвращенного элемента или -1
+         */
+        private int lastRet = -1;
+
+        private int expectedModCount = modCount;
+
+        @Override
+        public boolean hasNext() {
+            return cursor < size();
+        }
+
+        @Override
+        public E next() {
+            checkForComodification();
+            int i = cursor;
+            if (i >= size()) {
+                throw new NoSuchElementException();
+            }
+            cursor = i + 1;
+            return get(lastRet = i);
+        }
+
+        @Override
+        public void remove() {
+            if (lastRet < 0) {
+                throw new IllegalStateException();
+            }
+            checkForComodification();
+            removeAt(lastRet);
+            cursor = lastRet;
+            lastRet = -1;
+            expectedModCount = modCount;
+        }
+
+        private void checkForComodification() {
+            if (modCount != expectedModCount) {
+                throw new ConcurrentModificationException();
+            }
+        }
+    }
+}
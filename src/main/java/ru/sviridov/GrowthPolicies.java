@@ -0,0 +1,70 @@
+package ru.sviridov;
+
+/**
+ * Реализации политик роста, возвращаемые {@link GrowthPolicy#geometric(double)},
+ * {@link GrowthPolicy#fixedChunk(int)} и {@link GrowthPolicy#defaultPolicy()}.
+ * Вычисления ведутся в {@code long}, поэтому около {@link Integer#MAX_VALUE} емкость не переполняется.
+ *
+ * @author Yuriy Sviridov
+ * @since 0.6
+ */
+final class GrowthPolicies {
+
+    static final GrowthPolicy DEFAULT = new Geometric(1.5);
+
+    private GrowthPolicies() {
+    }
+
+    /**
+     * Ограничивает желаемую емкость сверху {@link GrowthPolicy#MAX_ARRAY_SIZE} (если минимум это позволяет).
+     */
+    static int clamp(long desired, int minCapacity) {
+        if (desired <= minCapacity) {
+            return minCapacity;
+        }
+        return (int) Math.min(desired, Math.max(GrowthPolicy.MAX_ARRAY_SIZE, minCapacity));
+    }
+
+    static final class Geometric implements GrowthPolicy {
+        private final double factor;
+
+        Geometric(double factor) {
+            if (!(factor > 1) || Double.isInfinite(factor)) {
+                throw new IllegalArgumentException("incorrect growth factor");
+            }
+            this.factor = factor;
+        }
+
+        @Override
+        public int newCapacity(int oldCapacity, int minCapacity) {
+            long grown = Math.max((long) (oldCapacity * factor), oldCapacity + 1L);
+            return clamp(grown, minCapacity);
+        }
+
+        @Override
+        public String toString() {
+            return "geometric(" + factor + ")";
+        }
+    }
+
+    static final class FixedChunk implements GrowthPolicy {
+        private final int chunk;
+
+        FixedChunk(int chunk) {
+            if (chunk <= 0) {
+                throw new IllegalArgumentException("incorrect chunk");
+            }
+            this.chunk = chunk;
+        }
+
+        @Override
+        public int newCapacity(int oldCapacity, int minCapacity) {
+            return clamp((long) oldCapacity + chunk, minCapacity);
+        }
+
+        @Override
+        public String toString() {
+            return "fixedChunk(" + chunk + ")";
+        }
+    }
+}
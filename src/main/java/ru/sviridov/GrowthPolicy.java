@@ -0,0 +1,64 @@
+package ru.sviridov;
+
+/**
+ * Политика роста массива {@link CustomArrayList}: по текущей емкости и минимально необходимой
+ * вычисляет новую емкость.
+ * <p>Готовые политики:
+ * <ul>
+ *     <li>{@link #geometric(double)} - рост в заданное число раз; добавление в конец стоит амортизированно O(1).
+ *     По умолчанию используется {@link #defaultPolicy()} - рост в полтора раза;</li>
+ *     <li>{@link #fixedChunk(int)} - рост на фиксированное число ячеек: меньше неиспользуемой памяти,
+ *     но при большом числе добавлений массив копируется O(n / chunk) раз.</li>
+ * </ul>
+ * <p>Собственную политику можно задать лямбдой. Если она вернет емкость меньше {@code minCapacity},
+ * список все равно выделит не меньше {@code minCapacity} ячеек.
+ *
+ * @author Yuriy Sviridov
+ * @since 0.6
+ */
+@FunctionalInterface
+public interface GrowthPolicy {
+
+    /**
+     * максимальный размер массива, который гарантированно может выделить JVM
+     */
+    int MAX_ARRAY_SIZE = Integer.MAX_VALUE - 8;
+
+    /**
+     * Вычисляет новую емкость массива.
+     *
+     * @param oldCapacity текущая емкость (может быть 0)
+     * @param minCapacity минимально необходимая емкость, всегда больше {@code oldCapacity}
+     * @return новая емкость
+     */
+    int newCapacity(int oldCapacity, int minCapacity);
+
+    /**
+     * @return политика по умолчанию - рост в полтора раза
+     */
+    static GrowthPolicy defaultPolicy() {
+        return GrowthPolicies.DEFAULT;
+    }
+
+    /**
+     * Рост в {@code factor} раз (но не меньше чем на одну ячейку), без переполнения около {@link Integer#MAX_VALUE}.
+     *
+     * @param factor множитель роста
+     * @return геометрическая политика роста
+     * @throws IllegalArgumentException если множитель не больше 1
+     */
+    static GrowthPolicy geometric(double factor) {
+        return new GrowthPolicies.Geometric(factor);
+    }
+
+    /**
+     * Рост на {@code chunk} ячеек, без переполнения около {@link Integer#MAX_VALUE}.
+     *
+     * @param chunk шаг роста
+     * @return политика роста фиксированными порциями
+     * @throws IllegalArgumentException если шаг не положителен
+     */
+    static GrowthPolicy fixedChunk(int chunk) {
+        return new GrowthPolicies.FixedChunk(chunk);
+    }
+}
@@ -0,0 +1,192 @@
+package ru.sviridov;
+
+import java.util.Comparator;
+
+/**
+ * Интроспективная сортировка (introsort) для массивов объектов.
+ * <p>Основа алгоритма - быстрая сортировка с трехчастным разбиением (меньше / равно / больше опорного),
+ * благодаря которому серии одинаковых ключей не сортируются повторно. Опорный элемент выбирается
+ * медианой трех, а для больших диапазонов - "ниндером" (медианой трех медиан).
+ * Небольшие диапазоны досортировываются вставками, а при превышении допустимой глубины рекурсии
+ * диапазон сортируется пирамидальной сортировкой, поэтому худший случай равен O(n log(n)).
+ * <p>Естественный порядок и порядок компаратора используют одну и ту же реализацию:
+ * для естественного порядка передается {@link Comparator#naturalOrder()}.
+ * <p>Все границы диапазонов включительные. Класс служебный и используется только внутри пакета.
+ *
+ * @author Yuriy Sviridov
+ * @since 0.6
+ */
+final class IntroSort {
+
+    /**
+     * диапазоны не длиннее этого значения сортируются вставками
+     */
+    static final int INSERTION_SORT_THRESHOLD = 16;
+
+    /**
+     * начиная с этого размера опорный элемент выбирается "ниндером"
+     */
+    private static final int NINTHER_THRESHOLD = 128;
+
+    private IntroSort() {
+    }
+
+    /**
+     * Сортирует диапазон массива.
+     *
+     * @param a     сортируемый массив
+     * @param first первый индекс диапазона
+     * @param last  последний индекс диапазона
+     * @param c     компаратор
+     * @param <E>   тип элементов
+     */
+    static <E> void sort(E[] a, int first, int last, Comparator<? super E> c) {
+        sort(a, first, last, c, depthLimit(last - first + 1));
+    }
+
+    /**
+     * Сортирует диапазон массива с заданным запасом глубины рекурсии.
+     *
+     * @param depth сколько еще разбиений допускается до перехода на пирамидальную сортировку
+     */
+    static <E> void sort(E[] a, int first, int last, Comparator<? super E> c, int depth) {
+        while (last - first + 1 > INSERTION_SORT_THRESHOLD) {
+            if (depth-- == 0) {
+                heapSort(a, first, last, c);
+                return;
+            }
+            long bounds = partition(a, first, last, c);
+            int lt = lowerBound(bounds);
+            int gt = upperBound(bounds);
+            // рекурсия только в меньшую часть, большая обрабатывается в цикле - стек не превышает log(n)
+            if (lt - first < last - gt) {
+                sort(a, first, lt - 1, c, depth);
+                first = gt + 1;
+            } else {
+                sort(a, gt + 1, last, c, depth);
+                last = lt - 1;
+            }
+        }
+        insertionSort(a, first, last, c);
+    }
+
+    /**
+     * @param n размер диапазона
+     * @return допустимая глубина рекурсии: 2 * floor(log2(n))
+     */
+    static int depthLimit(int n) {
+        return n <= 1 ? 0 : 2 * (31 - Integer.numberOfLeadingZeros(n));
+    }
+
+    /**
+     * Трехчастное разбиение диапазона по выбранному опорному элементу.
+     * После разбиения элементы {@code [first, lt)} меньше опорного, {@code [lt, gt]} равны ему,
+     * а {@code (gt, last]} больше.
+     *
+     * @return упакованная пара {@code lt} и {@code gt}, см. {@link #lowerBound(long)} и {@link #upperBound(long)}
+     */
+    static <E> long partition(E[] a, int first, int last, Comparator<? super E> c) {
+        E pivot = a[pivotIndex(a, first, last, c)];
+        int lt = first;
+        int gt = last;
+        int i = first;
+        while (i <= gt) {
+            int cmp = c.compare(a[i], pivot);
+            if (cmp < 0) {
+                swap(a, lt++, i++);
+            } else if (cmp > 0) {
+                swap(a, i, gt--);
+            } else {
+                i++;
+            }
+        }
+        return ((long) lt << 32) | (gt & 0xFFFFFFFFL);
+    }
+
+    /**
+     * @return первый индекс серии элементов, равных опорному
+     */
+    static int lowerBound(long bounds) {
+        return (int) (bounds >>> 32);
+    }
+
+    /**
+     * @return последний индекс серии элементов, равных опорному
+     */
+    static int upperBound(long bounds) {
+        return (int) bounds;
+    }
+
+    /**
+     * Пирамидальная сортировка диапазона: O(n log(n)) в худшем случае и без рекурсии.
+     */
+    static <E> void heapSort(E[] a, int first, int last, Comparator<? super E> c) {
+        int n = last - first + 1;
+        for (int i = n / 2 - 1; i >= 0; i--) {
+            siftDown(a, first, i, n, c);
+        }
+        for (int end = n - 1; end > 0; end--) {
+            swap(a, first, first + end);
+            siftDown(a, first, 0, end, c);
+        }
+    }
+
+    /**
+     * Сортировка вставками для небольших диапазонов.
+     */
+    static <E> void insertionSort(E[] a, int first, int last, Comparator<? super E> c) {
+        for (int i = first + 1; i <= last; i++) {
+            E current = a[i];
+            int j = i - 1;
+            while (j >= first && c.compare(a[j], current) > 0) {
+                a[j + 1] = a[j];
+                j--;
+            }
+            a[j + 1] = current;
+        }
+    }
+
+    private static <E> void siftDown(E[] a, int base, int i, int n, Comparator<? super E> c) {
+        E value = a[base + i];
+        int child;
+        while ((child = 2 * i + 1) < n) {
+            if (child + 1 < n && c.compare(a[base + child], a[base + child + 1]) < 0) {
+                child++;
+            }
+            if (c.compare(value, a[base + child]) >= 0) {
+                break;
+            }
+            a[base + i] = a[base + child];
+            i = child;
+        }
+        a[base + i] = value;
+    }
+
+    private static <E> int pivotIndex(E[] a, int first, int last, Comparator<? super E> c) {
+        int middle = first + (last - first) / 2;
+        int n = last - first + 1;
+        if (n < NINTHER_THRESHOLD) {
+            return median(a, first, middle, last, c);
+        }
+        int step = n / 8;
+        int m1 = median(a, first, first + step, first + 2 * step, c);
+        int m2 = median(a, middle - step, middle, middle + step, c);
+        int m3 = median(a, last - 2 * step, last - step, last, c);
+        return median(a, m1, m2, m3, c);
+    }
+
+    private static <E> int median(E[] a, int i, int j, int k, Comparator<? super E> c) {
+        if (c.compare(a[i], a[j]) < 0) {
+            if (c.compare(a[j], a[k]) < 0) return j;
+            return c.compare(a[i], a[k]) < 0 ? k : i;
+        }
+        if (c.compare(a[i], a[k]) < 0) return i;
+        return c.compare(a[j], a[k]) < 0 ? k : j;
+    }
+
+    private static void swap(Object[] a, int i, int j) {
+        Object swap = a[i];
+        a[i] = a[j];
+        a[j] = swap;
+    }
+}
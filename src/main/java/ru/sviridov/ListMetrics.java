@@ -0,0 +1,226 @@
+package ru.sviridov;
+
+import java.lang.management.ManagementFactory;
+import java.util.Comparator;
+import java.util.concurrent.atomic.LongAdder;
+import javax.management.InstanceAlreadyExistsException;
+import javax.management.JMException;
+import javax.management.ObjectName;
+
+/**
+ * Метрики операций {@link CustomArrayList}: увеличения массива, скопированные и сдвинутые элементы,
+ * глубина линейного поиска, число сравнений и время сортировок. Для размеров увеличений, копий,
+ * глубины поиска и числа сравнений ведутся логарифмические гистограммы.
+ * <p>Сбор метрик включается системным свойством {@value #PROPERTY} ({@code -Dru.sviridov.metrics=true}).
+ * Флаг {@link #ENABLED} - константа, поэтому при выключенных метриках JIT-компилятор удаляет проверки
+ * из горячих путей, и они ничего не стоят. При включенных метриках счетчики - {@link LongAdder},
+ * которые не конкурируют между потоками.
+ * <p>Метрики общие для всех списков процесса. При включении они публикуются:
+ * <ul>
+ *     <li>через JMX под именем {@value #OBJECT_NAME} (интерфейс {@link ListMetricsMXBean});</li>
+ *     <li>через JFR: каждая сортировка записывает событие {@code ru.sviridov.Sort} с алгоритмом, размером и числом сравнений.</li>
+ * </ul>
+ *
+ * @author Yuriy Sviridov
+ * @since 0.6
+ */
+public final class ListMetrics implements ListMetricsMXBean {
+
+    /**
+     * системное свойство, включающее сбор метрик
+     */
+    public static final String PROPERTY = "ru.sviridov.metrics";
+
+    /**
+     * имя MBean метрик
+     */
+    public static final String OBJECT_NAME = "ru.sviridov:type=CustomArrayListMetrics";
+
+    /**
+     * {@code true}, если сбор метрик включен (задается один раз при загрузке класса)
+     */
+    public static final boolean ENABLED = Boolean.getBoolean(PROPERTY);
+
+    private static final ListMetrics INSTANCE = new ListMetrics();
+
+    static {
+        if (ENABLED) {
+            try {
+                ManagementFactory.getPlatformMBeanServer().registerMBean(INSTANCE, new ObjectName(OBJECT_NAME));
+            } catch (InstanceAlreadyExistsException e) {
+                // уже зарегистрирован (например, класс загружен другим загрузчиком)
+            } catch (JMException e) {
+                throw new IllegalStateException("cannot register " + OBJECT_NAME, e);
+            }
+        }
+    }
+
+    private final LongAdder growCount = new LongAdder();
+    private final LongAdder copiedElements = new LongAdder();
+    private final Log2Histogram growSizes = new Log2Histogram();
+    private final Log2Histogram copySizes = new Log2Histogram();
+    private final LongAdder shiftedElements = new LongAdder();
+    private final LongAdder lookupCount = new LongAdder();
+    private final LongAdder lookupScanned = new LongAdder();
+    private final Log2Histogram lookupDepth = new Log2Histogram();
+    private final LongAdder sortCount = new LongAdder();
+    private final LongAdder sortComparisons = new LongAdder();
+    private final LongAdder sortNanos = new LongAdder();
+    private final Log2Histogram comparisonsPerSort = new Log2Histogram();
+
+    private ListMetrics() {
+    }
+
+    /**
+     * @return метрики процесса
+     */
+    public static ListMetrics get() {
+        return INSTANCE;
+    }
+
+    static void recordGrow(int copied) {
+        INSTANCE.growCount.increment();
+        INSTANCE.growSizes.record(copied);
+        recordCopy(copied);
+    }
+
+    static void recordCopy(int copied) {
+        INSTANCE.copiedElements.add(copied);
+        INSTANCE.copySizes.record(copied);
+    }
+
+    static void recordShift(int shifted) {
+        INSTANCE.shiftedElements.add(shifted);
+    }
+
+    static void recordLookup(int scanned) {
+        INSTANCE.lookupCount.increment();
+        INSTANCE.lookupScanned.add(scanned);
+        INSTANCE.lookupDepth.record(scanned);
+    }
+
+    /**
+     * Начинает замер сортировки: возвращает замер со считающим компаратором.
+     */
+    static <E> SortProbe<E> startSort(String algorithm, int size, Comparator<? super E> c) {
+        return new SortProbe<>(algorithm, size, c);
+    }
+
+    @Override
+    public boolean isEnabled() {
+        return ENABLED;
+    }
+
+    @Override
+    public long getGrowCount() {
+        return growCount.sum();
+    }
+
+    @Override
+    public long getCopiedElements() {
+        return copiedElements.sum();
+    }
+
+    @Override
+    public long[] getGrowSizeHistogram() {
+        return growSizes.snapshot();
+    }
+
+    @Override
+    public long[] getCopiedElementsHistogram() {
+        return copySizes.snapshot();
+    }
+
+    @Override
+    public long getShiftedElements() {
+        return shiftedElements.sum();
+    }
+
+    @Override
+    public long getLookupCount() {
+        return lookupCount.sum();
+    }
+
+    @Override
+    public long getLookupScannedElements() {
+        return lookupScanned.sum();
+    }
+
+    @Override
+    public long[] getLookupDepthHistogram() {
+        return lookupDepth.snapshot();
+    }
+
+    @Override
+    public long getSortCount() {
+        return sortCount.sum();
+    }
+
+    @Override
+    public long getSortComparisons() {
+        return sortComparisons.sum();
+    }
+
+    @Override
+    public long getSortNanos() {
+        return sortNanos.sum();
+    }
+
+    @Override
+    public long[] getSortComparisonsHistogram() {
+        return comparisonsPerSort.snapshot();
+    }
+
+    @Override
+    public void reset() {
+        growCount.reset();
+        copiedElements.reset();
+        growSizes.reset();
+        copySizes.reset();
+        shiftedElements.reset();
+        lookupCount.reset();
+        lookupScanned.reset();
+        lookupDepth.reset();
+        sortCount.reset();
+        sortComparisons.reset();
+        sortNanos.reset();
+        comparisonsPerSort.reset();
+    }
+
+    /**
+     * Замер одной сортировки: компаратор считает сравнения (потокобезопасно, для параллельной сортировки),
+     * {@link #finish()} записывает метрики и событие JFR.
+     */
+    static final class SortProbe<E> implements Comparator<E> {
+        private final Comparator<? super E> c;
+        private final LongAdder comparisons = new LongAdder();
+        private final SortEvent event = new SortEvent();
+        private final long start = System.nanoTime();
+
+        SortProbe(String algorithm, int size, Comparator<? super E> c) {
+            this.c = c;
+            event.algorithm = algorithm;
+            event.size = size;
+            event.begin();
+        }
+
+        @Override
+        public int compare(E a, E b) {
+            comparisons.increment();
+            return c.compare(a, b);
+        }
+
+        void finish() {
+            long count = comparisons.sum();
+            INSTANCE.sortCount.increment();
+            INSTANCE.sortComparisons.add(count);
+            INSTANCE.sortNanos.add(System.nanoTime() - start);
+            INSTANCE.comparisonsPerSort.record(count);
+            event.end();
+            if (event.shouldCommit()) {
+                event.comparisons = count;
+                event.commit();
+            }
+        }
+    }
+}
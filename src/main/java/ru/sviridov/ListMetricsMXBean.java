@@ -0,0 +1,82 @@
+package ru.sviridov;
+
+/**
+ * JMX-интерфейс метрик {@link CustomArrayList} (см. {@link ListMetrics}).
+ * Регистрируется под именем {@value ListMetrics#OBJECT_NAME}.
+ * <p>Гистограммы логарифмические: ячейка {@code i} считает значения из {@code [2^(i-1), 2^i)}, ячейка 0 - нули.
+ *
+ * @author Yuriy Sviridov
+ * @since 0.6
+ */
+public interface ListMetricsMXBean {
+
+    /**
+     * @return {@code true}, если сбор метрик включен
+     */
+    boolean isEnabled();
+
+    /**
+     * @return число увеличений массива ({@code grow})
+     */
+    long getGrowCount();
+
+    /**
+     * @return число элементов, скопированных при увеличении массива и при копировании массива, разделенного со снимками
+     */
+    long getCopiedElements();
+
+    /**
+     * @return гистограмма размера списка при увеличении массива (сколько элементов скопировано за одно увеличение)
+     */
+    long[] getGrowSizeHistogram();
+
+    /**
+     * @return гистограмма числа элементов, скопированных за одно копирование массива (увеличение, уменьшение, копия при записи)
+     */
+    long[] getCopiedElementsHistogram();
+
+    /**
+     * @return число элементов, сдвинутых {@link System#arraycopy} при вставке и удалении
+     */
+    long getShiftedElements();
+
+    /**
+     * @return число линейных поисков ({@code indexOf}, {@code contains}, {@code remove} без хеш-индекса)
+     */
+    long getLookupCount();
+
+    /**
+     * @return суммарное число просмотренных при поиске элементов
+     */
+    long getLookupScannedElements();
+
+    /**
+     * @return гистограмма глубины просмотра при поиске
+     */
+    long[] getLookupDepthHistogram();
+
+    /**
+     * @return число сортировок
+     */
+    long getSortCount();
+
+    /**
+     * @return суммарное число сравнений во всех сортировках
+     */
+    long getSortComparisons();
+
+    /**
+     * @return суммарное время сортировок в наносекундах
+     */
+    long getSortNanos();
+
+    /**
+     * @return гистограмма числа сравнений на одну сортировку
+     */
+    long[] getSortComparisonsHistogram();
+
+    /**
+     * Обнуляет все счетчики и гистограммы.
+     */
+    void reset();
+}
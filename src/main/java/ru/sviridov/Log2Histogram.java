@@ -0,0 +1,49 @@
+package ru.sviridov;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Потокобезопасная логарифмическая гистограмма неотрицательных значений: ячейка {@code i}
+ * считает значения из {@code [2^(i-1), 2^i)}, ячейка 0 - нули. Запись - одно увеличение {@link LongAdder}.
+ * <p>Класс служебный и используется только внутри пакета.
+ *
+ * @author Yuriy Sviridov
+ * @since 0.6
+ */
+final class Log2Histogram {
+
+    private final LongAdder[] buckets = new LongAdder[Long.SIZE + 1];
+
+    Log2Histogram() {
+        for (int i = 0; i < buckets.length; i++) {
+            buckets[i] = new LongAdder();
+        }
+    }
+
+    void record(long value) {
+        buckets[Long.SIZE - Long.numberOfLeadingZeros(Math.max(value, 0))].increment();
+    }
+
+    /**
+     * @return значения ячеек без хвоста из пустых ячеек
+     */
+    long[] snapshot() {
+        long[] counts = new long[buckets.length];
+        int length = 0;
+        for (int i = 0; i < buckets.length; i++) {
+            counts[i] = buckets[i].sum();
+            if (counts[i] != 0) {
+                length = i + 1;
+            }
+        }
+        long[] result = new long[length];
+        System.arraycopy(counts, 0, result, 0, length);
+        return result;
+    }
+
+    void reset() {
+        for (LongAdder bucket : buckets) {
+            bucket.reset();
+        }
+    }
+}
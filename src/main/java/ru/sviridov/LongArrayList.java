@@ -0,0 +1,222 @@
+package ru.sviridov;
+
+import java.util.Arrays;
+
+/**
+ * реализация изменяемого (динамического) массива примитивов {@code long}
+ * <p>Аналог {@code CustomArrayList<Long>}, который хранит значения в массиве {@code long[]} без упаковки
+ * в {@link Long}: методы доступа не выделяют память, а элементы лежат в памяти подряд.
+ * Реализует публичные методы {@code add}, {@code get}, {@code remove}, {@code trimToSize}, {@code clear},
+ * {@code contains}, {@code indexOf}, {@code size}, {@code sort} и {@code toArray}.
+ * <p>Каждый экземпляр имеет начальную емкость равную 10; при заполнении массив увеличивается в полтора раза.
+ * <p>Сортировка поразрядная (для коротких списков - dual-pivot quicksort).
+ * <p><strong>Обратите внимание, что эта реализация не синхронизирована.</strong></p>
+ *
+ * @author Yuriy Sviridov
+ * @see CustomArrayList
+ * @since 0.6
+ */
+public class LongArrayList {
+    /**
+     * начальная емкость по умолчанию
+     */
+    private static final int DEFAULT_CAPACITY = 10;
+
+    /**
+     * основной массив для хранения данных
+     */
+    private long[] elementData;
+
+    /**
+     * Размер списка (количество содержащихся в нем элементов)
+     */
+    private int size;
+
+    /**
+     * Создает пустой список с начальной емкостью по умолчанию
+     */
+    public LongArrayList() {
+        elementData = new long[DEFAULT_CAPACITY];
+    }
+
+    /**
+     * Конструктор, который создает пустой список с указанной начальной емкостью.
+     *
+     * @param capacity начальная емкость списка
+     * @throws IllegalArgumentException если укажут отрицательную емкость
+     */
+    public LongArrayList(int capacity) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("incorrect capacity");
+        }
+        elementData = new long[capacity];
+    }
+
+    /**
+     * Создает список поверх готового массива (используется при загрузке из файла).
+     */
+    LongArrayList(long[] elementData, int size) {
+        this.elementData = elementData;
+        this.size = size;
+    }
+
+    /**
+     * @return настоящую емкость коллекции (фактический размер с учетом пустых ячеек)
+     */
+    public int getCapacity() {
+        return elementData.length;
+    }
+
+    /**
+     * Добавляет элемент в конец списка, при необходимости увеличивая его.
+     *
+     * @param e входной элемент для добавления
+     */
+    public void add(long e) {
+        if (size == elementData.length) {
+            grow();
+        }
+        elementData[size++] = e;
+    }
+
+    /**
+     * Добавляет элемент по указанному индексу, а также сдвигает последующие элементы вправо.
+     *
+     * @param index индекс, по которому нужно добавить элемент
+     * @param e     элемент для добавления
+     * @throws ArrayIndexOutOfBoundsException если указывается некорректный индекс
+     */
+    public void add(int index, long e) {
+        if (index > size || index < 0) {
+            throw new ArrayIndexOutOfBoundsException("index " + index + " out of bound " + size);
+        }
+        if (size == elementData.length) {
+            grow();
+        }
+        System.arraycopy(elementData, index, elementData, index + 1, (size++) - index);
+        elementData[index] = e;
+    }
+
+    /**
+     * Достает элемент по указанному индексу.
+     *
+     * @param index указанный индекс для поиска элемента
+     * @return элемент по индексу
+     * @throws IndexOutOfBoundsException если указан некорректный индекс
+     */
+    public long get(int index) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("Index " + index + " out of bounds for length " + size);
+        }
+        return elementData[index];
+    }
+
+    /**
+     * Находит первое вхождение значения и удаляет его, сдвигая последующие элементы влево.
+     *
+     * @param e значение для удаления
+     * @return {@code true} если элемент успешно удален
+     */
+    public boolean remove(long e) {
+        int pos = indexOf(e);
+        if (pos >= 0) {
+            System.arraycopy(elementData, pos + 1, elementData, pos, size - pos - 1);
+            size--;
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * Уменьшает емкость до фактического размера коллекции, для экономии памяти.
+     */
+    public void trimToSize() {
+        if (size < elementData.length) {
+            elementData = Arrays.copyOf(elementData, size);
+        }
+    }
+
+    /**
+     * Очищает всю коллекцию (емкость сохраняется).
+     */
+    public void clear() {
+        size = 0;
+    }
+
+    /**
+     * Возвращает индекс первого вхождения значения или -1, если значение не найдено
+     *
+     * @param e значение для поиска
+     * @return {@code int} индекс элемента
+     */
+    public int indexOf(long e) {
+        long[] es = elementData;
+        for (int i = 0; i < size; i++) {
+            if (es[i] == e) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Возвращает true если эта коллекция содержит указанное значение.
+     *
+     * @param e значение для поиска
+     * @return {@code true}, если значение найдено в коллекции
+     */
+    public boolean contains(long e) {
+        return indexOf(e) >= 0;
+    }
+
+    /**
+     * Возвращает размер коллекции
+     *
+     * @return {@code int} размер коллекции.
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Сортирует список по возрастанию.
+     * Большие списки сортируются поразрядно за O(n), небольшие - dual-pivot quicksort.
+     */
+    public void sort() {
+        RadixSort.sort(elementData, 0, size);
+    }
+
+    /**
+     * @return копия содержимого списка в виде массива длиной {@link #size()}
+     */
+    public long[] toArray() {
+        return Arrays.copyOf(elementData, size);
+    }
+
+    /**
+     * @return основной массив (без копирования, для сохранения в файл)
+     */
+    long[] array() {
+        return elementData;
+    }
+
+    /**
+     * Увеличивает массив в полтора раза (но не меньше чем на один элемент).
+     */
+    private void grow() {
+        int oldCapacity = elementData.length;
+        int newCapacity = oldCapacity + Math.max(oldCapacity >> 1, 1);
+        if (newCapacity < 0) {
+            newCapacity = Integer.MAX_VALUE - 8;
+            if (newCapacity <= oldCapacity) {
+                throw new OutOfMemoryError("required array size too large");
+            }
+        }
+        elementData = Arrays.copyOf(elementData, newCapacity);
+    }
+
+    @Override
+    public String toString() {
+        return Arrays.toString(toArray());
+    }
+}
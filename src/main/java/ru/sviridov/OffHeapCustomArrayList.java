@@ -0,0 +1,504 @@
+package ru.sviridov;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Objects;
+
+/**
+ * реализация изменяемого (динамического) массива, элементы которого хранятся вне кучи
+ * <p>Каждый элемент раскладывается кодеком ({@link ElementCodec}) в запись фиксированной ширины. Записи лежат
+ * в блоках памяти вне кучи ({@link ByteBuffer#allocateDirect(int)}) одинакового размера, поэтому список не
+ * увеличивает кучу и не нагружает сборщик мусора (до {@link Integer#MAX_VALUE} элементов).
+ * При заполнении добавляется новый блок, старые не копируются.
+ * <p>Память прямых буферов ограничена флагом JVM {@code -XX:MaxDirectMemorySize}, который по умолчанию равен
+ * размеру кучи ({@code -Xmx}) - см. {@link #maxOffHeapBytes()}. Чтобы держать вне кучи больше данных, чем
+ * помещается в кучу, флаг нужно задать явно, например {@code -Xmx2g -XX:MaxDirectMemorySize=32g}.
+ * При исчерпании предела {@code add} бросает {@link OutOfMemoryError} с подсказкой про флаг.
+ * <p>Реализует публичные методы {@code add}, {@code get}, {@code remove}, {@code clear}, {@code contains},
+ * {@code indexOf}, {@code size}, {@code sort} и {@code trimToSize} с той же семантикой, что и
+ * {@link CustomArrayList}. Отличия: {@code get} каждый раз возвращает новый объект, собранный кодеком,
+ * поиск сравнивает элементы через {@link ElementCodec#matches}, а {@code null} хранить нельзя.
+ * <p>Память освобождается явно методом {@link #close()} (подходит для try-with-resources);
+ * после закрытия любые операции бросают {@link IllegalStateException}.
+ * <p>Список можно сохранить в файл и отобразить обратно в память без декодирования элементов,
+ * см. {@link CustomArrayListFiles}. Отображенный список доступен только для чтения: изменяющие
+ * методы бросают {@link UnsupportedOperationException}.
+ * <p><strong>Обратите внимание, что эта реализация не синхронизирована.</strong></p>
+ *
+ * @param <E> тип элементов
+ * @author Yuriy Sviridov
+ * @since 0.6
+ */
+public class OffHeapCustomArrayList<E> implements AutoCloseable {
+    /**
+     * количество элементов в одном блоке по умолчанию
+     */
+    public static final int DEFAULT_CHUNK_ELEMENTS = 1 << 16;
+
+    /**
+     * кодек элементов
+     */
+    private final ElementCodec<E> codec;
+
+    /**
+     * ширина записи в байтах
+     */
+    private final int width;
+
+    /**
+     * log2 количества элементов в блоке
+     */
+    private final int chunkShift;
+
+    /**
+     * маска индекса внутри блока
+     */
+    private final int chunkMask;
+
+    /**
+     * блоки памяти вне кучи; заполнены первые {@code chunkCount}
+     */
+    private ByteBuffer[] chunks = new ByteBuffer[4];
+
+    private int chunkCount;
+
+    /**
+     * Размер списка (количество содержащихся в нем элементов)
+     */
+    private int size;
+
+    private boolean closed;
+
+    /**
+     * список отображен из файла только для чтения (см. {@link CustomArrayListFiles#map})
+     */
+    private final boolean readOnly;
+
+    /**
+     * временные буферы для перестановки записей при сортировке и сдвигах
+     */
+    private final byte[] scratch;
+    private final byte[] scratch2;
+
+    /**
+     * Создает пустой список с размером блока по умолчанию ({@value #DEFAULT_CHUNK_ELEMENTS} элементов).
+     *
+     * @param codec кодек элементов
+     */
+    public OffHeapCustomArrayList(ElementCodec<E> codec) {
+        this(codec, DEFAULT_CHUNK_ELEMENTS);
+    }
+
+    /**
+     * Создает пустой список с указанным размером блока.
+     *
+     * @param codec         кодек элементов
+     * @param chunkElements количество элементов в одном блоке памяти (степень двойки)
+     * @throws IllegalArgumentException если размер блока не степень двойки или блок не помещается в 2 ГБ
+     */
+    public OffHeapCustomArrayList(ElementCodec<E> codec, int chunkElements) {
+        this.codec = Objects.requireNonNull(codec, "codec");
+        this.width = codec.width();
+        if (width <= 0) {
+            throw new IllegalArgumentException("incorrect codec width");
+        }
+        if (chunkElements <= 0 || Integer.bitCount(chunkElements) != 1
+                || (long) chunkElements * width > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("incorrect chunk size");
+        }
+        this.chunkShift = Integer.numberOfTrailingZeros(chunkElements);
+        this.chunkMask = chunkElements - 1;
+        this.scratch = new byte[width];
+        this.scratch2 = new byte[width];
+        this.readOnly = false;
+    }
+
+    /**
+     * Создает список только для чтения поверх готовых блоков (например, отображенных из файла).
+     * Все блоки, кроме последнего, должны содержать ровно {@code chunkElements} записей.
+     */
+    OffHeapCustomArrayList(ElementCodec<E> codec, int chunkElements, ByteBuffer[] chunks, int size) {
+        this.codec = codec;
+        this.width = codec.width();
+        this.chunkShift = Integer.numberOfTrailingZeros(chunkElements);
+        this.chunkMask = chunkElements - 1;
+        this.chunks = chunks;
+        this.chunkCount = chunks.length;
+        this.size = size;
+        this.scratch = new byte[width];
+        this.scratch2 = new byte[width];
+        this.readOnly = true;
+    }
+
+    /**
+     * @return настоящую емкость коллекции (количество элементов во всех выделенных блоках;
+     * для отображенного списка - его размер)
+     */
+    public long getCapacity() {
+        return readOnly ? size : (long) chunkCount << chunkShift;
+    }
+
+    /**
+     * @return предел памяти прямых буферов процесса в байтах ({@code -XX:MaxDirectMemorySize},
+     * по умолчанию - размер кучи); общий для всех списков
+     */
+    public static long maxOffHeapBytes() {
+        return DirectMemory.limit();
+    }
+
+    /**
+     * @return объем выделенной (или отображенной) памяти вне кучи в байтах
+     */
+    public long offHeapBytes() {
+        return getCapacity() * width;
+    }
+
+    /**
+     * @return кодек элементов этого списка
+     */
+    public ElementCodec<E> codec() {
+        return codec;
+    }
+
+    /**
+     * Добавляет элемент в конец списка. При необходимости выделяется новый блок памяти.
+     *
+     * @param e входной элемент для добавления
+     * @throws NullPointerException если элемент равен {@code null}
+     */
+    public void add(E e) {
+        Objects.requireNonNull(e, "element");
+        ensureWritable();
+        ensureCapacity(size + 1);
+        codec.encode(e, chunk(size), offset(size));
+        size++;
+    }
+
+    /**
+     * Добавляет элемент по указанному индексу, а также сдвигает последующие элементы вправо.
+     *
+     * @param index индекс, по которому нужно добавить элемент
+     * @param e     элемент для добавления
+     * @throws ArrayIndexOutOfBoundsException если указывается некорректный индекс
+     * @throws NullPointerException           если элемент равен {@code null}
+     */
+    public void add(int index, E e) {
+        Objects.requireNonNull(e, "element");
+        ensureWritable();
+        if (index > size || index < 0) {
+            throw new ArrayIndexOutOfBoundsException("index " + index + " out of bound " + size);
+        }
+        ensureCapacity(size + 1);
+        for (int i = size; i > index; i--) {
+            move(i - 1, i);
+        }
+        codec.encode(e, chunk(index), offset(index));
+        size++;
+    }
+
+    /**
+     * Достает элемент по указанному индексу (новый объект, собранный кодеком).
+     *
+     * @param index указанный индекс для поиска элемента
+     * @return {@code E} нужный элемент по индексу
+     * @throws IndexOutOfBoundsException если указан некорректный индекс
+     */
+    public E get(int index) {
+        ensureOpen();
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("Index " + index + " out of bounds for length " + size);
+        }
+        return codec.decode(chunk(index), offset(index));
+    }
+
+    /**
+     * Находит и удаляет первое вхождение объекта, а также сдвигает последующие элементы влево.
+     *
+     * @param e элемент для удаления
+     * @return {@code true} если элемент успешно удален
+     */
+    public boolean remove(E e) {
+        ensureWritable();
+        int pos = indexOf(e);
+        if (pos >= 0) {
+            for (int i = pos + 1; i < size; i++) {
+                move(i, i - 1);
+            }
+            size--;
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * Возвращает индекс первого элемента, равного объекту (см. {@link ElementCodec#matches}), или -1.
+     *
+     * @param o элемент для поиска
+     * @return {@code int} индекс элемента
+     */
+    public int indexOf(Object o) {
+        ensureOpen();
+        for (int i = 0; i < size; i++) {
+            if (codec.matches(o, chunk(i), offset(i))) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Возвращает true если эта коллекция содержит указанный элемент.
+     *
+     * @param o элемент для поиска
+     * @return {@code true}, если элемент найден в коллекции
+     */
+    public boolean contains(Object o) {
+        return indexOf(o) >= 0;
+    }
+
+    /**
+     * Возвращает размер коллекции
+     *
+     * @return {@code int} размер коллекции.
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Очищает всю коллекцию. Блоки памяти остаются выделенными; освободить их можно {@link #trimToSize()}.
+     */
+    public void clear() {
+        ensureWritable();
+        size = 0;
+    }
+
+    /**
+     * Освобождает блоки памяти, в которых нет элементов.
+     */
+    public void trimToSize() {
+        ensureWritable();
+        int needed = (int) (((long) size + chunkMask) >>> chunkShift);
+        while (chunkCount > needed) {
+            DirectMemory.free(chunks[--chunkCount]);
+            chunks[chunkCount] = null;
+        }
+    }
+
+    /**
+     * Сортирует список в естественном порядке элементов, сравнивая записи кодеком ({@link ElementCodec#encodedOrder()}).
+     * <p>Используется пирамидальная сортировка прямо в памяти вне кучи: O(n log(n)) в худшем случае,
+     * без рекурсии и без копирования списка в кучу. Сортировка не стабильна. Для кодеков чисел записи
+     * сравниваются в буфере, и сортировка не создает ни одного объекта.
+     */
+    public void sort() {
+        sort(codec.encodedOrder());
+    }
+
+    /**
+     * Сортирует список, сравнивая закодированные записи прямо в памяти вне кучи, без сборки объектов.
+     * Подходит для очень больших списков: сортировка не создает мусора (если его не создает само сравнение).
+     *
+     * @param c сравнение записей, например {@link CatCodec#byWeight()}
+     */
+    public void sort(RecordComparator c) {
+        Objects.requireNonNull(c, "comparator");
+        ensureWritable();
+        for (int i = size / 2 - 1; i >= 0; i--) {
+            siftDown(i, size, c);
+        }
+        for (int end = size - 1; end > 0; end--) {
+            swap(0, end);
+            siftDown(0, end, c);
+        }
+    }
+
+    /**
+     * Сортирует список в порядке, заданном компаратором объектов. Подробнее - в {@link #sort()}.
+     * <p>Компаратор работает с объектами, поэтому записи декодируются: просеиваемый элемент - один раз,
+     * потомки - по одному разу на уровень, то есть O(n log(n)) временных объектов. Для сотен миллионов записей
+     * лучше {@link #sort(RecordComparator)}, который сравнивает записи без декодирования.
+     *
+     * @param c входной компаратор для конкретной сортировки нужных данных
+     */
+    public void sort(Comparator<E> c) {
+        ensureWritable();
+        for (int i = size / 2 - 1; i >= 0; i--) {
+            siftDown(i, size, c);
+        }
+        for (int end = size - 1; end > 0; end--) {
+            swap(0, end);
+            siftDown(0, end, c);
+        }
+    }
+
+    /**
+     * Освобождает всю память вне кучи (для отображенного списка - снимает отображение файла).
+     * Повторный вызов ничего не делает.
+     */
+    @Override
+    public void close() {
+        if (closed) return;
+        closed = true;
+        for (int i = 0; i < chunkCount; i++) {
+            DirectMemory.free(chunks[i]);
+            chunks[i] = null;
+        }
+        chunkCount = 0;
+        size = 0;
+    }
+
+    /**
+     * @return {@code true}, если список отображен из файла и доступен только для чтения
+     */
+    public boolean isReadOnly() {
+        return readOnly;
+    }
+
+    /**
+     * @return {@code true}, если память списка уже освобождена
+     */
+    public boolean isClosed() {
+        return closed;
+    }
+
+    private void siftDown(int i, int n, RecordComparator c) {
+        int child;
+        while ((child = 2 * i + 1) < n) {
+            if (child + 1 < n && compare(child, child + 1, c) < 0) {
+                child++;
+            }
+            if (compare(i, child, c) >= 0) {
+                return;
+            }
+            swap(i, child);
+            i = child;
+        }
+    }
+
+    private int compare(int i, int j, RecordComparator c) {
+        return c.compare(chunk(i), offset(i), chunk(j), offset(j));
+    }
+
+    /**
+     * Просеивание с "дыркой": элемент {@code i} декодируется один раз, его байты держатся в {@code scratch2},
+     * большие потомки поднимаются на его место, и записывается он только в конечную позицию.
+     */
+    private void siftDown(int i, int n, Comparator<E> c) {
+        chunk(i).get(offset(i), scratch2);
+        E x = codec.decode(chunk(i), offset(i));
+        int child;
+        while ((child = 2 * i + 1) < n) {
+            E larger = codec.decode(chunk(child), offset(child));
+            if (child + 1 < n) {
+                E right = codec.decode(chunk(child + 1), offset(child + 1));
+                if (c.compare(larger, right) < 0) {
+                    larger = right;
+                    child++;
+                }
+            }
+            if (c.compare(x, larger) >= 0) {
+                break;
+            }
+            move(child, i);
+            i = child;
+        }
+        chunk(i).put(offset(i), scratch2);
+    }
+
+    private void swap(int i, int j) {
+        ByteBuffer ci = chunk(i);
+        ByteBuffer cj = chunk(j);
+        int oi = offset(i);
+        int oj = offset(j);
+        ci.get(oi, scratch);
+        cj.get(oj, scratch2);
+        ci.put(oi, scratch2);
+        cj.put(oj, scratch);
+    }
+
+    /**
+     * Копирует запись с индексом {@code from} на место записи {@code to}.
+     */
+    private void move(int from, int to) {
+        chunk(from).get(offset(from), scratch);
+        chunk(to).put(offset(to), scratch);
+    }
+
+    /**
+     * @return количество элементов в одном блоке
+     */
+    int chunkElements() {
+        return chunkMask + 1;
+    }
+
+    /**
+     * @return количество выделенных блоков
+     */
+    int chunkCount() {
+        return chunkCount;
+    }
+
+    /**
+     * @return блок памяти с указанным номером (без копирования)
+     */
+    ByteBuffer chunkAt(int chunkIndex) {
+        return chunks[chunkIndex];
+    }
+
+    private ByteBuffer chunk(int index) {
+        return chunks[index >>> chunkShift];
+    }
+
+    private int offset(int index) {
+        return (index & chunkMask) * width;
+    }
+
+    /**
+     * Выделяет блоки, пока емкость меньше {@code minCapacity}.
+     */
+    private void ensureCapacity(int minCapacity) {
+        if (minCapacity < 0) {
+            throw new OutOfMemoryError("required list size too large");
+        }
+        while (getCapacity() < minCapacity) {
+            if (chunkCount == chunks.length) {
+                chunks = Arrays.copyOf(chunks, chunkCount * 2);
+            }
+            try {
+                chunks[chunkCount] = DirectMemory.allocate((chunkMask + 1) * width);
+            } catch (OutOfMemoryError e) {
+                OutOfMemoryError error = new OutOfMemoryError("direct memory limit of " + maxOffHeapBytes()
+                        + " bytes reached; raise -XX:MaxDirectMemorySize (defaults to -Xmx)");
+                error.initCause(e);
+                throw error;
+            }
+            chunkCount++;
+        }
+    }
+
+    private void ensureWritable() {
+        ensureOpen();
+        if (readOnly) {
+            throw new UnsupportedOperationException("list is read-only");
+        }
+    }
+
+    private void ensureOpen() {
+        if (closed) {
+            throw new IllegalStateException("list is closed");
+        }
+    }
+
+    @Override
+    public String toString() {
+        ensureOpen();
+        StringBuilder sb = new StringBuilder("[");
+        for (int i = 0; i < size; i++) {
+            if (i > 0) sb.append(", ");
+            sb.append(codec.decode(chunk(i), offset(i)));
+        }
+        return sb.append(']').toString();
+    }
+}
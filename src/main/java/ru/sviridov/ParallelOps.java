@@ -0,0 +1,226 @@
+package ru.sviridov;
+
+import java.util.Objects;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.RecursiveTask;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BinaryOperator;
+import java.util.function.Consumer;
+import java.util.function.UnaryOperator;
+
+/**
+ * Параллельные массовые операции над диапазоном массива на основе {@link ForkJoinPool}:
+ * поиск, замена, обход, свертка и префиксная свертка.
+ * <p>Диапазон делится пополам, пока части больше порога; части не больше порога обрабатываются
+ * последовательно. Если весь диапазон не больше порога, пул не используется.
+ * <p>Класс служебный и используется только внутри пакета.
+ *
+ * @author Yuriy Sviridov
+ * @since 0.6
+ */
+final class ParallelOps {
+
+    private ParallelOps() {
+    }
+
+    /**
+     * Обработчик части диапазона {@code [from, to)}.
+     */
+    @FunctionalInterface
+    private interface RangeBody {
+        void run(int from, int to);
+    }
+
+    /**
+     * Ищет наименьший индекс элемента, равного {@code o}, в диапазоне {@code [from, to)}.
+     * Части правее уже найденного совпадения не просматриваются.
+     *
+     * @return индекс первого вхождения или -1
+     */
+    static int indexOf(Object[] es, int from, int to, Object o, int threshold) {
+        AtomicInteger found = new AtomicInteger(to);
+        run(from, to, threshold, (lo, hi) -> {
+            if (lo >= found.get()) {
+                return;
+            }
+            for (int i = lo; i < hi; i++) {
+                if (Objects.equals(o, es[i])) {
+                    int current;
+                    while (i < (current = found.get()) && !found.compareAndSet(current, i)) {
+                        // повторяем, пока другой поток не записал меньший индекс
+                    }
+                    return;
+                }
+            }
+        });
+        int index = found.get();
+        return index < to ? index : -1;
+    }
+
+    /**
+     * Заменяет каждый элемент диапазона результатом {@code operator}.
+     */
+    @SuppressWarnings("unchecked")
+    static <E> void replaceAll(Object[] es, int from, int to, UnaryOperator<E> operator, int threshold) {
+        run(from, to, threshold, (lo, hi) -> {
+            for (int i = lo; i < hi; i++) {
+                es[i] = operator.apply((E) es[i]);
+            }
+        });
+    }
+
+    /**
+     * Выполняет действие для каждого элемента диапазона; порядок вызовов не определен.
+     */
+    @SuppressWarnings("unchecked")
+    static <E> void forEach(Object[] es, int from, int to, Consumer<? super E> action, int threshold) {
+        run(from, to, threshold, (lo, hi) -> {
+            for (int i = lo; i < hi; i++) {
+                action.accept((E) es[i]);
+            }
+        });
+    }
+
+    /**
+     * Сворачивает диапазон ассоциативной операцией. Порядок операндов сохраняется,
+     * поэтому операция может быть некоммутативной.
+     *
+     * @param identity нейтральный элемент операции
+     */
+    @SuppressWarnings("unchecked")
+    static <E> E reduce(Object[] es, int from, int to, E identity, BinaryOperator<E> op, int threshold) {
+        if (to - from <= threshold) {
+            return reduceSequential((E[]) es, from, to, identity, op);
+        }
+        return ForkJoinPool.commonPool().invoke(new ReduceTask<>((E[]) es, from, to, identity, op, threshold));
+    }
+
+    /**
+     * Заменяет элементы диапазона накопленной сверткой: {@code es[i] = es[from] op ... op es[i]}.
+     * <p>Два прохода по блокам размером не меньше порога: сначала каждый блок сворачивается независимо,
+     * затем последовательно вычисляются накопленные значения на границах блоков, и они параллельно
+     * применяются к блокам начиная со второго. Операция должна быть ассоциативной.
+     */
+    @SuppressWarnings("unchecked")
+    static <E> void prefix(Object[] es, int from, int to, BinaryOperator<E> op, int threshold) {
+        int n = to - from;
+        if (n <= threshold) {
+            prefixSequential((E[]) es, from, to, op);
+            return;
+        }
+        int parts = ForkJoinPool.getCommonPoolParallelism() * 4;
+        int blockSize = Math.max(threshold, (n + parts - 1) / parts);
+        int blocks = (n + blockSize - 1) / blockSize;
+        run(0, blocks, 1, (lo, hi) -> {
+            for (int b = lo; b < hi; b++) {
+                int start = from + b * blockSize;
+                prefixSequential((E[]) es, start, Math.min(start + blockSize, to), op);
+            }
+        });
+        Object[] carries = new Object[blocks];
+        for (int b = 1; b < blocks; b++) {
+            E last = (E) es[from + b * blockSize - 1];
+            carries[b] = b == 1 ? last : op.apply((E) carries[b - 1], last);
+        }
+        run(1, blocks, 1, (lo, hi) -> {
+            for (int b = lo; b < hi; b++) {
+                E carry = (E) carries[b];
+                int start = from + b * blockSize;
+                int end = Math.min(start + blockSize, to);
+                for (int i = start; i < end; i++) {
+                    es[i] = op.apply(carry, (E) es[i]);
+                }
+            }
+        });
+    }
+
+    private static <E> E reduceSequential(E[] es, int from, int to, E identity, BinaryOperator<E> op) {
+        E result = identity;
+        for (int i = from; i < to; i++) {
+            result = op.apply(result, es[i]);
+        }
+        return result;
+    }
+
+    private static <E> void prefixSequential(E[] es, int from, int to, BinaryOperator<E> op) {
+        for (int i = from + 1; i < to; i++) {
+            es[i] = op.apply(es[i - 1], es[i]);
+        }
+    }
+
+    /**
+     * Выполняет обработчик над диапазоном: последовательно, если диапазон не больше порога, иначе в общем пуле.
+     */
+    private static void run(int from, int to, int threshold, RangeBody body) {
+        if (to - from <= threshold) {
+            if (from < to) {
+                body.run(from, to);
+            }
+            return;
+        }
+        ForkJoinPool.commonPool().invoke(new RangeTask(from, to, threshold, body));
+    }
+
+    /**
+     * Задача обработки одного диапазона: делит его пополам до порога (задачи не сериализуются).
+     */
+    @SuppressWarnings("serial")
+    private static final class RangeTask extends RecursiveAction {
+        private final int from;
+        private final int to;
+        private final int threshold;
+        private final RangeBody body;
+
+        RangeTask(int from, int to, int threshold, RangeBody body) {
+            this.from = from;
+            this.to = to;
+            this.threshold = threshold;
+            this.body = body;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from <= threshold) {
+                body.run(from, to);
+                return;
+            }
+            int mid = (from + to) >>> 1;
+            invokeAll(new RangeTask(from, mid, threshold, body), new RangeTask(mid, to, threshold, body));
+        }
+    }
+
+    /**
+     * Задача свертки одного диапазона (задачи не сериализуются).
+     */
+    @SuppressWarnings("serial")
+    private static final class ReduceTask<E> extends RecursiveTask<E> {
+        private final E[] es;
+        private final int from;
+        private final int to;
+        private final E identity;
+        private final BinaryOperator<E> op;
+        private final int threshold;
+
+        ReduceTask(E[] es, int from, int to, E identity, BinaryOperator<E> op, int threshold) {
+            this.es = es;
+            this.from = from;
+            this.to = to;
+            this.identity = identity;
+            this.op = op;
+            this.threshold = threshold;
+        }
+
+        @Override
+        protected E compute() {
+            if (to - from <= threshold) {
+                return reduceSequential(es, from, to, identity, op);
+            }
+            int mid = (from + to) >>> 1;
+            ReduceTask<E> right = new ReduceTask<>(es, mid, to, identity, op, threshold);
+            right.fork();
+            E left = new ReduceTask<>(es, from, mid, identity, op, threshold).compute();
+            return op.apply(left, right.join());
+        }
+    }
+}
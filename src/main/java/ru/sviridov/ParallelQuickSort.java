@@ -0,0 +1,84 @@
+package ru.sviridov;
+
+import java.util.Comparator;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Параллельная быстрая сортировка на основе {@link ForkJoinPool}.
+ * <p>Диапазон массива разбивается по опорному элементу так же, как в последовательной сортировке
+ * {@link IntroSort}, после чего левая и правая части сортируются как отдельные задачи.
+ * Части, размер которых меньше порога, сортируются последовательно в текущем потоке,
+ * а при исчерпании допустимой глубины разбиения - пирамидальной сортировкой.
+ * <p>Класс служебный и используется только внутри пакета.
+ *
+ * @author Yuriy Sviridov
+ * @since 0.6
+ */
+final class ParallelQuickSort {
+
+    private ParallelQuickSort() {
+    }
+
+    /**
+     * Сортирует диапазон массива в общем пуле {@link ForkJoinPool#commonPool()}.
+     *
+     * @param a         сортируемый массив
+     * @param first     первый индекс диапазона (включительно)
+     * @param last      последний индекс диапазона (включительно)
+     * @param c         компаратор, задающий порядок
+     * @param threshold размер диапазона, ниже которого сортировка идет последовательно
+     * @param <E>       тип элементов
+     */
+    static <E> void sort(E[] a, int first, int last, Comparator<? super E> c, int threshold) {
+        if (first >= last) return;
+        ForkJoinPool.commonPool().invoke(
+                new SortTask<>(a, first, last, c, threshold, IntroSort.depthLimit(last - first + 1)));
+    }
+
+    /**
+     * Задача сортировки одного диапазона (задачи не сериализуются).
+     */
+    @SuppressWarnings("serial")
+    private static final class SortTask<E> extends RecursiveAction {
+        private final E[] a;
+        private final int first;
+        private final int last;
+        private final Comparator<? super E> c;
+        private final int threshold;
+        private final int depth;
+
+        SortTask(E[] a, int first, int last, Comparator<? super E> c, int threshold, int depth) {
+            this.a = a;
+            this.first = first;
+            this.last = last;
+            this.c = c;
+            this.threshold = threshold;
+            this.depth = depth;
+        }
+
+        @Override
+        protected void compute() {
+            if (last - first + 1 <= threshold) {
+                IntroSort.sort(a, first, last, c, depth);
+                return;
+            }
+            if (depth == 0) {
+                IntroSort.heapSort(a, first, last, c);
+                return;
+            }
+            long bounds = IntroSort.partition(a, first, last, c);
+            int lt = IntroSort.lowerBound(bounds);
+            int gt = IntroSort.upperBound(bounds);
+            SortTask<E> left = first < lt - 1 ? new SortTask<>(a, first, lt - 1, c, threshold, depth - 1) : null;
+            SortTask<E> right = gt + 1 < last ? new SortTask<>(a, gt + 1, last, c, threshold, depth - 1) : null;
+            if (left != null && right != null) {
+                invokeAll(left, right);
+            } else if (left != null) {
+                left.compute();
+            } else if (right != null) {
+                right.compute();
+            }
+        }
+    }
+}
@@ -0,0 +1,113 @@
+package ru.sviridov;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Кодеки упакованных чисел, возвращаемые {@link ElementCodec#ints()}, {@link ElementCodec#longs()}
+ * и {@link ElementCodec#doubles()}. Поиск и сортировка сравнивают значения прямо в буфере, без упаковки.
+ *
+ * @author Yuriy Sviridov
+ * @since 0.6
+ */
+final class PrimitiveCodecs {
+
+    static final ElementCodec<Integer> INT = new ElementCodec<>() {
+        @Override
+        public String id() {
+            return "int";
+        }
+
+        @Override
+        public int width() {
+            return Integer.BYTES;
+        }
+
+        @Override
+        public void encode(Integer e, ByteBuffer buffer, int offset) {
+            buffer.putInt(offset, e);
+        }
+
+        @Override
+        public Integer decode(ByteBuffer buffer, int offset) {
+            return buffer.getInt(offset);
+        }
+
+        @Override
+        public boolean matches(Object o, ByteBuffer buffer, int offset) {
+            return o instanceof Integer && (Integer) o == buffer.getInt(offset);
+        }
+
+        @Override
+        public RecordComparator encodedOrder() {
+            return (a, offsetA, b, offsetB) -> Integer.compare(a.getInt(offsetA), b.getInt(offsetB));
+        }
+    };
+
+    static final ElementCodec<Long> LONG = new ElementCodec<>() {
+        @Override
+        public String id() {
+            return "long";
+        }
+
+        @Override
+        public int width() {
+            return Long.BYTES;
+        }
+
+        @Override
+        public void encode(Long e, ByteBuffer buffer, int offset) {
+            buffer.putLong(offset, e);
+        }
+
+        @Override
+        public Long decode(ByteBuffer buffer, int offset) {
+            return buffer.getLong(offset);
+        }
+
+        @Override
+        public boolean matches(Object o, ByteBuffer buffer, int offset) {
+            return o instanceof Long && (Long) o == buffer.getLong(offset);
+        }
+
+        @Override
+        public RecordComparator encodedOrder() {
+            return (a, offsetA, b, offsetB) -> Long.compare(a.getLong(offsetA), b.getLong(offsetB));
+        }
+    };
+
+    static final ElementCodec<Double> DOUBLE = new ElementCodec<>() {
+        @Override
+        public String id() {
+            return "double";
+        }
+
+        @Override
+        public int width() {
+            return Double.BYTES;
+        }
+
+        @Override
+        public void encode(Double e, ByteBuffer buffer, int offset) {
+            buffer.putDouble(offset, e);
+        }
+
+        @Override
+        public Double decode(ByteBuffer buffer, int offset) {
+            return buffer.getDouble(offset);
+        }
+
+        @Override
+        public boolean matches(Object o, ByteBuffer buffer, int offset) {
+            return o instanceof Double
+                    && Double.doubleToLongBits((Double) o) == Double.doubleToLongBits(buffer.getDouble(offset));
+        }
+
+        @Override
+        public RecordComparator encodedOrder() {
+            return (a, offsetA, b, offsetB) -> Double.compare(a.getDouble(offsetA), b.getDouble(offsetB));
+        }
+    };
+
+    private PrimitiveCodecs() {
+    }
+}
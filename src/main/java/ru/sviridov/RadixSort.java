@@ -0,0 +1,119 @@
+package ru.sviridov;
+
+import java.util.Arrays;
+
+/**
+ * Поразрядная сортировка (LSD radix sort) массивов примитивов {@code int} и {@code long}.
+ * <p>Ключи сортируются по байтам, начиная с младшего; у старшего байта инвертируется знаковый бит,
+ * чтобы отрицательные числа шли раньше положительных. Проход пропускается, если у всех ключей
+ * одинаковый байт в этой позиции. Сложность - O(n) при дополнительном буфере размера n.
+ * <p>Короткие диапазоны сортируются {@link Arrays#sort(int[], int, int)} (dual-pivot quicksort),
+ * которая на них быстрее. Класс служебный и используется только внутри пакета.
+ *
+ * @author Yuriy Sviridov
+ * @since 0.6
+ */
+final class RadixSort {
+
+    /**
+     * диапазоны короче этого значения сортируются dual-pivot quicksort
+     */
+    static final int RADIX_THRESHOLD = 1 << 12;
+
+    private static final int RADIX = 256;
+
+    private RadixSort() {
+    }
+
+    /**
+     * Сортирует диапазон {@code [from, to)} массива {@code int}.
+     */
+    static void sort(int[] a, int from, int to) {
+        int n = to - from;
+        if (n < RADIX_THRESHOLD) {
+            Arrays.sort(a, from, to);
+            return;
+        }
+        int[] src = a;
+        int srcOff = from;
+        int[] dst = new int[n];
+        int dstOff = 0;
+        int[] count = new int[RADIX];
+        for (int shift = 0; shift < Integer.SIZE; shift += 8) {
+            int flip = shift == Integer.SIZE - 8 ? 0x80 : 0;
+            Arrays.fill(count, 0);
+            for (int i = 0; i < n; i++) {
+                count[((src[srcOff + i] >>> shift) & 0xFF) ^ flip]++;
+            }
+            if (count[((src[srcOff] >>> shift) & 0xFF) ^ flip] == n) {
+                continue; // все ключи имеют одинаковый байт - проход ничего не меняет
+            }
+            toOffsets(count);
+            for (int i = 0; i < n; i++) {
+                int value = src[srcOff + i];
+                dst[dstOff + count[((value >>> shift) & 0xFF) ^ flip]++] = value;
+            }
+            int[] swap = src;
+            src = dst;
+            dst = swap;
+            int swapOff = srcOff;
+            srcOff = dstOff;
+            dstOff = swapOff;
+        }
+        if (src != a) {
+            System.arraycopy(src, srcOff, a, from, n);
+        }
+    }
+
+    /**
+     * Сортирует диапазон {@code [from, to)} массива {@code long}.
+     */
+    static void sort(long[] a, int from, int to) {
+        int n = to - from;
+        if (n < RADIX_THRESHOLD) {
+            Arrays.sort(a, from, to);
+            return;
+        }
+        long[] src = a;
+        int srcOff = from;
+        long[] dst = new long[n];
+        int dstOff = 0;
+        int[] count = new int[RADIX];
+        for (int shift = 0; shift < Long.SIZE; shift += 8) {
+            int flip = shift == Long.SIZE - 8 ? 0x80 : 0;
+            Arrays.fill(count, 0);
+            for (int i = 0; i < n; i++) {
+                count[(int) ((src[srcOff + i] >>> shift) & 0xFF) ^ flip]++;
+            }
+            if (count[(int) ((src[srcOff] >>> shift) & 0xFF) ^ flip] == n) {
+                continue;
+            }
+            toOffsets(count);
+            for (int i = 0; i < n; i++) {
+                long value = src[srcOff + i];
+                dst[dstOff + count[(int) ((value >>> shift) & 0xFF) ^ flip]++] = value;
+            }
+            long[] swap = src;
+            src = dst;
+            dst = swap;
+            int swapOff = srcOff;
+            srcOff = dstOff;
+            dstOff = swapOff;
+        }
+        if (src != a) {
+            System.arraycopy(src, srcOff, a, from, n);
+        }
+    }
+
+    /**
+     * Превращает гистограмму байтов в начальные позиции корзин.
+     */
+    private static void toOffsets(int[] count) {
+        int sum = 0;
+        for (int i = 0; i < RADIX; i++) {
+            int c = count[i];
+            count[i] = sum;
+            sum += c;
+        }
+    }
+}
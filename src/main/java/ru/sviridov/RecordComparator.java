@@ -0,0 +1,25 @@
+package ru.sviridov;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Сравнение двух закодированных записей прямо в буферах, без сборки объектов.
+ * <p>Используется сортировкой {@link OffHeapCustomArrayList#sort(RecordComparator)}: на сотнях миллионов
+ * записей обычный {@link java.util.Comparator} создает два объекта на каждое сравнение, а этот - ни одного.
+ * Готовые сравнения дают {@link ElementCodec#encodedOrder()} и кодеки записей (например, {@link CatCodec#byWeight()}).
+ *
+ * @author Yuriy Sviridov
+ * @since 0.6
+ */
+@FunctionalInterface
+public interface RecordComparator {
+
+    /**
+     * @param a       буфер первой записи
+     * @param offsetA смещение первой записи
+     * @param b       буфер второй записи
+     * @param offsetB смещение второй записи
+     * @return отрицательное число, ноль или положительное число, если первая запись меньше, равна или больше второй
+     */
+    int compare(ByteBuffer a, int offsetA, ByteBuffer b, int offsetB);
+}
@@ -0,0 +1,192 @@
+package ru.sviridov;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Function;
+import java.util.function.ToIntFunction;
+
+/**
+ * Схема разложения записей на колонки для {@link ColumnarCustomArrayList}.
+ * <p>Колонки бывают двух видов: целочисленные ({@code int}) и строковые - строки хранятся словарем,
+ * а в колонке лежат их коды. Колонки нумеруются в порядке объявления. Обратная сборка записи
+ * (материализация) выполняется фабрикой по {@link Row} - представлению одной строки таблицы.
+ * <pre>{@code
+ * RecordSchema<Cat> schema = RecordSchema.<Cat>builder()
+ *         .stringColumn("name", Cat::getName)
+ *         .intColumn("weight", Cat::getWeight)
+ *         .intColumn("maxSpeed", Cat::getMaxSpeed)
+ *         .build(row -> new Cat(row.getString(0), row.getInt(1), row.getInt(2)));
+ * }</pre>
+ * Готовая схема для {@link Cat} - {@link #cat()}.
+ *
+ * @param <R> тип записей
+ * @author Yuriy Sviridov
+ * @since 0.6
+ */
+public final class RecordSchema<R> {
+
+    private static final RecordSchema<Cat> CAT = RecordSchema.<Cat>builder()
+            .stringColumn("name", Cat::getName)
+            .intColumn("weight", Cat::getWeight)
+            .intColumn("maxSpeed", Cat::getMaxSpeed)
+            .build(row -> new Cat(row.getString(0), row.getInt(1), row.getInt(2)));
+
+    /**
+     * Строка таблицы, из которой фабрика собирает запись.
+     */
+    public interface Row {
+        /**
+         * @param column номер целочисленной колонки
+         * @return значение колонки
+         */
+        int getInt(int column);
+
+        /**
+         * @param column номер строковой колонки
+         * @return значение колонки
+         */
+        String getString(int column);
+    }
+
+    private final String[] names;
+    private final ToIntFunction<R>[] intGetters;
+    private final Function<R, String>[] stringGetters;
+    private final Function<Row, R> factory;
+    private final Map<String, Integer> columnIndexes = new HashMap<>();
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private RecordSchema(Builder<R> builder, Function<Row, R> factory) {
+        int n = builder.names.size();
+        this.names = builder.names.toArray(new String[0]);
+        this.intGetters = builder.intGetters.toArray(new ToIntFunction[n]);
+        this.stringGetters = builder.stringGetters.toArray(new Function[n]);
+        this.factory = factory;
+        for (int i = 0; i < n; i++) {
+            columnIndexes.put(names[i], i);
+        }
+    }
+
+    /**
+     * @param <R> тип записей
+     * @return построитель схемы
+     */
+    public static <R> Builder<R> builder() {
+        return new Builder<>();
+    }
+
+    /**
+     * @return схема для {@link Cat}: колонки {@code name} (строковая), {@code weight} и {@code maxSpeed}
+     */
+    public static RecordSchema<Cat> cat() {
+        return CAT;
+    }
+
+    /**
+     * @return число колонок
+     */
+    public int columnCount() {
+        return names.length;
+    }
+
+    /**
+     * @param column номер колонки
+     * @return имя колонки
+     */
+    public String columnName(int column) {
+        return names[column];
+    }
+
+    /**
+     * @param name имя колонки
+     * @return номер колонки
+     * @throws IllegalArgumentException если колонки с таким именем нет
+     */
+    public int columnIndex(String name) {
+        Integer index = columnIndexes.get(name);
+        if (index == null) {
+            throw new IllegalArgumentException("unknown column " + name);
+        }
+        return index;
+    }
+
+    /**
+     * @param column номер колонки
+     * @return {@code true}, если колонка строковая (хранится словарем)
+     */
+    public boolean isStringColumn(int column) {
+        return stringGetters[column] != null;
+    }
+
+    int extractInt(int column, R record) {
+        return intGetters[column].applyAsInt(record);
+    }
+
+    String extractString(int column, R record) {
+        return stringGetters[column].apply(record);
+    }
+
+    R materialize(Row row) {
+        return factory.apply(row);
+    }
+
+    /**
+     * Построитель схемы: колонки добавляются по порядку, {@link #build(Function)} задает фабрику записей.
+     *
+     * @param <R> тип записей
+     */
+    public static final class Builder<R> {
+        private final List<String> names = new ArrayList<>();
+        private final List<ToIntFunction<R>> intGetters = new ArrayList<>();
+        private final List<Function<R, String>> stringGetters = new ArrayList<>();
+
+        private Builder() {
+        }
+
+        /**
+         * Добавляет целочисленную колонку.
+         *
+         * @param name   имя колонки
+         * @param getter значение колонки для записи
+         * @return этот построитель
+         */
+        public Builder<R> intColumn(String name, ToIntFunction<R> getter) {
+            return column(name, Objects.requireNonNull(getter, "getter"), null);
+        }
+
+        /**
+         * Добавляет строковую колонку со словарным кодированием (значения могут быть {@code null}).
+         *
+         * @param name   имя колонки
+         * @param getter значение колонки для записи
+         * @return этот построитель
+         */
+        public Builder<R> stringColumn(String name, Function<R, String> getter) {
+            return column(name, null, Objects.requireNonNull(getter, "getter"));
+        }
+
+        /**
+         * @param factory фабрика, собирающая запись по строке таблицы
+         * @return схема
+         * @throws IllegalStateException если не объявлено ни одной колонки
+         */
+        public RecordSchema<R> build(Function<Row, R> factory) {
+            if (names.isEmpty()) {
+                throw new IllegalStateException("schema has no columns");
+            }
+            return new RecordSchema<>(this, Objects.requireNonNull(factory, "factory"));
+        }
+
+        private Builder<R> column(String name, ToIntFunction<R> intGetter, Function<R, String> stringGetter) {
+            if (names.contains(Objects.requireNonNull(name, "name"))) {
+                throw new IllegalArgumentException("duplicate column " + name);
+            }
+            names.add(name);
+            intGetters.add(intGetter);
+            stringGetters.add(stringGetter);
+            return this;
+        }
+    }
+}
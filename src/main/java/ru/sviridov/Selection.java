@@ -0,0 +1,198 @@
+package ru.sviridov;
+
+import java.util.Comparator;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * Выбор без полной сортировки: k-я порядковая статистика (интроселект) и k наибольших элементов
+ * (ограниченная куча, последовательно или в {@link ForkJoinPool}).
+ * <p>Интроселект использует то же трехчастное разбиение, что и {@link IntroSort}, но после разбиения
+ * продолжает только в той части, где лежит k-й элемент: в среднем O(n). При слишком большом числе
+ * разбиений диапазон досортировывается пирамидальной сортировкой, поэтому худший случай - O(n log(n)).
+ * <p>Класс служебный и используется только внутри пакета.
+ *
+ * @author Yuriy Sviridov
+ * @since 0.6
+ */
+final class Selection {
+
+    private Selection() {
+    }
+
+    /**
+     * Переставляет диапазон так, что на месте {@code k} оказывается элемент, который стоял бы там после сортировки,
+     * слева от него - не большие, справа - не меньшие элементы.
+     *
+     * @param a     массив
+     * @param first первый индекс диапазона (включительно)
+     * @param last  последний индекс диапазона (включительно)
+     * @param k     индекс искомой порядковой статистики, {@code first <= k <= last}
+     * @param c     компаратор
+     * @param <E>   тип элементов
+     */
+    static <E> void select(E[] a, int first, int last, int k, Comparator<? super E> c) {
+        int depth = IntroSort.depthLimit(last - first + 1);
+        while (last - first + 1 > IntroSort.INSERTION_SORT_THRESHOLD) {
+            if (depth-- == 0) {
+                IntroSort.heapSort(a, first, last, c);
+                return;
+            }
+            long bounds = IntroSort.partition(a, first, last, c);
+            int lt = IntroSort.lowerBound(bounds);
+            int gt = IntroSort.upperBound(bounds);
+            if (k < lt) {
+                last = lt - 1;
+            } else if (k > gt) {
+                first = gt + 1;
+            } else {
+                return;
+            }
+        }
+        IntroSort.insertionSort(a, first, last, c);
+    }
+
+    /**
+     * Возвращает k наибольших элементов диапазона {@code [from, to)} по убыванию. Массив не меняется.
+     * Используется ограниченная куча из k элементов с наименьшим в корне: O(n log(k)).
+     *
+     * @param threshold размер части, начиная с которого она делится на параллельные задачи;
+     *                  {@link Integer#MAX_VALUE} - последовательно
+     */
+    static <E> Object[] topK(E[] a, int from, int to, int k, Comparator<? super E> c, int threshold) {
+        BoundedHeap<E> heap;
+        if (to - from <= threshold) {
+            heap = new BoundedHeap<>(k, c);
+            heap.offerAll(a, from, to);
+        } else {
+            heap = ForkJoinPool.commonPool().invoke(new TopKTask<>(a, from, to, k, c, threshold));
+        }
+        return heap.drainDescending();
+    }
+
+    /**
+     * Куча из не более чем k наибольших из предложенных элементов; в корне - наименьший из них.
+     */
+    private static final class BoundedHeap<E> {
+        private final Object[] heap;
+        private final Comparator<? super E> c;
+        private int size;
+
+        BoundedHeap(int k, Comparator<? super E> c) {
+            this.heap = new Object[k];
+            this.c = c;
+        }
+
+        void offerAll(E[] a, int from, int to) {
+            for (int i = from; i < to; i++) {
+                offer(a[i]);
+            }
+        }
+
+        @SuppressWarnings("unchecked")
+        void offer(E e) {
+            if (size < heap.length) {
+                siftUp(size++, e);
+            } else if (heap.length > 0 && c.compare(e, (E) heap[0]) > 0) {
+                siftDown(0, e);
+            }
+        }
+
+        /**
+         * Добавляет элементы другой кучи (после этого та куча не используется).
+         */
+        @SuppressWarnings("unchecked")
+        void merge(BoundedHeap<E> other) {
+            for (int i = 0; i < other.size; i++) {
+                offer((E) other.heap[i]);
+            }
+        }
+
+        /**
+         * @return элементы кучи по убыванию; куча после этого пуста
+         */
+        @SuppressWarnings("unchecked")
+        Object[] drainDescending() {
+            Object[] result = new Object[size];
+            for (int i = size - 1; i >= 0; i--) {
+                result[i] = heap[0];
+                E last = (E) heap[--size];
+                heap[size] = null;
+                if (size > 0) {
+                    siftDown(0, last);
+                }
+            }
+            return result;
+        }
+
+        @SuppressWarnings("unchecked")
+        private void siftUp(int i, E e) {
+            while (i > 0) {
+                int parent = (i - 1) >>> 1;
+                E p = (E) heap[parent];
+                if (c.compare(e, p) >= 0) {
+                    break;
+                }
+                heap[i] = p;
+                i = parent;
+            }
+            heap[i] = e;
+        }
+
+        @SuppressWarnings("unchecked")
+        private void siftDown(int i, E e) {
+            int half = size >>> 1;
+            while (i < half) {
+                int child = 2 * i + 1;
+                int right = child + 1;
+                if (right < size && c.compare((E) heap[right], (E) heap[child]) < 0) {
+                    child = right;
+                }
+                if (c.compare(e, (E) heap[child]) <= 0) {
+                    break;
+                }
+                heap[i] = heap[child];
+                i = child;
+            }
+            heap[i] = e;
+        }
+    }
+
+    /**
+     * Задача поиска k наибольших элементов диапазона: части обрабатываются независимо, кучи объединяются.
+     * Задачи не сериализуются.
+     */
+    @SuppressWarnings("serial")
+    private static final class TopKTask<E> extends RecursiveTask<BoundedHeap<E>> {
+        private final E[] a;
+        private final int from;
+        private final int to;
+        private final int k;
+        private final Comparator<? super E> c;
+        private final int threshold;
+
+        TopKTask(E[] a, int from, int to, int k, Comparator<? super E> c, int threshold) {
+            this.a = a;
+            this.from = from;
+            this.to = to;
+            this.k = k;
+            this.c = c;
+            this.threshold = threshold;
+        }
+
+        @Override
+        protected BoundedHeap<E> compute() {
+            if (to - from <= threshold) {
+                BoundedHeap<E> heap = new BoundedHeap<>(k, c);
+                heap.offerAll(a, from, to);
+                return heap;
+            }
+            int mid = (from + to) >>> 1;
+            TopKTask<E> right = new TopKTask<>(a, mid, to, k, c, threshold);
+            right.fork();
+            BoundedHeap<E> heap = new TopKTask<>(a, from, mid, k, c, threshold).compute();
+            heap.merge(right.join());
+            return heap;
+        }
+    }
+}
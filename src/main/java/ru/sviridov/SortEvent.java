@@ -0,0 +1,33 @@
+package ru.sviridov;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * Событие JFR о сортировке {@link CustomArrayList}; записывается, только если включены метрики
+ * ({@link ListMetrics#ENABLED}) и событие {@value #NAME} включено в записи JFR.
+ * <p>Класс служебный и используется только внутри пакета.
+ *
+ * @author Yuriy Sviridov
+ * @since 0.6
+ */
+@Name(SortEvent.NAME)
+@Label("CustomArrayList Sort")
+@Category("CustomArrayList")
+@Description("Sorting of a CustomArrayList")
+final class SortEvent extends Event {
+
+    static final String NAME = "ru.sviridov.Sort";
+
+    @Label("Algorithm")
+    String algorithm;
+
+    @Label("Size")
+    int size;
+
+    @Label("Comparisons")
+    long comparisons;
+}
@@ -0,0 +1,290 @@
+package ru.sviridov;
+
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.Objects;
+
+/**
+ * отсортированный список на основе {@link CustomArrayList}
+ * <p>Элементы всегда упорядочены компаратором, поэтому повторные сортировки не нужны:
+ * <ul>
+ *     <li>{@code insert} вставляет элемент на его место; позиция ищется галопом от конца списка
+ *     (O(log d), где d - расстояние от конца), поэтому добавление почти возрастающих данных дешево;</li>
+ *     <li>{@code binarySearch}, {@code indexOf}, {@code contains}, {@code floor}, {@code ceiling} и
+ *     {@code subRange} работают двоичным поиском за O(log n);</li>
+ *     <li>{@code mergeSorted} вливает уже отсортированную порцию за O(n + m) вместо O((n + m) log(n + m)).</li>
+ * </ul>
+ * <p>Равные элементы хранятся в порядке добавления. Список допускает повторы; {@code null} допустим,
+ * только если его поддерживает компаратор.
+ * <p><strong>Обратите внимание, что эта реализация не синхронизирована.</strong></p>
+ *
+ * @param <E> тип элементов
+ * @author Yuriy Sviridov
+ * @since 0.6
+ */
+public class SortedCustomArrayList<E> implements Iterable<E> {
+
+    private final CustomArrayList<E> list = new CustomArrayList<>();
+
+    private final Comparator<? super E> comparator;
+
+    /**
+     * Создает пустой список, упорядоченный в естественном порядке элементов
+     * (элементы должны реализовывать {@link Comparable}).
+     */
+    @SuppressWarnings("unchecked")
+    public SortedCustomArrayList() {
+        this((Comparator<? super E>) Comparator.naturalOrder());
+    }
+
+    /**
+     * Создает пустой список, упорядоченный компаратором.
+     *
+     * @param comparator компаратор, задающий порядок элементов
+     */
+    public SortedCustomArrayList(Comparator<? super E> comparator) {
+        this.comparator = Objects.requireNonNull(comparator, "comparator");
+    }
+
+    /**
+     * @return компаратор, задающий порядок элементов
+     */
+    public Comparator<? super E> comparator() {
+        return comparator;
+    }
+
+    /**
+     * Вставляет элемент на его место (после равных ему элементов).
+     *
+     * @param e элемент для вставки
+     * @return индекс вставленного элемента
+     */
+    public int insert(E e) {
+        int pos = gallopInsertionPoint(e);
+        if (pos == list.size()) {
+            list.add(e);
+        } else {
+            list.add(pos, e);
+        }
+        return pos;
+    }
+
+    /**
+     * Вливает в список отсортированный массив за один проход: O(n + m), массив увеличивается не больше одного раза.
+     * Слияние идет с конца на месте, поэтому дополнительная память не нужна. Элементы порции
+     * ставятся после равных им элементов списка.
+     *
+     * @param sorted элементы, отсортированные тем же компаратором
+     * @throws IllegalArgumentException если порция не отсортирована
+     */
+    @SuppressWarnings("unchecked")
+    public void mergeSorted(E[] sorted) {
+        for (int i = 1; i < sorted.length; i++) {
+            if (comparator.compare(sorted[i - 1], sorted[i]) > 0) {
+                throw new IllegalArgumentException("batch is not sorted at index " + i);
+            }
+        }
+        int n = list.size();
+        int m = sorted.length;
+        if (m == 0) {
+            return;
+        }
+        list.addAll(sorted);
+        if (n == 0 || comparator.compare(list.get(n - 1), sorted[0]) <= 0) {
+            return;
+        }
+        Object[] es = list.writableArray();
+        int i = n - 1;
+        int j = m - 1;
+        int k = n + m - 1;
+        while (j >= 0) {
+            if (i >= 0 && comparator.compare((E) es[i], sorted[j]) > 0) {
+                es[k--] = es[i--];
+            } else {
+                es[k--] = sorted[j--];
+            }
+        }
+    }
+
+    /**
+     * Ищет элемент двоичным поиском.
+     *
+     * @param key искомый элемент
+     * @return индекс первого равного элемента; если его нет - {@code -(точка вставки) - 1}, как в
+     * {@link java.util.Arrays#binarySearch(Object[], Object, Comparator)}
+     */
+    public int binarySearch(E key) {
+        int pos = lowerBound(key);
+        if (pos < list.size() && comparator.compare(list.get(pos), key) == 0) {
+            return pos;
+        }
+        return -(pos + 1);
+    }
+
+    /**
+     * @param e элемент для поиска
+     * @return индекс первого равного элемента или -1 (за O(log n))
+     */
+    public int indexOf(E e) {
+        return Math.max(binarySearch(e), -1);
+    }
+
+    /**
+     * @param e элемент для поиска
+     * @return {@code true}, если в списке есть равный элемент
+     */
+    public boolean contains(E e) {
+        return binarySearch(e) >= 0;
+    }
+
+    /**
+     * @param e граница
+     * @return наибольший элемент, не больший {@code e}, или {@code null}, если такого нет
+     */
+    public E floor(E e) {
+        int pos = upperBound(e, 0, list.size()) - 1;
+        return pos >= 0 ? list.get(pos) : null;
+    }
+
+    /**
+     * @param e граница
+     * @return наименьший элемент, не меньший {@code e}, или {@code null}, если такого нет
+     */
+    public E ceiling(E e) {
+        int pos = lowerBound(e);
+        return pos < list.size() ? list.get(pos) : null;
+    }
+
+    /**
+     * Возвращает копию элементов из полуинтервала {@code [from, to)} в порядке списка.
+     *
+     * @param from нижняя граница (включительно)
+     * @param to   верхняя граница (не включительно)
+     * @return новый список с элементами диапазона
+     * @throws IllegalArgumentException если {@code from} больше {@code to}
+     */
+    public CustomArrayList<E> subRange(E from, E to) {
+        if (comparator.compare(from, to) > 0) {
+            throw new IllegalArgumentException("from > to");
+        }
+        int lo = lowerBound(from);
+        int hi = lowerBound(to);
+        CustomArrayList<E> result = new CustomArrayList<>(Math.max(hi - lo, 1));
+        for (int i = lo; i < hi; i++) {
+            result.add(list.get(i));
+        }
+        return result;
+    }
+
+    /**
+     * Удаляет первый элемент, равный указанному (поиск за O(log n)).
+     *
+     * @param e элемент для удаления
+     * @return {@code true} если элемент успешно удален
+     */
+    public boolean remove(E e) {
+        int pos = binarySearch(e);
+        if (pos < 0) {
+            return false;
+        }
+        list.removeRange(pos, pos + 1);
+        return true;
+    }
+
+    /**
+     * Достает элемент по указанному индексу.
+     *
+     * @param index указанный индекс
+     * @return {@code E} элемент по индексу
+     * @throws IndexOutOfBoundsException если указан некорректный индекс
+     */
+    public E get(int index) {
+        return list.get(index);
+    }
+
+    /**
+     * @return {@code int} размер коллекции
+     */
+    public int size() {
+        return list.size();
+    }
+
+    /**
+     * Очищает всю коллекцию.
+     */
+    public void clear() {
+        list.clear();
+    }
+
+    /**
+     * @return неизменяемый снимок текущего содержимого за O(1), см. {@link CustomArrayList#snapshot()}
+     */
+    public CustomArrayListSnapshot<E> snapshot() {
+        return list.snapshot();
+    }
+
+    /**
+     * @return отказоустойчивый итератор по элементам в порядке возрастания
+     */
+    @Override
+    public Iterator<E> iterator() {
+        return list.iterator();
+    }
+
+    @Override
+    public String toString() {
+        return list.toString();
+    }
+
+    /**
+     * Точка вставки после равных элементов: галоп от конца (1, 2, 4, ... шагов), затем двоичный поиск в найденном окне.
+     */
+    private int gallopInsertionPoint(E e) {
+        int n = list.size();
+        if (n == 0 || comparator.compare(list.get(n - 1), e) <= 0) {
+            return n;
+        }
+        // list[hi] > e; ищем lo, для которого list[lo] <= e
+        int hi = n - 1;
+        int step = 1;
+        int lo = hi - step;
+        while (lo >= 0 && comparator.compare(list.get(lo), e) > 0) {
+            hi = lo;
+            step <<= 1;
+            lo = hi - step;
+        }
+        return upperBound(e, Math.max(lo + 1, 0), hi);
+    }
+
+    /**
+     * @return первый индекс из {@code [from, to)}, элемент которого больше {@code e}, или {@code to}
+     */
+    private int upperBound(E e, int from, int to) {
+        while (from < to) {
+            int mid = (from + to) >>> 1;
+            if (comparator.compare(list.get(mid), e) > 0) {
+                to = mid;
+            } else {
+                from = mid + 1;
+            }
+        }
+        return from;
+    }
+
+    /**
+     * @return первый индекс, элемент которого не меньше {@code e}, или размер списка
+     */
+    private int lowerBound(E e) {
+        int from = 0;
+        int to = list.size();
+        while (from < to) {
+            int mid = (from + to) >>> 1;
+            if (comparator.compare(list.get(mid), e) < 0) {
+                from = mid + 1;
+            } else {
+                to = mid;
+            }
+        }
+        return from;
+    }
+}
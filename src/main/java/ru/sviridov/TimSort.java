@@ -0,0 +1,486 @@
+package ru.sviridov;
+
+import java.util.Arrays;
+import java.util.Comparator;
+
+/**
+ * Стабильная адаптивная сортировка слиянием в стиле TimSort.
+ * <p>Массив просматривается слева направо и делится на естественные серии (runs): неубывающие
+ * серии берутся как есть, строго убывающие разворачиваются. Короткие серии дополняются до
+ * минимальной длины сортировкой бинарными вставками. Серии складываются в стек и сливаются так,
+ * чтобы длины соседних серий оставались сбалансированными. При слиянии, если одна серия много
+ * раз подряд "выигрывает", алгоритм переходит в режим галопа (экспоненциальный поиск) и переносит
+ * элементы блоками через {@link System#arraycopy}.
+ * <p>Уже отсортированный (или отсортированный в обратном порядке) массив обрабатывается за O(n),
+ * худший случай - O(n log(n)). Равные элементы сохраняют исходный порядок.
+ * <p>Экземпляр хранит буфер слияния и стек серий между вызовами, поэтому повторные сортировки
+ * списка того же размера не выделяют память. После сортировки использованная часть буфера
+ * очищается, чтобы не удерживать ссылки на элементы. Экземпляр не потокобезопасен.
+ *
+ * @author Yuriy Sviridov
+ * @since 0.6
+ */
+final class TimSort {
+
+    /**
+     * массивы короче этого значения сортируются бинарными вставками без слияний
+     */
+    private static final int MIN_MERGE = 32;
+
+    /**
+     * сколько "побед" подряд нужно одной серии для перехода в режим галопа
+     */
+    private static final int MIN_GALLOP = 7;
+
+    /**
+     * глубина стека серий, достаточная для массивов длиной до {@link Integer#MAX_VALUE}
+     */
+    private static final int MAX_RUNS = 49;
+
+    private final int[] runBase = new int[MAX_RUNS];
+    private final int[] runLen = new int[MAX_RUNS];
+    private int stackSize;
+    private int minGallop;
+
+    /**
+     * буфер слияния, переиспользуемый между вызовами
+     */
+    private Object[] tmp = new Object[0];
+
+    /**
+     * сколько ячеек буфера было занято в текущей сортировке (для очистки)
+     */
+    private int tmpUsed;
+
+    /**
+     * Стабильно сортирует диапазон массива.
+     *
+     * @param array сортируемый массив
+     * @param first первый индекс диапазона (включительно)
+     * @param last  последний индекс диапазона (включительно)
+     * @param cmp   компаратор
+     * @param <E>   тип элементов
+     * @throws IllegalArgumentException если компаратор нарушает свой контракт
+     */
+    @SuppressWarnings("unchecked")
+    <E> void sort(E[] array, int first, int last, Comparator<? super E> cmp) {
+        Object[] a = array;
+        Comparator<Object> c = (Comparator<Object>) cmp;
+        int lo = first;
+        int hi = last + 1;
+        int remaining = hi - lo;
+        if (remaining < 2) return;
+
+        if (remaining < MIN_MERGE) {
+            int initRunLen = countRunAndMakeAscending(a, lo, hi, c);
+            binaryInsertionSort(a, lo, hi, lo + initRunLen, c);
+            return;
+        }
+
+        stackSize = 0;
+        minGallop = MIN_GALLOP;
+        tmpUsed = 0;
+        try {
+            int minRun = minRunLength(remaining);
+            do {
+                int len = countRunAndMakeAscending(a, lo, hi, c);
+                if (len < minRun) {
+                    // короткая серия дополняется до minRun бинарными вставками
+                    int force = Math.min(remaining, minRun);
+                    binaryInsertionSort(a, lo, lo + force, lo + len, c);
+                    len = force;
+                }
+                runBase[stackSize] = lo;
+                runLen[stackSize] = len;
+                stackSize++;
+                mergeCollapse(a, c);
+                lo += len;
+                remaining -= len;
+            } while (remaining != 0);
+            mergeForceCollapse(a, c);
+        } finally {
+            Arrays.fill(tmp, 0, tmpUsed, null);
+        }
+    }
+
+    /**
+     * Находит длину серии, начинающейся с {@code lo}, и разворачивает ее, если она строго убывающая.
+     */
+    private static int countRunAndMakeAscending(Object[] a, int lo, int hi, Comparator<Object> c) {
+        int runHi = lo + 1;
+        if (runHi == hi) return 1;
+        if (c.compare(a[runHi++], a[lo]) < 0) {
+            while (runHi < hi && c.compare(a[runHi], a[runHi - 1]) < 0) runHi++;
+            reverseRange(a, lo, runHi);
+        } else {
+            while (runHi < hi && c.compare(a[runHi], a[runHi - 1]) >= 0) runHi++;
+        }
+        return runHi - lo;
+    }
+
+    private static void reverseRange(Object[] a, int lo, int hi) {
+        hi--;
+        while (lo < hi) {
+            Object swap = a[lo];
+            a[lo++] = a[hi];
+            a[hi--] = swap;
+        }
+    }
+
+    /**
+     * Сортировка бинарными вставками диапазона {@code [lo, hi)}, в котором {@code [lo, start)} уже отсортирован.
+     */
+    private static void binaryInsertionSort(Object[] a, int lo, int hi, int start, Comparator<Object> c) {
+        if (start == lo) start++;
+        for (; start < hi; start++) {
+            Object pivot = a[start];
+            int left = lo;
+            int right = start;
+            while (left < right) {
+                int mid = (left + right) >>> 1;
+                if (c.compare(pivot, a[mid]) < 0) {
+                    right = mid;
+                } else {
+                    left = mid + 1;
+                }
+            }
+            System.arraycopy(a, left, a, left + 1, start - left);
+            a[left] = pivot;
+        }
+    }
+
+    /**
+     * Минимальная длина серии: число из диапазона [MIN_MERGE / 2, MIN_MERGE], при котором количество
+     * серий равно степени двойки или чуть меньше нее.
+     */
+    private static int minRunLength(int n) {
+        int r = 0;
+        while (n >= MIN_MERGE) {
+            r |= (n & 1);
+            n >>= 1;
+        }
+        return n + r;
+    }
+
+    /**
+     * Сливает серии на вершине стека, пока не выполняются инварианты
+     * {@code runLen[i - 2] > runLen[i - 1] + runLen[i]} и {@code runLen[i - 1] > runLen[i]}.
+     */
+    private void mergeCollapse(Object[] a, Comparator<Object> c) {
+        while (stackSize > 1) {
+            int n = stackSize - 2;
+            if ((n > 0 && runLen[n - 1] <= runLen[n] + runLen[n + 1])
+                    || (n > 1 && runLen[n - 2] <= runLen[n] + runLen[n - 1])) {
+                if (runLen[n - 1] < runLen[n + 1]) n--;
+            } else if (runLen[n] > runLen[n + 1]) {
+                break;
+            }
+            mergeAt(a, n, c);
+        }
+    }
+
+    private void mergeForceCollapse(Object[] a, Comparator<Object> c) {
+        while (stackSize > 1) {
+            int n = stackSize - 2;
+            if (n > 0 && runLen[n - 1] < runLen[n + 1]) n--;
+            mergeAt(a, n, c);
+        }
+    }
+
+    /**
+     * Сливает серии стека с номерами {@code i} и {@code i + 1}.
+     */
+    private void mergeAt(Object[] a, int i, Comparator<Object> c) {
+        int base1 = runBase[i];
+        int len1 = runLen[i];
+        int base2 = runBase[i + 1];
+        int len2 = runLen[i + 1];
+
+        runLen[i] = len1 + len2;
+        if (i == stackSize - 3) {
+            runBase[i + 1] = runBase[i + 2];
+            runLen[i + 1] = runLen[i + 2];
+        }
+        stackSize--;
+
+        // элементы первой серии, не превышающие начало второй, уже на своих местах
+        int k = gallopRight(a[base2], a, base1, len1, 0, c);
+        base1 += k;
+        len1 -= k;
+        if (len1 == 0) return;
+
+        // элементы второй серии, не меньшие конца первой, тоже на своих местах
+        len2 = gallopLeft(a[base1 + len1 - 1], a, base2, len2, len2 - 1, c);
+        if (len2 == 0) return;
+
+        if (len1 <= len2) {
+            mergeLo(a, base1, len1, base2, len2, c);
+        } else {
+            mergeHi(a, base1, len1, base2, len2, c);
+        }
+    }
+
+    /**
+     * Ищет самую левую позицию для вставки {@code key} в отсортированный диапазон,
+     * начиная экспоненциальный поиск с позиции {@code hint}.
+     *
+     * @return {@code k}, такое что {@code a[base + k - 1] < key <= a[base + k]}
+     */
+    private static int gallopLeft(Object key, Object[] a, int base, int len, int hint, Comparator<Object> c) {
+        int lastOfs = 0;
+        int ofs = 1;
+        if (c.compare(key, a[base + hint]) > 0) {
+            int maxOfs = len - hint;
+            while (ofs < maxOfs && c.compare(key, a[base + hint + ofs]) > 0) {
+                lastOfs = ofs;
+                ofs = (ofs << 1) + 1;
+                if (ofs <= 0) ofs = maxOfs;
+            }
+            if (ofs > maxOfs) ofs = maxOfs;
+            lastOfs += hint;
+            ofs += hint;
+        } else {
+            int maxOfs = hint + 1;
+            while (ofs < maxOfs && c.compare(key, a[base + hint - ofs]) <= 0) {
+                lastOfs = ofs;
+                ofs = (ofs << 1) + 1;
+                if (ofs <= 0) ofs = maxOfs;
+            }
+            if (ofs > maxOfs) ofs = maxOfs;
+            int swap = lastOfs;
+            lastOfs = hint - ofs;
+            ofs = hint - swap;
+        }
+        // искомая позиция в (lastOfs, ofs] - дальше обычный бинарный поиск
+        lastOfs++;
+        while (lastOfs < ofs) {
+            int m = lastOfs + ((ofs - lastOfs) >>> 1);
+            if (c.compare(key, a[base + m]) > 0) {
+                lastOfs = m + 1;
+            } else {
+                ofs = m;
+            }
+        }
+        return ofs;
+    }
+
+    /**
+     * Как {@link #gallopLeft}, но ищет самую правую позицию (после всех равных элементов).
+     *
+     * @return {@code k}, такое что {@code a[base + k - 1] <= key < a[base + k]}
+     */
+    private static int gallopRight(Object key, Object[] a, int base, int len, int hint, Comparator<Object> c) {
+        int lastOfs = 0;
+        int ofs = 1;
+        if (c.compare(key, a[base + hint]) < 0) {
+            int maxOfs = hint + 1;
+            while (ofs < maxOfs && c.compare(key, a[base + hint - ofs]) < 0) {
+                lastOfs = ofs;
+                ofs = (ofs << 1) + 1;
+                if (ofs <= 0) ofs = maxOfs;
+            }
+            if (ofs > maxOfs) ofs = maxOfs;
+            int swap = lastOfs;
+            lastOfs = hint - ofs;
+            ofs = hint - swap;
+        } else {
+            int maxOfs = len - hint;
+            while (ofs < maxOfs && c.compare(key, a[base + hint + ofs]) >= 0) {
+                lastOfs = ofs;
+                ofs = (ofs << 1) + 1;
+                if (ofs <= 0) ofs = maxOfs;
+            }
+            if (ofs > maxOfs) ofs = maxOfs;
+            lastOfs += hint;
+            ofs += hint;
+        }
+        lastOfs++;
+        while (lastOfs < ofs) {
+            int m = lastOfs + ((ofs - lastOfs) >>> 1);
+            if (c.compare(key, a[base + m]) < 0) {
+                ofs = m;
+            } else {
+                lastOfs = m + 1;
+            }
+        }
+        return ofs;
+    }
+
+    /**
+     * Слияние слева направо, когда первая серия не длиннее второй (первая копируется в буфер).
+     */
+    private void mergeLo(Object[] a, int base1, int len1, int base2, int len2, Comparator<Object> c) {
+        Object[] t = ensureCapacity(len1);
+        System.arraycopy(a, base1, t, 0, len1);
+        int cursor1 = 0;
+        int cursor2 = base2;
+        int dest = base1;
+
+        a[dest++] = a[cursor2++];
+        if (--len2 == 0) {
+            System.arraycopy(t, cursor1, a, dest, len1);
+            return;
+        }
+        if (len1 == 1) {
+            System.arraycopy(a, cursor2, a, dest, len2);
+            a[dest + len2] = t[cursor1];
+            return;
+        }
+
+        int gallop = minGallop;
+        outer:
+        while (true) {
+            int count1 = 0;
+            int count2 = 0;
+            // поэлементное слияние, пока одна из серий не начнет стабильно выигрывать
+            do {
+                if (c.compare(a[cursor2], t[cursor1]) < 0) {
+                    a[dest++] = a[cursor2++];
+                    count2++;
+                    count1 = 0;
+                    if (--len2 == 0) break outer;
+                } else {
+                    a[dest++] = t[cursor1++];
+                    count1++;
+                    count2 = 0;
+                    if (--len1 == 1) break outer;
+                }
+            } while ((count1 | count2) < gallop);
+
+            // режим галопа: блоки переносятся целиком
+            do {
+                count1 = gallopRight(a[cursor2], t, cursor1, len1, 0, c);
+                if (count1 != 0) {
+                    System.arraycopy(t, cursor1, a, dest, count1);
+                    dest += count1;
+                    cursor1 += count1;
+                    len1 -= count1;
+                    if (len1 <= 1) break outer;
+                }
+                a[dest++] = a[cursor2++];
+                if (--len2 == 0) break outer;
+
+                count2 = gallopLeft(t[cursor1], a, cursor2, len2, 0, c);
+                if (count2 != 0) {
+                    System.arraycopy(a, cursor2, a, dest, count2);
+                    dest += count2;
+                    cursor2 += count2;
+                    len2 -= count2;
+                    if (len2 == 0) break outer;
+                }
+                a[dest++] = t[cursor1++];
+                if (--len1 == 1) break outer;
+                gallop--;
+            } while (count1 >= MIN_GALLOP | count2 >= MIN_GALLOP);
+            if (gallop < 0) gallop = 0;
+            gallop += 2;
+        }
+        minGallop = Math.max(gallop, 1);
+
+        if (len1 == 1) {
+            System.arraycopy(a, cursor2, a, dest, len2);
+            a[dest + len2] = t[cursor1];
+        } else if (len1 == 0) {
+            throw new IllegalArgumentException("Comparison method violates its general contract!");
+        } else {
+            System.arraycopy(t, cursor1, a, dest, len1);
+        }
+    }
+
+    /**
+     * Слияние справа налево, когда вторая серия короче первой (вторая копируется в буфер).
+     */
+    private void mergeHi(Object[] a, int base1, int len1, int base2, int len2, Comparator<Object> c) {
+        Object[] t = ensureCapacity(len2);
+        System.arraycopy(a, base2, t, 0, len2);
+        int cursor1 = base1 + len1 - 1;
+        int cursor2 = len2 - 1;
+        int dest = base2 + len2 - 1;
+
+        a[dest--] = a[cursor1--];
+        if (--len1 == 0) {
+            System.arraycopy(t, 0, a, dest - (len2 - 1), len2);
+            return;
+        }
+        if (len2 == 1) {
+            dest -= len1;
+            cursor1 -= len1;
+            System.arraycopy(a, cursor1 + 1, a, dest + 1, len1);
+            a[dest] = t[cursor2];
+            return;
+        }
+
+        int gallop = minGallop;
+        outer:
+        while (true) {
+            int count1 = 0;
+            int count2 = 0;
+            do {
+                if (c.compare(t[cursor2], a[cursor1]) < 0) {
+                    a[dest--] = a[cursor1--];
+                    count1++;
+                    count2 = 0;
+                    if (--len1 == 0) break outer;
+                } else {
+                    a[dest--] = t[cursor2--];
+                    count2++;
+                    count1 = 0;
+                    if (--len2 == 1) break outer;
+                }
+            } while ((count1 | count2) < gallop);
+
+            do {
+                count1 = len1 - gallopRight(t[cursor2], a, base1, len1, len1 - 1, c);
+                if (count1 != 0) {
+                    dest -= count1;
+                    cursor1 -= count1;
+                    len1 -= count1;
+                    System.arraycopy(a, cursor1 + 1, a, dest + 1, count1);
+                    if (len1 == 0) break outer;
+                }
+                a[dest--] = t[cursor2--];
+                if (--len2 == 1) break outer;
+
+                count2 = len2 - gallopLeft(a[cursor1], t, 0, len2, len2 - 1, c);
+                if (count2 != 0) {
+                    dest -= count2;
+                    cursor2 -= count2;
+                    len2 -= count2;
+                    System.arraycopy(t, cursor2 + 1, a, dest + 1, count2);
+                    if (len2 <= 1) break outer;
+                }
+                a[dest--] = a[cursor1--];
+                if (--len1 == 0) break outer;
+                gallop--;
+            } while (count1 >= MIN_GALLOP | count2 >= MIN_GALLOP);
+            if (gallop < 0) gallop = 0;
+            gallop += 2;
+        }
+        minGallop = Math.max(gallop, 1);
+
+        if (len2 == 1) {
+            dest -= len1;
+            cursor1 -= len1;
+            System.arraycopy(a, cursor1 + 1, a, dest + 1, len1);
+            a[dest] = t[cursor2];
+        } else if (len2 == 0) {
+            throw new IllegalArgumentException("Comparison method violates its general contract!");
+        } else {
+            System.arraycopy(t, 0, a, dest - (len2 - 1), len2);
+        }
+    }
+
+    /**
+     * Возвращает буфер слияния не меньше указанной длины, при необходимости увеличивая его.
+     */
+    private Object[] ensureCapacity(int minCapacity) {
+        if (tmp.length < minCapacity) {
+            int newSize = Integer.highestOneBit(minCapacity) << 1;
+            if (newSize < 0) newSize = minCapacity;
+            tmp = new Object[newSize];
+        }
+        tmpUsed = Math.max(tmpUsed, minCapacity);
+        return tmp;
+    }
+
+}
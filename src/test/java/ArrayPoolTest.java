@@ -0,0 +1,136 @@
+import ru.sviridov.ArrayPool;
+import ru.sviridov.CustomArrayList;
+import ru.sviridov.CustomArrayListSnapshot;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+public class ArrayPoolTest {
+
+    @Test
+    @DisplayName("Проверка классов размеров и зануления массивов пула")
+    void acquireReleaseTest() {
+        ArrayPool pool = new ArrayPool(2, 4);
+        Object[] array = pool.acquire(10);
+        Assertions.assertEquals(ArrayPool.MIN_LENGTH, array.length);
+        Assertions.assertEquals(64, pool.acquire(33).length);
+        array[0] = "a";
+        array[5] = "b";
+        pool.release(array, 6);
+        Object[] reused = pool.acquire(16);
+        Assertions.assertSame(array, reused);
+        for (Object o : reused) {
+            Assertions.assertNull(o);
+        }
+        Assertions.assertEquals(1, pool.reusedArrays());
+
+        // массивы не из классов пула игнорируются
+        pool.release(new Object[17]);
+        Assertions.assertEquals(32, pool.acquire(17).length);
+        Assertions.assertEquals(ArrayPool.MAX_LENGTH + 1, pool.acquire(ArrayPool.MAX_LENGTH + 1).length);
+        Assertions.assertThrows(IllegalArgumentException.class, () -> pool.acquire(-1));
+    }
+
+    @Test
+    @DisplayName("Проверка бюджета памяти общих очередей")
+    void retainedBudgetTest() {
+        int length = ArrayPool.LOCAL_MAX_LENGTH << 2;
+        long arrayBytes = 16 + 4L * length;
+        ArrayPool pool = new ArrayPool(4, 64, 2 * arrayBytes);
+        for (int i = 0; i < 5; i++) {
+            pool.release(new Object[length]);
+        }
+        Assertions.assertEquals(2 * arrayBytes, pool.retainedBytes());
+        pool.acquire(length);
+        pool.acquire(length);
+        pool.acquire(length);
+        Assertions.assertEquals(0, pool.retainedBytes());
+        Assertions.assertTrue(pool.allocatedArrays() >= 1);
+
+        // большие массивы не попадают в кэш потока: без общей очереди они не хранятся
+        ArrayPool localOnly = new ArrayPool(4, 0);
+        Object[] large = localOnly.acquire(length);
+        localOnly.release(large);
+        Assertions.assertNotSame(large, localOnly.acquire(length));
+        Object[] small = localOnly.acquire(ArrayPool.LOCAL_MAX_LENGTH);
+        localOnly.release(small);
+        Assertions.assertSame(small, localOnly.acquire(ArrayPool.LOCAL_MAX_LENGTH));
+    }
+
+    @Test
+    @DisplayName("Проверка release и reset у списка без пула")
+    void releaseWithoutPoolTest() {
+        CustomArrayList<Integer> list = new CustomArrayList<>(100);
+        for (int i = 0; i < 1000; i++) {
+            list.add(i);
+        }
+        list.release();
+        Assertions.assertEquals(0, list.size());
+        list.add(1);
+        Assertions.assertEquals(100, list.getCapacity());
+        for (int i = 0; i < 1000; i++) {
+            list.add(i);
+        }
+        list.reset();
+        Assertions.assertEquals(0, list.size());
+        Assertions.assertEquals(100, list.getCapacity());
+    }
+
+    @Test
+    @DisplayName("Проверка повторного использования массивов списком без новых выделений")
+    void steadyStateTest() {
+        ArrayPool pool = new ArrayPool(4, 16);
+        CustomArrayList<Integer> list = new CustomArrayList<>(pool);
+        long allocated = 0;
+        for (int cycle = 0; cycle < 10; cycle++) {
+            for (int i = 0; i < 1000; i++) {
+                list.add(1000 - i);
+            }
+            list.sort();
+            Assertions.assertEquals(1, list.get(0));
+            Assertions.assertEquals(1000, list.get(999));
+            list.reset();
+            Assertions.assertEquals(0, list.size());
+            if (cycle == 1) {
+                allocated = pool.allocatedArrays();
+            }
+        }
+        Assertions.assertEquals(allocated, pool.allocatedArrays());
+        Assertions.assertTrue(pool.reusedArrays() > 0);
+
+        list.add(7);
+        list.release();
+        Assertions.assertEquals(0, list.size());
+        list.add(8);
+        Assertions.assertEquals(8, list.get(0));
+    }
+
+    @Test
+    @DisplayName("Проверка, что массивы снимков не возвращаются в пул")
+    void snapshotSafetyTest() {
+        ArrayPool pool = new ArrayPool(4, 16);
+        CustomArrayList<String> list = new CustomArrayList<>(16, pool);
+        for (int i = 0; i < 10; i++) {
+            list.add("s" + i);
+        }
+        CustomArrayListSnapshot<String> snapshot = list.snapshot();
+        list.release();
+        for (int i = 0; i < 8; i++) {
+            Object[] array = pool.acquire(16);
+            array[0] = "garbage";
+        }
+        Assertions.assertEquals(10, snapshot.size());
+        Assertions.assertEquals("s0", snapshot.get(0));
+        Assertions.assertEquals("s9", snapshot.get(9));
+
+        for (int i = 0; i < 40; i++) {
+            list.add("t" + i);
+        }
+        CustomArrayListSnapshot<String> second = list.snapshot();
+        list.reset();
+        list.add("x");
+        Assertions.assertEquals(40, second.size());
+        Assertions.assertEquals("t0", second.get(0));
+        Assertions.assertEquals("t39", second.get(39));
+    }
+}
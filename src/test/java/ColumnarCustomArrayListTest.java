@@ -0,0 +1,116 @@
+import ru.sviridov.Cat;
+import ru.sviridov.ColumnarCustomArrayList;
+import ru.sviridov.RecordSchema;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+
+public class ColumnarCustomArrayListTest {
+
+    @Test
+    @DisplayName("Проверка добавления, чтения колонок и сборки записей")
+    void addGetTest() {
+        ColumnarCustomArrayList<Cat> cats = new ColumnarCustomArrayList<>(RecordSchema.cat(), 1);
+        cats.add(new Cat("Tom", 5, 20));
+        cats.add(new Cat("Kitty", 3, 25));
+        cats.add(new Cat("Tom", 7, 30));
+        cats.add(new Cat(null, 1, 1));
+        Assertions.assertEquals(4, cats.size());
+        Cat kitty = cats.get(1);
+        Assertions.assertEquals("Kitty", kitty.getName());
+        Assertions.assertEquals(3, kitty.getWeight());
+        Assertions.assertEquals(25, kitty.getMaxSpeed());
+        int weight = RecordSchema.cat().columnIndex("weight");
+        Assertions.assertEquals(7, cats.getInt(2, weight));
+        Assertions.assertEquals("Tom", cats.getString(2, 0));
+        Assertions.assertNull(cats.getString(3, 0));
+        Assertions.assertArrayEquals(new int[]{20, 25, 30, 1}, cats.intColumn("maxSpeed"));
+        Assertions.assertThrows(IndexOutOfBoundsException.class, () -> cats.get(4));
+        Assertions.assertThrows(IllegalArgumentException.class, () -> cats.getInt(0, 0));
+        Assertions.assertThrows(IllegalArgumentException.class, () -> cats.getString(0, weight));
+        Assertions.assertThrows(IllegalArgumentException.class, () -> cats.intColumn("color"));
+        Assertions.assertThrows(IllegalArgumentException.class,
+                () -> RecordSchema.<Cat>builder().intColumn("a", Cat::getWeight).intColumn("a", Cat::getWeight));
+        cats.clear();
+        Assertions.assertEquals(0, cats.size());
+    }
+
+    @Test
+    @DisplayName("Проверка устойчивой сортировки по колонкам против сортировки объектов")
+    void sortTest() {
+        Random random = new Random(31);
+        ColumnarCustomArrayList<Cat> cats = new ColumnarCustomArrayList<>(RecordSchema.cat());
+        List<Cat> expected = new ArrayList<>();
+        for (int i = 0; i < 10_000; i++) {
+            Cat cat = new Cat("cat" + random.nextInt(300), random.nextInt(40) - 20, i);
+            cats.add(cat);
+            expected.add(cat);
+        }
+        cats.sortBy("weight");
+        expected.sort(Comparator.comparingInt(Cat::getWeight));
+        assertSameCats(expected, cats);
+
+        cats.sortByDescending("name");
+        expected.sort(Comparator.comparing(Cat::getName).reversed());
+        assertSameCats(expected, cats);
+
+        cats.sortBy("maxSpeed");
+        expected.sort(Comparator.comparingInt(Cat::getMaxSpeed));
+        assertSameCats(expected, cats);
+    }
+
+    @Test
+    @DisplayName("Проверка фильтрации по колонкам")
+    void filterTest() {
+        ColumnarCustomArrayList<Cat> cats = new ColumnarCustomArrayList<>(RecordSchema.cat());
+        for (int i = 0; i < 1000; i++) {
+            cats.add(new Cat(i % 2 == 0 ? "Tom" : "Felix", i % 10, i));
+        }
+        ColumnarCustomArrayList<Cat> heavy = cats.filter("weight", w -> w >= 8);
+        Assertions.assertEquals(200, heavy.size());
+        Assertions.assertEquals(8, heavy.get(0).getWeight());
+        ColumnarCustomArrayList<Cat> range = cats.filterRange("maxSpeed", 100, 199);
+        Assertions.assertEquals(100, range.size());
+        Assertions.assertEquals(100, range.get(0).getMaxSpeed());
+        ColumnarCustomArrayList<Cat> toms = cats.filterString("name", "Tom"::equals);
+        Assertions.assertEquals(500, toms.size());
+        toms.add(new Cat("Garfield", 1, 1));
+        Assertions.assertEquals("Garfield", toms.get(500).getName());
+        Assertions.assertEquals(0, cats.filterString("name", "Garfield"::equals).size());
+        cats.add(new Cat("Simba", 1, 1));
+        Assertions.assertEquals("Simba", cats.get(1000).getName());
+        Assertions.assertEquals(0, toms.filterString("name", "Simba"::equals).size());
+        Assertions.assertEquals("Tom", toms.get(0).getName());
+        Assertions.assertThrows(IllegalArgumentException.class, () -> cats.filterString("weight", "Tom"::equals));
+    }
+
+    @Test
+    @DisplayName("Проверка оценки памяти")
+    void memoryTest() {
+        ColumnarCustomArrayList<Cat> cats = new ColumnarCustomArrayList<>(RecordSchema.cat());
+        int n = 100_000;
+        for (int i = 0; i < n; i++) {
+            cats.add(new Cat("cat" + i % 100, i, i));
+        }
+        cats.trimToSize();
+        Assertions.assertEquals(n, cats.getCapacity());
+        // CustomArrayList<Cat>: ссылка 4 байта + объект 24 байта на кота, не считая строк
+        long objects = 28L * n;
+        Assertions.assertTrue(cats.memoryBytes() < objects / 2);
+    }
+
+    private static void assertSameCats(List<Cat> expected, ColumnarCustomArrayList<Cat> actual) {
+        Assertions.assertEquals(expected.size(), actual.size());
+        for (int i = 0; i < expected.size(); i++) {
+            Cat cat = actual.get(i);
+            Assertions.assertEquals(expected.get(i).getName(), cat.getName());
+            Assertions.assertEquals(expected.get(i).getWeight(), cat.getWeight());
+            Assertions.assertEquals(expected.get(i).getMaxSpeed(), cat.getMaxSpeed());
+        }
+    }
+}
@@ -0,0 +1,267 @@
+import ru.sviridov.ConcurrentCustomArrayList;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.Random;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+public class ConcurrentCustomArrayListTest {
+
+    private static final int THREADS = 4;
+
+    @Test
+    @DisplayName("Проверка основных операций потокобезопасного списка")
+    void basicOperationsTest() {
+        ConcurrentCustomArrayList<String> list = new ConcurrentCustomArrayList<>(1);
+        list.add("Mary");
+        list.add("Bill");
+        list.add(0, "Michael");
+        Assertions.assertEquals("[Michael, Mary, Bill]", list.toString());
+        Assertions.assertEquals(3, list.size());
+        Assertions.assertEquals("Mary", list.get(1));
+        Assertions.assertEquals(2, list.indexOf("Bill"));
+        Assertions.assertTrue(list.remove("Mary"));
+        Assertions.assertFalse(list.contains("Mary"));
+        list.sort();
+        Assertions.assertEquals("[Bill, Michael]", list.toString());
+        Assertions.assertThrows(IndexOutOfBoundsException.class, () -> list.get(2));
+        Assertions.assertThrows(ArrayIndexOutOfBoundsException.class, () -> list.add(5, "Kyle"));
+        list.clear();
+        Assertions.assertEquals(0, list.size());
+        Assertions.assertThrows(IllegalArgumentException.class, () -> new ConcurrentCustomArrayList<>(0));
+    }
+
+    @Test
+    @DisplayName("Стресс-тест: параллельные добавления не теряются, читатели не видят несогласованного состояния")
+    void concurrentAppendStressTest() throws Exception {
+        int perThread = 20_000;
+        ConcurrentCustomArrayList<Integer> list = new ConcurrentCustomArrayList<>();
+        AtomicBoolean writing = new AtomicBoolean(true);
+        ExecutorService pool = Executors.newFixedThreadPool(THREADS * 2);
+        CountDownLatch start = new CountDownLatch(1);
+        try {
+            List<Future<?>> writers = new ArrayList<>();
+            for (int t = 0; t < THREADS; t++) {
+                int base = t * perThread;
+                writers.add(pool.submit(() -> {
+                    start.await();
+                    for (int i = 0; i < perThread; i++) {
+                        list.add(base + i);
+                        if (i % 7 == 0) {
+                            list.add(list.size() / 2, -1);
+                            Assertions.assertTrue(list.remove(-1));
+                        }
+                    }
+                    return null;
+                }));
+            }
+            List<Future<?>> readers = new ArrayList<>();
+            for (int t = 0; t < THREADS; t++) {
+                int probe = t * perThread;
+                readers.add(pool.submit(() -> {
+                    start.await();
+                    boolean seen = false;
+                    int[] lastSeen = new int[THREADS];
+                    while (writing.get()) {
+                        // размер и элементы читаются одним снимком: между ними список не меняется
+                        checkAppendSnapshot(list.toArray(), perThread, lastSeen);
+                        // добавленный элемент не может "исчезнуть" (удаляются только временные -1)
+                        boolean contains = list.contains(probe);
+                        Assertions.assertFalse(seen && !contains);
+                        seen |= contains;
+                    }
+                    return null;
+                }));
+            }
+            start.countDown();
+            for (Future<?> writer : writers) {
+                writer.get(60, TimeUnit.SECONDS);
+            }
+            writing.set(false);
+            for (Future<?> reader : readers) {
+                reader.get(60, TimeUnit.SECONDS);
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+        Assertions.assertEquals(THREADS * perThread, list.size());
+        list.sort();
+        for (int i = 0; i < THREADS * perThread; i++) {
+            Assertions.assertEquals(i, list.get(i));
+        }
+    }
+
+    /**
+     * Проверяет снимок списка из стресс-теста: в пределах размера нет {@code null}, временных -1 не больше
+     * числа писателей, элементы каждого писателя идут по возрастанию без пропусков (виден префикс его добавлений),
+     * и этот префикс не уменьшается от снимка к снимку.
+     */
+    private static void checkAppendSnapshot(Object[] snapshot, int perThread, int[] lastSeen) {
+        int[] next = new int[THREADS];
+        int markers = 0;
+        for (Object o : snapshot) {
+            Assertions.assertNotNull(o);
+            int value = (Integer) o;
+            if (value == -1) {
+                markers++;
+                continue;
+            }
+            int writer = value / perThread;
+            Assertions.assertEquals(writer * perThread + next[writer], value, "appends of one writer out of order");
+            next[writer]++;
+        }
+        Assertions.assertTrue(markers <= THREADS);
+        for (int t = 0; t < THREADS; t++) {
+            Assertions.assertTrue(next[t] >= lastSeen[t], "appended elements disappeared");
+            lastSeen[t] = next[t];
+        }
+    }
+
+    @Test
+    @DisplayName("Проверка линеаризуемости: история параллельных операций объяснима последовательным списком")
+    void linearizabilityTest() throws Exception {
+        int rounds = 300;
+        int threads = 3;
+        int opsPerThread = 4;
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        try {
+            Random random = new Random(7);
+            for (int round = 0; round < rounds; round++) {
+                ConcurrentCustomArrayList<Integer> list = new ConcurrentCustomArrayList<>(1);
+                AtomicLong clock = new AtomicLong();
+                CountDownLatch start = new CountDownLatch(1);
+                List<Future<List<Operation>>> results = new ArrayList<>();
+                for (int t = 0; t < threads; t++) {
+                    long seed = random.nextLong();
+                    results.add(pool.submit(() -> {
+                        Random r = new Random(seed);
+                        List<Operation> history = new ArrayList<>();
+                        start.await();
+                        for (int i = 0; i < opsPerThread; i++) {
+                            Operation op = new Operation(r.nextInt(Operation.KINDS), r.nextInt(3));
+                            op.call = clock.incrementAndGet();
+                            op.result = op.apply(list);
+                            op.ret = clock.incrementAndGet();
+                            history.add(op);
+                        }
+                        return history;
+                    }));
+                }
+                start.countDown();
+                List<Operation> history = new ArrayList<>();
+                for (Future<List<Operation>> result : results) {
+                    history.addAll(result.get(60, TimeUnit.SECONDS));
+                }
+                List<Integer> finalState = new ArrayList<>();
+                for (Object o : list.toArray()) {
+                    finalState.add((Integer) o);
+                }
+                Assertions.assertTrue(linearizable(history, new boolean[history.size()], history.size(),
+                        new ArrayList<>(), finalState), "not linearizable: " + history);
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    /**
+     * Поиск линеаризации (алгоритм Wing и Gong): очередной операцией может быть любая еще не выбранная,
+     * вызванная раньше, чем завершилась самая ранняя из оставшихся. Операция применяется к последовательной
+     * модели ({@link ArrayList}), ее результат должен совпасть с наблюдаемым, а итог - с конечным состоянием списка.
+     */
+    private static boolean linearizable(List<Operation> history, boolean[] done, int remaining,
+                                        List<Integer> model, List<Integer> finalState) {
+        if (remaining == 0) {
+            return model.equals(finalState);
+        }
+        long minReturn = Long.MAX_VALUE;
+        for (int i = 0; i < history.size(); i++) {
+            if (!done[i]) {
+                minReturn = Math.min(minReturn, history.get(i).ret);
+            }
+        }
+        for (int i = 0; i < history.size(); i++) {
+            Operation op = history.get(i);
+            if (done[i] || op.call > minReturn) {
+                continue;
+            }
+            List<Integer> next = new ArrayList<>(model);
+            if (Objects.equals(op.applyModel(next), op.result)) {
+                done[i] = true;
+                if (linearizable(history, done, remaining - 1, next, finalState)) {
+                    return true;
+                }
+                done[i] = false;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Операция истории: вид, аргумент, наблюдаемый результат и моменты вызова и завершения.
+     */
+    private static final class Operation {
+        static final int KINDS = 5;
+        private static final String[] NAMES = {"add", "addFirst", "remove", "contains", "size"};
+
+        final int kind;
+        final int value;
+        Object result;
+        long call;
+        long ret;
+
+        Operation(int kind, int value) {
+            this.kind = kind;
+            this.value = value;
+        }
+
+        Object apply(ConcurrentCustomArrayList<Integer> list) {
+            switch (kind) {
+                case 0:
+                    list.add(value);
+                    return null;
+                case 1:
+                    list.add(0, value);
+                    return null;
+                case 2:
+                    return list.remove(value);
+                case 3:
+                    return list.contains(value);
+                default:
+                    return list.size();
+            }
+        }
+
+        Object applyModel(List<Integer> model) {
+            switch (kind) {
+                case 0:
+                    model.add(value);
+                    return null;
+                case 1:
+                    model.add(0, value);
+                    return null;
+                case 2:
+                    return model.remove((Integer) value);
+                case 3:
+                    return model.contains(value);
+                default:
+                    return model.size();
+            }
+        }
+
+        @Override
+        public String toString() {
+            return NAMES[kind] + "(" + value + ")=" + result + " [" + call + ", " + ret + "]";
+        }
+    }
+}
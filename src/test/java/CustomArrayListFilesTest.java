@@ -0,0 +1,175 @@
+import ru.sviridov.Cat;
+import ru.sviridov.CatCodec;
+import ru.sviridov.CustomArrayList;
+import ru.sviridov.CustomArrayListFiles;
+import ru.sviridov.DoubleArrayList;
+import ru.sviridov.ElementCodec;
+import ru.sviridov.IntArrayList;
+import ru.sviridov.OffHeapCustomArrayList;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+
+public class CustomArrayListFilesTest {
+
+    @TempDir
+    Path dir;
+
+    @Test
+    @DisplayName("Проверка сохранения и загрузки списка Cat (сразу и через отображение в память)")
+    void catSaveLoadTest() throws IOException {
+        CustomArrayList<Cat> list = new CustomArrayList<>();
+        list.add(new Cat("Барсик", 10, 20));
+        list.add(new Cat("Мурка", 6, 28));
+        list.add(new Cat("Барсик", 12, 22));
+        Path file = dir.resolve("cats.bin");
+        CustomArrayListFiles.save(list, new CatCodec(), file);
+
+        CustomArrayList<Cat> loaded = CustomArrayListFiles.load(file, new CatCodec());
+        Assertions.assertEquals(list.toString(), loaded.toString());
+        Assertions.assertEquals(list.getCapacity(), loaded.getCapacity());
+
+        CatCodec codec = new CatCodec();
+        try (OffHeapCustomArrayList<Cat> mapped = CustomArrayListFiles.map(file, codec)) {
+            Assertions.assertTrue(mapped.isReadOnly());
+            Assertions.assertEquals(2, codec.dictionarySize());
+            Assertions.assertEquals(list.toString(), mapped.toString());
+            Assertions.assertEquals(1, mapped.indexOf(new Cat("Мурка", 6, 28)));
+            Assertions.assertThrows(UnsupportedOperationException.class, () -> mapped.add(new Cat("Том", 1, 1)));
+        }
+    }
+
+    @Test
+    @DisplayName("Проверка сохранения закрытого списка вне кучи")
+    void saveClosedOffHeapListTest() throws IOException {
+        Path file = dir.resolve("closed.bin");
+        Files.write(file, new byte[]{1, 2, 3});
+        OffHeapCustomArrayList<Integer> list = new OffHeapCustomArrayList<>(ElementCodec.ints());
+        list.add(1);
+        list.close();
+        Assertions.assertThrows(IllegalStateException.class, () -> CustomArrayListFiles.save(list, file));
+        Assertions.assertEquals(3, Files.size(file));
+    }
+
+    @Test
+    @DisplayName("Проверка котов без имени и с длинным именем: сортировка, сохранение и загрузка")
+    void catNullAndLongNameTest() throws IOException {
+        String longName = "Мурзик".repeat(20_000);
+        Cat nameless = new Cat(null, 4, 15);
+        Cat barsik = new Cat("Барсик", 10, 20);
+        Cat murzik = new Cat(longName, 7, 25);
+        CatCodec codec = new CatCodec();
+        Path file = dir.resolve("cats-null.bin");
+        try (OffHeapCustomArrayList<Cat> list = new OffHeapCustomArrayList<>(codec)) {
+            list.add(murzik);
+            list.add(nameless);
+            list.add(barsik);
+            Assertions.assertEquals(2, codec.dictionarySize());
+            Assertions.assertEquals(1, list.indexOf(new Cat(null, 4, 15)));
+            list.sort(codec.byName());
+            Assertions.assertEquals(Arrays.asList(nameless, barsik, murzik).toString(), list.toString());
+            CustomArrayListFiles.save(list, file);
+        }
+
+        CustomArrayList<Cat> loaded = CustomArrayListFiles.load(file, new CatCodec());
+        Assertions.assertEquals(3, loaded.size());
+        Assertions.assertNull(loaded.get(0).getName());
+        Assertions.assertEquals(longName, loaded.get(2).getName());
+    }
+
+    @Test
+    @DisplayName("Проверка сохранения списка вне кучи и списков примитивов")
+    void offHeapAndPrimitiveTest() throws IOException {
+        Path offHeapFile = dir.resolve("ints-offheap.bin");
+        try (OffHeapCustomArrayList<Integer> list = new OffHeapCustomArrayList<>(ElementCodec.ints(), 8)) {
+            for (int i = 0; i < 100; i++) {
+                list.add(i * 3);
+            }
+            CustomArrayListFiles.save(list, offHeapFile);
+        }
+        // файл списка вне кучи совместим со списком примитивов того же кодека
+        IntArrayList ints = CustomArrayListFiles.loadIntArrayList(offHeapFile);
+        Assertions.assertEquals(100, ints.size());
+        Assertions.assertEquals(297, ints.get(99));
+
+        Path intFile = dir.resolve("ints.bin");
+        ints.add(-1);
+        CustomArrayListFiles.save(ints, intFile);
+        try (OffHeapCustomArrayList<Integer> mapped = CustomArrayListFiles.map(intFile, ElementCodec.ints())) {
+            Assertions.assertEquals(101, mapped.size());
+            Assertions.assertEquals(-1, mapped.get(100));
+        }
+
+        DoubleArrayList doubles = new DoubleArrayList();
+        for (int i = 0; i < 70_000; i++) {
+            doubles.add(i / 2.0);
+        }
+        Path doubleFile = dir.resolve("doubles.bin");
+        CustomArrayListFiles.save(doubles, doubleFile);
+        Assertions.assertArrayEquals(doubles.toArray(), CustomArrayListFiles.loadDoubleArrayList(doubleFile).toArray());
+    }
+
+    @Test
+    @DisplayName("Проверка загрузки с несовместимым кодеком и поврежденного файла")
+    void incompatibleFileTest() throws IOException {
+        IntArrayList ints = new IntArrayList();
+        ints.add(1);
+        Path file = dir.resolve("ints.bin");
+        CustomArrayListFiles.save(ints, file);
+        Assertions.assertThrows(IOException.class, () -> CustomArrayListFiles.loadLongArrayList(file));
+        Assertions.assertThrows(IOException.class, () -> CustomArrayListFiles.load(file, new CatCodec()));
+
+        Path garbage = dir.resolve("garbage.bin");
+        Files.write(garbage, new byte[64]);
+        Assertions.assertThrows(IOException.class, () -> CustomArrayListFiles.map(garbage, ElementCodec.ints()));
+    }
+
+    @Test
+    @DisplayName("Проверка, что поля заголовка проверяются до выделения памяти")
+    void corruptedHeaderTest() throws IOException {
+        IntArrayList ints = new IntArrayList();
+        ints.add(1);
+        ints.add(2);
+        Path file = dir.resolve("header.bin");
+        CustomArrayListFiles.save(ints, file);
+        byte[] bytes = Files.readAllBytes(file);
+
+        // огромная емкость - только подсказка: список создается по размеру
+        Path hugeCapacity = dir.resolve("capacity.bin");
+        Files.write(hugeCapacity, patchInt(bytes, 24, Integer.MAX_VALUE - 8));
+        IntArrayList loaded = CustomArrayListFiles.loadIntArrayList(hugeCapacity);
+        Assertions.assertEquals(2, loaded.size());
+        Assertions.assertEquals(2, loaded.get(1));
+        Assertions.assertTrue(loaded.getCapacity() < 100);
+
+        Path smallCapacity = dir.resolve("small.bin");
+        Files.write(smallCapacity, patchInt(bytes, 24, 1));
+        Assertions.assertThrows(IOException.class, () -> CustomArrayListFiles.loadIntArrayList(smallCapacity));
+
+        Path hugeId = dir.resolve("id.bin");
+        Files.write(hugeId, patchInt(bytes, 28, Integer.MAX_VALUE));
+        Assertions.assertThrows(IOException.class, () -> CustomArrayListFiles.loadIntArrayList(hugeId));
+
+        Path hugeSize = dir.resolve("size.bin");
+        Files.write(hugeSize, patchInt(bytes, 20, Integer.MAX_VALUE));
+        Assertions.assertThrows(IOException.class, () -> CustomArrayListFiles.load(hugeSize, ElementCodec.ints()));
+
+        Path truncated = dir.resolve("truncated.bin");
+        Files.write(truncated, Arrays.copyOf(bytes, bytes.length - 6));
+        Assertions.assertThrows(IOException.class, () -> CustomArrayListFiles.loadIntArrayList(truncated));
+    }
+
+    private static byte[] patchInt(byte[] bytes, int offset, int value) {
+        byte[] patched = bytes.clone();
+        ByteBuffer.wrap(patched).order(ByteOrder.LITTLE_ENDIAN).putInt(offset, value);
+        return patched;
+    }
+}
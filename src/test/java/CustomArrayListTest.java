@@ -1,11 +1,27 @@
 import ru.sviridov.Cat;
 import ru.sviridov.CustomArrayList;
+import ru.sviridov.CustomArrayListSnapshot;
+import ru.sviridov.GrowthPolicy;
+import ru.sviridov.ListMetrics;
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.lang.reflect.Field;
 import java.text.MessageFormat;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Comparator;
+import java.util.ConcurrentModificationException;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Random;
+import java.util.Spliterator;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.Collectors;
 
 public class CustomArrayListTest {
 
@@ -112,7 +128,7 @@ public class CustomArrayListTest {
         addList();
         addList();
         Assertions.assertEquals(20, testList.size());
-        Assertions.assertEquals(29, testList.getCapacity());
+        Assertions.assertEquals(22, testList.getCapacity());
     }
 
     @Test
@@ -122,9 +138,285 @@ public class CustomArrayListTest {
         for (int i = 0; i < 20; i++) {
             list.add(i);
         }
-        Assertions.assertEquals(29, list.getCapacity());
+        Assertions.assertEquals(22, list.getCapacity());
         list.trimToSize();
         Assertions.assertEquals(20, list.getCapacity());
+        list.clear();
+        list.trimToSize();
+        Assertions.assertEquals(0, list.getCapacity());
+        list.add(1);
+        Assertions.assertEquals("[1]", list.toString());
+    }
+
+    @Test
+    @DisplayName("проверка политик роста и ensureCapacity")
+    void growthPolicyTest() {
+        CustomArrayList<Integer> list = new CustomArrayList<>(1);
+        list.add(1);
+        Assertions.assertEquals(1, list.getCapacity());
+        list.add(2);
+        Assertions.assertEquals(2, list.getCapacity());
+
+        list.setGrowthPolicy(GrowthPolicy.fixedChunk(100));
+        list.add(3);
+        Assertions.assertEquals(102, list.getCapacity());
+        list.ensureCapacity(1000);
+        Assertions.assertEquals(1000, list.getCapacity());
+        list.ensureCapacity(10);
+        Assertions.assertEquals(1000, list.getCapacity());
+
+        list.setGrowthPolicy((oldCapacity, minCapacity) -> 0);
+        list.trimToSize();
+        list.add(4);
+        Assertions.assertEquals(4, list.getCapacity());
+        Assertions.assertEquals("[1, 2, 3, 4]", list.toString());
+
+        Assertions.assertEquals(GrowthPolicy.MAX_ARRAY_SIZE,
+                GrowthPolicy.geometric(2).newCapacity(Integer.MAX_VALUE / 2 + 10, Integer.MAX_VALUE / 2 + 11));
+        Assertions.assertEquals(Integer.MAX_VALUE,
+                GrowthPolicy.fixedChunk(100).newCapacity(Integer.MAX_VALUE - 1, Integer.MAX_VALUE));
+        Assertions.assertThrows(IllegalArgumentException.class, () -> GrowthPolicy.geometric(1));
+        Assertions.assertThrows(IllegalArgumentException.class, () -> GrowthPolicy.fixedChunk(0));
+        Assertions.assertThrows(NullPointerException.class, () -> list.setGrowthPolicy(null));
+    }
+
+    @Test
+    @DisplayName("проверка addAll: в конец, по индексу, из массива и из самого себя")
+    void addAllTest() {
+        CustomArrayList<Integer> list = new CustomArrayList<>(2);
+        Assertions.assertTrue(list.addAll(new Integer[]{1, 2, 3, 4, 5}));
+        Assertions.assertEquals(5, list.getCapacity());
+        Assertions.assertFalse(list.addAll(new Integer[0]));
+
+        CustomArrayList<Integer> other = new CustomArrayList<>();
+        other.addAll(new Integer[]{10, 20});
+        list.addAll(2, other);
+        Assertions.assertEquals("[1, 2, 10, 20, 3, 4, 5]", list.toString());
+        list.addAll(0, new Integer[]{0});
+        list.addAll(list);
+        Assertions.assertEquals("[0, 1, 2, 10, 20, 3, 4, 5, 0, 1, 2, 10, 20, 3, 4, 5]", list.toString());
+        list.addAll(3, list);
+        Assertions.assertEquals(32, list.size());
+        Assertions.assertEquals(0, list.get(3));
+        Assertions.assertEquals(10, list.get(19));
+        Assertions.assertEquals(20, list.get(20));
+        Assertions.assertThrows(ArrayIndexOutOfBoundsException.class, () -> list.addAll(33, other));
+        Assertions.assertThrows(ArrayIndexOutOfBoundsException.class, () -> list.addAll(-1, new Integer[]{1}));
+
+        CustomArrayList<Integer> indexed = new CustomArrayList<>();
+        indexed.enableIndex();
+        indexed.addAll(new Integer[]{5, 6, 7});
+        Assertions.assertEquals(2, indexed.indexOf(7));
+        indexed.addAll(0, new Integer[]{7});
+        Assertions.assertEquals(0, indexed.indexOf(7));
+        Assertions.assertEquals(1, indexed.indexOf(5));
+    }
+
+    @Test
+    @DisplayName("проверка setRange и removeRange")
+    void rangeTest() throws Exception {
+        CustomArrayList<Integer> list = new CustomArrayList<>();
+        list.addAll(new Integer[]{0, 1, 2, 3, 4, 5, 6, 7, 8, 9});
+        CustomArrayListSnapshot<Integer> snapshot = list.snapshot();
+        list.setRange(2, new Integer[]{20, 30});
+        Assertions.assertEquals("[0, 1, 20, 30, 4, 5, 6, 7, 8, 9]", list.toString());
+        Assertions.assertEquals(2, snapshot.get(2));
+        Assertions.assertThrows(IndexOutOfBoundsException.class, () -> list.setRange(9, new Integer[]{1, 2}));
+        Assertions.assertThrows(IndexOutOfBoundsException.class, () -> list.setRange(-1, new Integer[0]));
+
+        list.removeRange(1, 4);
+        Assertions.assertEquals("[0, 4, 5, 6, 7, 8, 9]", list.toString());
+        list.removeRange(5, 7);
+        list.removeRange(2, 2);
+        Assertions.assertEquals("[0, 4, 5, 6, 7]", list.toString());
+        Assertions.assertThrows(IndexOutOfBoundsException.class, () -> list.removeRange(3, 6));
+        Assertions.assertThrows(IndexOutOfBoundsException.class, () -> list.removeRange(3, 2));
+
+        Field field = CustomArrayList.class.getDeclaredField("elementData");
+        field.setAccessible(true);
+        Object[] elementData = (Object[]) field.get(list);
+        for (int i = list.size(); i < elementData.length; i++) {
+            Assertions.assertNull(elementData[i]);
+        }
+    }
+
+    @Test
+    @DisplayName("проверка итератора: обход, удаление и fail-fast")
+    void iteratorTest() {
+        CustomArrayList<Integer> list = new CustomArrayList<>();
+        list.addAll(new Integer[]{1, 2, 3, 4, 5, 6});
+        int sum = 0;
+        for (int value : list) {
+            sum += value;
+        }
+        Assertions.assertEquals(21, sum);
+
+        Iterator<Integer> it = list.iterator();
+        Assertions.assertThrows(IllegalStateException.class, it::remove);
+        while (it.hasNext()) {
+            if (it.next() % 2 == 0) {
+                it.remove();
+            }
+        }
+        Assertions.assertEquals("[1, 3, 5]", list.toString());
+        Assertions.assertThrows(NoSuchElementException.class, it::next);
+
+        Assertions.assertThrows(ConcurrentModificationException.class, () -> {
+            for (Integer value : list) {
+                list.add(value);
+            }
+        });
+        Assertions.assertThrows(ConcurrentModificationException.class, () -> list.forEach(v -> list.sort()));
+        CustomArrayList<Integer> copy = new CustomArrayList<>();
+        list.forEach(copy::add);
+        Assertions.assertEquals(list.size(), copy.size());
+    }
+
+    @Test
+    @DisplayName("проверка сплитератора и потоков")
+    void streamTest() {
+        CustomArrayList<Integer> list = new CustomArrayList<>();
+        for (int i = 0; i < 100_000; i++) {
+            list.add(i);
+        }
+        Spliterator<Integer> spliterator = list.spliterator();
+        Assertions.assertTrue(spliterator.hasCharacteristics(Spliterator.SIZED | Spliterator.SUBSIZED | Spliterator.ORDERED));
+        Spliterator<Integer> prefix = spliterator.trySplit();
+        Assertions.assertEquals(50_000, prefix.estimateSize());
+        Assertions.assertEquals(50_000, spliterator.estimateSize());
+        prefix.tryAdvance(v -> Assertions.assertEquals(0, v));
+        spliterator.tryAdvance(v -> Assertions.assertEquals(50_000, v));
+
+        Assertions.assertEquals(4_999_950_000L, list.stream().mapToLong(Integer::longValue).sum());
+        Assertions.assertEquals(4_999_950_000L, list.parallelStream().mapToLong(Integer::longValue).sum());
+        List<Integer> evens = list.parallelStream().filter(v -> v % 2 == 0).map(v -> v / 2).collect(Collectors.toList());
+        Assertions.assertEquals(50_000, evens.size());
+        for (int i = 0; i < evens.size(); i++) {
+            Assertions.assertEquals(i, evens.get(i));
+        }
+        Assertions.assertThrows(ConcurrentModificationException.class,
+                () -> list.stream().forEach(v -> {
+                    if (v == 10) {
+                        list.add(-1);
+                    }
+                }));
+        Assertions.assertEquals(0, new CustomArrayList<Integer>().stream().count());
+    }
+
+    @Test
+    @DisplayName("проверка параллельных массовых операций")
+    void parallelOpsTest() {
+        CustomArrayList<Integer> list = new CustomArrayList<>();
+        for (int i = 0; i < 100_000; i++) {
+            list.add(i % 1000);
+        }
+        for (int threshold : new int[]{1 << 14, 1000, 7}) {
+            list.setParallelThreshold(threshold);
+            Assertions.assertEquals(999, list.parallelIndexOf(999));
+            Assertions.assertEquals(list.indexOf(500), list.parallelIndexOf(500));
+            Assertions.assertEquals(-1, list.parallelIndexOf(1000));
+            Assertions.assertEquals(49_950_000, list.parallelReduce(0, Integer::sum));
+        }
+        Assertions.assertThrows(IllegalArgumentException.class, () -> list.setParallelThreshold(0));
+
+        list.setParallelThreshold(1000);
+        list.parallelReplaceAll(v -> v * 2);
+        Assertions.assertEquals(1998, list.get(99_999));
+        LongAdder sum = new LongAdder();
+        list.parallelForEach(sum::add);
+        Assertions.assertEquals(99_900_000, sum.sum());
+
+        CustomArrayList<String> words = new CustomArrayList<>();
+        for (int i = 0; i < 5000; i++) {
+            words.add(String.valueOf(i % 10));
+        }
+        words.setParallelThreshold(100);
+        StringBuilder expected = new StringBuilder();
+        words.forEach(expected::append);
+        Assertions.assertEquals(expected.toString(), words.parallelReduce("", String::concat));
+
+        CustomArrayList<Long> ones = new CustomArrayList<>();
+        for (int i = 0; i < 50_000; i++) {
+            ones.add(1L);
+        }
+        CustomArrayListSnapshot<Long> before = ones.snapshot();
+        ones.setParallelThreshold(333);
+        ones.parallelPrefix(Long::sum);
+        for (int i = 0; i < ones.size(); i++) {
+            Assertions.assertEquals(i + 1, ones.get(i));
+        }
+        Assertions.assertEquals(1L, before.get(49_999));
+        CustomArrayList<Long> empty = new CustomArrayList<>();
+        empty.parallelPrefix(Long::sum);
+        Assertions.assertEquals(7L, empty.parallelReduce(7L, Long::sum));
+    }
+
+    @Test
+    @DisplayName("проверка select и topK против полной сортировки")
+    void selectionTest() {
+        Random random = new Random(23);
+        Integer[] values = new Integer[20_000];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = random.nextInt(5000);
+        }
+        Integer[] sorted = values.clone();
+        Arrays.sort(sorted);
+        CustomArrayList<Integer> list = new CustomArrayList<>();
+        list.addAll(values);
+        list.setParallelThreshold(1000);
+
+        CustomArrayList<Integer> top = list.topK(100, Comparator.naturalOrder());
+        CustomArrayList<Integer> parallelTop = list.parallelTopK(100, Comparator.naturalOrder());
+        Assertions.assertEquals(100, top.size());
+        for (int i = 0; i < 100; i++) {
+            Assertions.assertEquals(sorted[sorted.length - 1 - i], top.get(i));
+            Assertions.assertEquals(sorted[sorted.length - 1 - i], parallelTop.get(i));
+        }
+        Assertions.assertEquals(values[0], list.get(0));
+        Assertions.assertEquals(0, list.topK(0, Comparator.naturalOrder()).size());
+        Assertions.assertThrows(IllegalArgumentException.class, () -> list.topK(-1, Comparator.naturalOrder()));
+
+        for (int k : new int[]{0, 1, 777, values.length / 2, values.length - 1}) {
+            Assertions.assertEquals(sorted[k], list.select(k, Comparator.naturalOrder()));
+            for (int i = 0; i < k; i += 97) {
+                Assertions.assertTrue(list.get(i) <= sorted[k]);
+            }
+        }
+        Assertions.assertThrows(IndexOutOfBoundsException.class, () -> list.select(values.length, Comparator.naturalOrder()));
+
+        CustomArrayList<Cat> cats = new CustomArrayList<>();
+        for (int i = 0; i < 50; i++) {
+            cats.add(new Cat("cat" + i, i % 7, i));
+        }
+        CustomArrayList<Cat> fastest = cats.topK(3, Comparator.comparingInt(Cat::getMaxSpeed));
+        Assertions.assertEquals("cat49", fastest.get(0).getName());
+        Assertions.assertEquals("cat47", fastest.get(2).getName());
+        Assertions.assertEquals(3, cats.select(25, Comparator.comparingInt(Cat::getWeight)).getWeight());
+    }
+
+    @Test
+    @DisplayName("проверка автоматического уменьшения массива после удалений")
+    void autoShrinkTest() {
+        CustomArrayList<Integer> list = new CustomArrayList<>();
+        list.ensureCapacity(1000);
+        for (int i = 0; i < 1000; i++) {
+            list.add(i);
+        }
+        Assertions.assertEquals(1000, list.getCapacity());
+        list.setAutoShrink(true);
+        list.removeIf(i -> i >= 100);
+        Assertions.assertEquals(200, list.getCapacity());
+        Assertions.assertEquals(100, list.size());
+        Assertions.assertEquals(99, list.get(99));
+        // между порогами уменьшения и роста массив не копируется
+        for (int i = 0; i < 40; i++) {
+            list.remove(i);
+        }
+        Assertions.assertEquals(200, list.getCapacity());
+        list.clear();
+        Assertions.assertEquals(10, list.getCapacity());
+        list.add(7);
+        Assertions.assertEquals("[7]", list.toString());
     }
 
 
@@ -165,4 +457,321 @@ public class CustomArrayListTest {
         list.sort(Comparator.comparing(Cat::getName));
         Assertions.assertEquals(expectedByName, list.toString());
     }
+
+    @Test
+    @DisplayName("проверка параллельной сортировки")
+    void parallelSortTest() {
+        Random random = new Random(42);
+        CustomArrayList<Integer> list = new CustomArrayList<>();
+        Integer[] expected = new Integer[50_000];
+        for (int i = 0; i < expected.length; i++) {
+            expected[i] = random.nextInt(1000);
+            list.add(expected[i]);
+        }
+        list.setParallelSortThreshold(64);
+        list.parallelSort();
+        Arrays.sort(expected);
+        for (int i = 0; i < expected.length; i++) {
+            Assertions.assertEquals(expected[i], list.get(i));
+        }
+        list.parallelSort(Comparator.reverseOrder());
+        for (int i = 0; i < expected.length; i++) {
+            Assertions.assertEquals(expected[expected.length - 1 - i], list.get(i));
+        }
+        Assertions.assertThrows(IllegalArgumentException.class, () -> list.setParallelSortThreshold(1));
+    }
+
+    @Test
+    @DisplayName("проверка сортировки больших упорядоченных, обратных и повторяющихся данных")
+    void sortLargeInputsTest() {
+        int n = 200_000;
+        Random random = new Random(7);
+        int[][] inputs = new int[4][n];
+        for (int i = 0; i < n; i++) {
+            inputs[0][i] = i;                       // уже отсортированные
+            inputs[1][i] = n - i;                   // в обратном порядке
+            inputs[2][i] = random.nextInt(3);       // много одинаковых ключей
+            inputs[3][i] = i < n / 2 ? i : n - i;   // "пила"
+        }
+        for (int[] input : inputs) {
+            CustomArrayList<Integer> list = new CustomArrayList<>();
+            for (int value : input) {
+                list.add(value);
+            }
+            list.sort(Comparator.naturalOrder());
+            int[] expected = input.clone();
+            Arrays.sort(expected);
+            for (int i = 0; i < n; i++) {
+                Assertions.assertEquals(expected[i], list.get(i));
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("проверка стабильной сортировки")
+    void stableSortTest() {
+        Cat barsik = new Cat("Барсик", 10, 20);
+        Cat murka = new Cat("Мурка", 6, 28);
+        Cat vaska = new Cat("Васька", 10, 28);
+        Cat tom = new Cat("Том", 6, 20);
+        CustomArrayList<Cat> list = new CustomArrayList<>();
+        list.add(barsik);
+        list.add(murka);
+        list.add(vaska);
+        list.add(tom);
+        list.stableSort(Comparator.comparing(Cat::getWeight));
+        Assertions.assertEquals(MessageFormat.format("[{0}, {1}, {2}, {3}]", murka, tom, barsik, vaska), list.toString());
+        list.stableSort(Comparator.comparing(Cat::getMaxSpeed));
+        Assertions.assertEquals(MessageFormat.format("[{0}, {1}, {2}, {3}]", tom, barsik, murka, vaska), list.toString());
+
+        // почти отсортированные данные с повторами: сравнение со стабильным Arrays.sort
+        Random random = new Random(3);
+        int n = 100_000;
+        CustomArrayList<int[]> pairs = new CustomArrayList<>();
+        int[][] expected = new int[n][];
+        for (int i = 0; i < n; i++) {
+            int key = random.nextInt(10) == 0 ? random.nextInt(n) : i / 8;
+            expected[i] = new int[]{key, i};
+            pairs.add(expected[i]);
+        }
+        Comparator<int[]> byKey = Comparator.comparingInt(p -> p[0]);
+        pairs.stableSort(byKey);
+        Arrays.sort(expected, byKey);
+        for (int i = 0; i < n; i++) {
+            Assertions.assertSame(expected[i], pairs.get(i));
+        }
+        pairs.stableSort(byKey.reversed());
+        Arrays.sort(expected, byKey.reversed());
+        for (int i = 0; i < n; i++) {
+            Assertions.assertSame(expected[i], pairs.get(i));
+        }
+    }
+
+    @Test
+    @DisplayName("проверка неизменяемых снимков (copy-on-write)")
+    void snapshotTest() {
+        addList();
+        CustomArrayListSnapshot<String> first = testList.snapshot();
+        testList.add("John"); // добавление в конец не затрагивает снимок
+        CustomArrayListSnapshot<String> second = testList.snapshot();
+        testList.remove("Michael");
+        testList.add(0, "Kyle");
+        testList.sort();
+        Assertions.assertEquals("[Michael, Mary, Joan, Bill, Jack]", first.toString());
+        Assertions.assertEquals("[Michael, Mary, Joan, Bill, Jack, John]", second.toString());
+        Assertions.assertEquals("[Bill, Jack, Joan, John, Kyle, Mary]", testList.toString());
+        Assertions.assertEquals(5, first.size());
+        Assertions.assertEquals("Joan", first.get(2));
+        Assertions.assertTrue(second.contains("John"));
+        Assertions.assertThrows(IndexOutOfBoundsException.class, () -> first.get(5));
+        CustomArrayListSnapshot<String> third = testList.snapshot();
+        testList.clear();
+        Assertions.assertEquals(6, third.size());
+        StringBuilder names = new StringBuilder();
+        for (String name : third) {
+            names.append(name.charAt(0));
+        }
+        Assertions.assertEquals("BJJJKM", names.toString());
+    }
+
+    @Test
+    @DisplayName("проверка поиска через хеш-индекс")
+    void indexedLookupTest() {
+        addList();
+        testList.add("Mary");
+        Assertions.assertEquals(0, testList.indexMemoryBytes());
+        testList.enableIndex();
+        Assertions.assertTrue(testList.isIndexEnabled());
+        Assertions.assertTrue(testList.indexMemoryBytes() > 0);
+        Assertions.assertEquals(1, testList.indexOf("Mary"));
+        testList.add("John");
+        Assertions.assertEquals(6, testList.indexOf("John"));
+        testList.add(0, "Kyle");
+        Assertions.assertEquals(2, testList.indexOf("Mary"));
+        Assertions.assertTrue(testList.remove("Mary"));
+        Assertions.assertEquals(5, testList.indexOf("Mary"));
+        testList.sort();
+        Assertions.assertEquals(0, testList.indexOf("Bill"));
+        Assertions.assertFalse(testList.contains("Michael2"));
+        testList.add(null);
+        Assertions.assertEquals(7, testList.indexOf(null));
+        testList.clear();
+        Assertions.assertFalse(testList.contains("Bill"));
+        testList.add("Bill");
+        Assertions.assertEquals(0, testList.indexOf("Bill"));
+        testList.disableIndex();
+        Assertions.assertEquals(0, testList.indexOf("Bill"));
+
+        CustomArrayList<Integer> numbers = new CustomArrayList<>();
+        numbers.enableIndex();
+        for (int i = 0; i < 100_000; i++) {
+            numbers.add(i % 50_000);
+        }
+        Assertions.assertEquals(49_999, numbers.indexOf(49_999));
+        Assertions.assertEquals(-1, numbers.indexOf(50_000));
+    }
+
+    @Test
+    @DisplayName("проверка поддержки хеш-индекса при вставках и удалениях в середине")
+    void indexMaintenanceTest() {
+        Random random = new Random(9);
+        CustomArrayList<Integer> list = new CustomArrayList<>();
+        List<Integer> model = new ArrayList<>();
+        list.enableIndex();
+        for (int step = 0; step < 20_000; step++) {
+            // небольшой набор значений дает повторы; -1 заменяется на null
+            Integer value = random.nextInt(60) - 1;
+            if (value == -1) {
+                value = null;
+            }
+            int op = random.nextInt(8);
+            if (op == 0 || model.isEmpty()) {
+                list.add(value);
+                model.add(value);
+            } else if (op == 1) {
+                int at = random.nextInt(model.size() + 1);
+                list.add(at, value);
+                model.add(at, value);
+            } else if (op == 2) {
+                int at = random.nextInt(model.size() + 1);
+                Integer[] values = {value, random.nextInt(60), value};
+                list.addAll(at, values);
+                model.addAll(at, Arrays.asList(values));
+            } else if (op == 3) {
+                Assertions.assertEquals(model.remove(value), list.remove(value));
+            } else if (op == 4) {
+                int from = random.nextInt(model.size());
+                int to = Math.min(model.size(), from + random.nextInt(4));
+                list.removeRange(from, to);
+                model.subList(from, to).clear();
+            } else if (op == 5) {
+                int from = random.nextInt(model.size());
+                Integer[] values = {value};
+                list.setRange(from, values);
+                model.set(from, value);
+            } else if (op == 6 && step % 500 == 6) {
+                list.sort(Comparator.nullsFirst(Comparator.naturalOrder()));
+                model.sort(Comparator.nullsFirst(Comparator.naturalOrder()));
+            }
+            Integer probe = random.nextInt(61) - 1;
+            if (probe == -1) {
+                probe = null;
+            }
+            Assertions.assertEquals(model.indexOf(probe), list.indexOf(probe));
+            Assertions.assertEquals(model.contains(value), list.contains(value));
+        }
+        Assertions.assertEquals(model.size(), list.size());
+        for (int i = 0; i < model.size(); i++) {
+            Assertions.assertEquals(model.get(i), list.get(i));
+        }
+    }
+
+    @Test
+    @DisplayName("проверка хеш-индекса после removeIf и retainAll, обращающихся к тому же списку")
+    void indexReentrantBulkRemoveTest() {
+        CustomArrayList<Integer> list = new CustomArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            list.add(i);
+        }
+        list.enableIndex();
+        list.remove(Integer.valueOf(9));
+        list.add(9);
+        Assertions.assertTrue(list.removeIf(x -> list.contains(0) && x % 2 == 1));
+        Assertions.assertEquals("[0, 2, 4, 6, 8]", list.toString());
+        Assertions.assertEquals(4, list.indexOf(8));
+        Assertions.assertFalse(list.contains(9));
+
+        CustomArrayList<Integer> keep = new CustomArrayList<>() {
+            @Override
+            public boolean contains(Object o) {
+                list.indexOf(o);
+                return super.contains(o);
+            }
+        };
+        keep.add(8);
+        keep.add(2);
+        keep.add(7);
+        Assertions.assertTrue(list.retainAll(keep));
+        Assertions.assertEquals("[2, 8]", list.toString());
+        Assertions.assertEquals(1, list.indexOf(8));
+        Assertions.assertEquals(-1, list.indexOf(4));
+        Assertions.assertFalse(list.contains(0));
+    }
+
+    @Test
+    @DisplayName("проверка массового удаления: removeAll, retainAll, removeIf")
+    void bulkRemoveTest() {
+        addList();
+        CustomArrayList<String> keep = new CustomArrayList<>();
+        keep.add("Mary");
+        keep.add("Jack");
+        Assertions.assertTrue(testList.retainAll(keep));
+        Assertions.assertEquals("[Mary, Jack]", testList.toString());
+        Assertions.assertFalse(testList.retainAll(keep));
+        Assertions.assertTrue(testList.removeIf(name -> name.startsWith("M")));
+        Assertions.assertEquals("[Jack]", testList.toString());
+        Assertions.assertFalse(testList.removeIf(name -> name.isEmpty()));
+
+        // большая коллекция-аргумент (через хеш-множество) и повторяющиеся элементы
+        CustomArrayList<Integer> numbers = new CustomArrayList<>();
+        CustomArrayList<Integer> odd = new CustomArrayList<>();
+        for (int i = 0; i < 10_000; i++) {
+            numbers.add(i % 1000);
+            if (i % 2 == 1) {
+                odd.add(i);
+            }
+        }
+        Assertions.assertTrue(numbers.removeAll(odd));
+        Assertions.assertEquals(5_000, numbers.size());
+        Assertions.assertFalse(numbers.contains(999));
+        Assertions.assertTrue(numbers.contains(998));
+
+        // условие, бросающее исключение, не портит список
+        Assertions.assertThrows(IllegalStateException.class, () -> numbers.removeIf(n -> {
+            if (n == 500) throw new IllegalStateException();
+            return n < 100;
+        }));
+        Assertions.assertEquals(5_000 - 50, numbers.size());
+        Assertions.assertEquals(500, numbers.get(200));
+    }
+
+    @Test
+    @DisplayName("проверка, что удаленные элементы не удерживаются массивом")
+    void removedSlotsAreClearedTest() throws ReflectiveOperationException {
+        CustomArrayList<String> list = new CustomArrayList<>();
+        for (int i = 0; i < 8; i++) {
+            list.add("element" + i);
+        }
+        list.remove("element0");
+        list.removeIf(name -> name.endsWith("3") || name.endsWith("5"));
+        CustomArrayList<String> other = new CustomArrayList<>();
+        other.add("element7");
+        list.removeAll(other);
+        Assertions.assertEquals("[element1, element2, element4, element6]", list.toString());
+        Field field = CustomArrayList.class.getDeclaredField("elementData");
+        field.setAccessible(true);
+        Object[] elementData = (Object[]) field.get(list);
+        for (int i = list.size(); i < elementData.length; i++) {
+            Assertions.assertNull(elementData[i]);
+        }
+    }
+
+    @Test
+    @DisplayName("проверка, что без системного свойства метрики выключены и ничего не считают")
+    void metricsDisabledTest() throws Exception {
+        ListMetrics metrics = ListMetrics.get();
+        Assertions.assertFalse(metrics.isEnabled());
+        CustomArrayList<Integer> list = new CustomArrayList<>();
+        for (int i = 0; i < 100; i++) {
+            list.add(0, i);
+        }
+        list.indexOf(-1);
+        list.sort();
+        Assertions.assertEquals(0, metrics.getGrowCount());
+        Assertions.assertEquals(0, metrics.getShiftedElements());
+        Assertions.assertEquals(0, metrics.getLookupCount());
+        Assertions.assertEquals(0, metrics.getSortCount());
+        Assertions.assertFalse(ManagementFactory.getPlatformMBeanServer()
+                .isRegistered(new ObjectName(ListMetrics.OBJECT_NAME)));
+    }
 }
@@ -0,0 +1,225 @@
+import ru.sviridov.Cat;
+import ru.sviridov.CustomArrayList;
+import ru.sviridov.GapBufferCustomArrayList;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.lang.reflect.Field;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.ConcurrentModificationException;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+public class GapBufferCustomArrayListTest {
+
+    @Test
+    @DisplayName("Проверка добавления, получения и удаления в GapBufferCustomArrayList")
+    void addGetRemoveTest() {
+        GapBufferCustomArrayList<String> list = new GapBufferCustomArrayList<>(2);
+        list.add("John");
+        list.add("Mary");
+        list.add(0, "Bill");
+        list.add(1, "Jack");
+        Assertions.assertEquals("[Bill, Jack, John, Mary]", list.toString());
+        Assertions.assertEquals(4, list.size());
+        Assertions.assertEquals("Mary", list.get(3));
+        Assertions.assertThrows(IndexOutOfBoundsException.class, () -> list.get(4));
+        Assertions.assertThrows(ArrayIndexOutOfBoundsException.class, () -> list.add(5, "Joan"));
+        Assertions.assertEquals("Jack", list.removeAt(1));
+        Assertions.assertTrue(list.remove("Mary"));
+        Assertions.assertFalse(list.remove("Mary"));
+        Assertions.assertEquals(1, list.indexOf("John"));
+        Assertions.assertTrue(list.contains("Bill"));
+        list.trimToSize();
+        Assertions.assertEquals(2, list.getCapacity());
+        Assertions.assertEquals("[Bill, John]", list.toString());
+        list.clear();
+        Assertions.assertEquals(0, list.size());
+        list.add("Joan");
+        Assertions.assertEquals("[Joan]", list.toString());
+        Assertions.assertThrows(IllegalArgumentException.class, () -> new GapBufferCustomArrayList<>(0));
+    }
+
+    @Test
+    @DisplayName("Проверка случайных правок около курсора против ArrayList")
+    void randomEditsTest() throws Exception {
+        Random random = new Random(5);
+        GapBufferCustomArrayList<Integer> list = new GapBufferCustomArrayList<>();
+        List<Integer> expected = new ArrayList<>();
+        int cursor = 0;
+        for (int step = 0; step < 20_000; step++) {
+            cursor = Math.max(0, Math.min(expected.size(), cursor + random.nextInt(7) - 3));
+            if (random.nextInt(3) > 0 || expected.isEmpty()) {
+                list.add(cursor, step);
+                expected.add(cursor, step);
+            } else {
+                int i = Math.min(cursor, expected.size() - 1);
+                Assertions.assertEquals(expected.remove(i), list.removeAt(i));
+            }
+            if (step % 997 == 0) {
+                int i = random.nextInt(expected.size());
+                Assertions.assertEquals(expected.get(i), list.get(i));
+                Assertions.assertEquals(expected.indexOf(expected.get(i)), list.indexOf(expected.get(i)));
+            }
+        }
+        Assertions.assertEquals(expected.toString(), list.toString());
+
+        // ячейки разрыва не должны удерживать удаленные объекты
+        Field field = GapBufferCustomArrayList.class.getDeclaredField("elementData");
+        field.setAccessible(true);
+        long nonNull = 0;
+        for (Object e : (Object[]) field.get(list)) {
+            if (e != null) {
+                nonNull++;
+            }
+        }
+        Assertions.assertEquals(expected.size(), nonNull);
+
+        list.sort();
+        expected.sort(Comparator.naturalOrder());
+        Assertions.assertEquals(expected.toString(), list.toString());
+    }
+
+    @Test
+    @DisplayName("Проверка сортировки с компаратором")
+    void sortTest() {
+        GapBufferCustomArrayList<Cat> cats = new GapBufferCustomArrayList<>();
+        cats.add(new Cat("Tom", 5, 20));
+        cats.add(new Cat("Kitty", 3, 25));
+        cats.add(0, new Cat("Garfield", 9, 10));
+        cats.sort(Comparator.comparingInt(Cat::getWeight));
+        Assertions.assertEquals("Kitty", cats.get(0).getName());
+        Assertions.assertEquals("Garfield", cats.get(2).getName());
+    }
+
+    @Test
+    @DisplayName("Проверка диапазонов, стабильной и параллельной сортировки, групповых операций со списком с разрывом")
+    void rangesAndSortsTest() {
+        GapBufferCustomArrayList<Integer> list = new GapBufferCustomArrayList<>();
+        Assertions.assertNotNull(list.getGrowthPolicy());
+        List<Integer> expected = new ArrayList<>();
+        for (int i = 0; i < 20; i++) {
+            list.add(i);
+            expected.add(i);
+        }
+        // разрыв в середине: диапазон пересекает его
+        list.add(8, -1);
+        expected.add(8, -1);
+        list.setRange(5, new Integer[]{50, 60, 70, 80, 90});
+        for (int i = 0; i < 5; i++) {
+            expected.set(5 + i, 50 + i * 10);
+        }
+        Assertions.assertEquals(expected.toString(), list.toString());
+        list.removeRange(2, 12);
+        expected.subList(2, 12).clear();
+        Assertions.assertEquals(expected.toString(), list.toString());
+        Assertions.assertThrows(IndexOutOfBoundsException.class, () -> list.removeRange(3, 100));
+        Assertions.assertThrows(IndexOutOfBoundsException.class, () -> list.setRange(10, new Integer[]{1, 2}));
+
+        GapBufferCustomArrayList<Integer> other = new GapBufferCustomArrayList<>();
+        for (int i = 0; i < 40; i++) {
+            other.add(i * 3);
+        }
+        Assertions.assertTrue(list.removeAll(other));
+        expected.removeIf(e -> e % 3 == 0 && e < 120);
+        Assertions.assertEquals(expected.toString(), list.toString());
+        CustomArrayList<Integer> custom = new CustomArrayList<>();
+        custom.add(13);
+        custom.add(19);
+        list.addAll(0, custom);
+        expected.addAll(0, Arrays.asList(13, 19));
+        Assertions.assertEquals(expected.toString(), list.toString());
+        GapBufferCustomArrayList<Integer> keep = new GapBufferCustomArrayList<>();
+        keep.add(19);
+        keep.add(17);
+        Assertions.assertTrue(list.retainAll(keep));
+        expected.removeIf(e -> e != 19 && e != 17);
+        Assertions.assertEquals(expected.toString(), list.toString());
+
+        GapBufferCustomArrayList<Cat> cats = new GapBufferCustomArrayList<>();
+        Random random = new Random(3);
+        for (int i = 0; i < 5_000; i++) {
+            cats.add(i / 2, new Cat("Cat" + i, random.nextInt(10), i));
+        }
+        Map<Object, Integer> order = new IdentityHashMap<>();
+        Object[] unsorted = cats.toArray();
+        for (int i = 0; i < unsorted.length; i++) {
+            order.put(unsorted[i], i);
+        }
+        cats.stableSort(Comparator.comparingInt(Cat::getWeight));
+        for (int i = 1; i < cats.size(); i++) {
+            Cat a = cats.get(i - 1);
+            Cat b = cats.get(i);
+            Assertions.assertTrue(a.getWeight() < b.getWeight()
+                    || a.getWeight() == b.getWeight() && order.get(a) < order.get(b));
+        }
+        GapBufferCustomArrayList<Integer> numbers = new GapBufferCustomArrayList<>();
+        List<Integer> sorted = new ArrayList<>();
+        for (int i = 0; i < 30_000; i++) {
+            int value = random.nextInt();
+            numbers.add(i / 3, value);
+            sorted.add(value);
+        }
+        sorted.sort(null);
+        numbers.setParallelSortThreshold(1 << 10);
+        numbers.parallelSort();
+        Assertions.assertEquals(sorted.toString(), numbers.toString());
+    }
+
+    @Test
+    @DisplayName("Проверка групповых операций и итератора")
+    void bulkAndIteratorTest() {
+        GapBufferCustomArrayList<Integer> list = new GapBufferCustomArrayList<>(2);
+        list.addAll(new Integer[]{1, 2, 3, 4, 5, 6});
+        list.add(3, 100);
+        list.addAll(3, new Integer[]{7, 8});
+        Assertions.assertEquals("[1, 2, 3, 7, 8, 100, 4, 5, 6]", list.toString());
+        list.addAll(list);
+        Assertions.assertEquals(18, list.size());
+        Assertions.assertFalse(list.addAll(new Integer[0]));
+
+        CustomArrayList<Integer> toRemove = new CustomArrayList<>();
+        for (int i = 0; i < 20; i++) {
+            toRemove.add(i * 2);
+        }
+        Assertions.assertTrue(list.removeAll(toRemove));
+        Assertions.assertEquals("[1, 3, 7, 100, 5, 1, 3, 7, 100, 5]", list.toString());
+        Assertions.assertTrue(list.removeIf(e -> e == 100));
+        Assertions.assertFalse(list.removeIf(e -> e > 1000));
+        CustomArrayList<Integer> toKeep = new CustomArrayList<>();
+        toKeep.add(3);
+        toKeep.add(5);
+        Assertions.assertTrue(list.retainAll(toKeep));
+        Assertions.assertEquals("[3, 5, 3, 5]", list.toString());
+        list.add(1, 9);
+
+        int sum = 0;
+        for (int value : list) {
+            sum += value;
+        }
+        Assertions.assertEquals(25, sum);
+        Iterator<Integer> it = list.iterator();
+        while (it.hasNext()) {
+            if (it.next() == 3) {
+                it.remove();
+            }
+        }
+        Assertions.assertEquals("[9, 5, 5]", list.toString());
+        Iterator<Integer> first = list.iterator();
+        Assertions.assertThrows(IllegalStateException.class, first::remove);
+        Assertions.assertEquals(9, first.next());
+        first.remove();
+        Assertions.assertThrows(IllegalStateException.class, first::remove);
+        Assertions.assertEquals("[5, 5]", list.toString());
+        Iterator<Integer> stale = list.iterator();
+        list.add(0);
+        Assertions.assertThrows(ConcurrentModificationException.class, stale::next);
+        Assertions.assertThrows(ArrayIndexOutOfBoundsException.class, () -> list.addAll(10, new Integer[]{1}));
+    }
+}
@@ -0,0 +1,98 @@
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import ru.sviridov.CustomArrayList;
+import ru.sviridov.ListMetrics;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Метрики включаются системным свойством ru.sviridov.metrics, которое surefire задает только
+ * для этого класса (отдельное выполнение metrics-test); остальные тесты идут с выключенными метриками.
+ */
+public class ListMetricsTest {
+
+    @Test
+    @DisplayName("Проверка счетчиков роста, сдвигов, поиска и сортировки")
+    void countersTest() {
+        ListMetrics metrics = ListMetrics.get();
+        Assertions.assertTrue(metrics.isEnabled());
+        long grows = metrics.getGrowCount();
+        long copied = metrics.getCopiedElements();
+        long shifted = metrics.getShiftedElements();
+        long lookups = metrics.getLookupCount();
+        long scanned = metrics.getLookupScannedElements();
+        long sorts = metrics.getSortCount();
+        long comparisons = metrics.getSortComparisons();
+
+        CustomArrayList<Integer> list = new CustomArrayList<>();
+        for (int i = 0; i < 11; i++) {
+            list.add(i);
+        }
+        Assertions.assertEquals(grows + 1, metrics.getGrowCount());
+        Assertions.assertEquals(copied + 10, metrics.getCopiedElements());
+
+        list.add(0, -1);
+        Assertions.assertEquals(shifted + 11, metrics.getShiftedElements());
+
+        Assertions.assertEquals(5, list.indexOf(4));
+        Assertions.assertEquals(-1, list.indexOf(100));
+        Assertions.assertEquals(lookups + 2, metrics.getLookupCount());
+        Assertions.assertEquals(scanned + 6 + 12, metrics.getLookupScannedElements());
+
+        list.sort();
+        list.stableSort();
+        list.parallelSort();
+        Assertions.assertEquals(sorts + 3, metrics.getSortCount());
+        Assertions.assertTrue(metrics.getSortComparisons() >= comparisons + 3 * 11);
+        Assertions.assertTrue(metrics.getSortComparisonsHistogram().length > 0);
+        Assertions.assertTrue(metrics.getLookupDepthHistogram().length > 0);
+        // 10 скопированных элементов попадают в ячейку [8, 16)
+        Assertions.assertTrue(metrics.getGrowSizeHistogram()[4] > 0);
+        Assertions.assertTrue(metrics.getCopiedElementsHistogram()[4] > 0);
+        Assertions.assertEquals("[-1, 0, 1, 2, 3, 4, 5, 6, 7, 8, 9, 10]", list.toString());
+    }
+
+    @Test
+    @DisplayName("Проверка публикации метрик через JMX")
+    void mbeanTest() throws Exception {
+        new CustomArrayList<Integer>().add(1);
+        ObjectName name = new ObjectName(ListMetrics.OBJECT_NAME);
+        Object grows = ManagementFactory.getPlatformMBeanServer().getAttribute(name, "GrowCount");
+        Assertions.assertEquals(ListMetrics.get().getGrowCount(), grows);
+        Assertions.assertEquals(Boolean.TRUE, ManagementFactory.getPlatformMBeanServer().getAttribute(name, "Enabled"));
+    }
+
+    @Test
+    @DisplayName("Проверка события JFR о сортировке")
+    void jfrEventTest(@TempDir Path dir) throws Exception {
+        CustomArrayList<Integer> list = new CustomArrayList<>();
+        for (int i = 0; i < 1000; i++) {
+            list.add(1000 - i);
+        }
+        Path file = dir.resolve("sort.jfr");
+        try (Recording recording = new Recording()) {
+            recording.enable("ru.sviridov.Sort").withoutThreshold();
+            recording.start();
+            list.sort();
+            recording.stop();
+            recording.dump(file);
+        }
+        List<RecordedEvent> events = RecordingFile.readAllEvents(file).stream()
+                .filter(e -> e.getEventType().getName().equals("ru.sviridov.Sort"))
+                .collect(Collectors.toList());
+        Assertions.assertEquals(1, events.size());
+        RecordedEvent event = events.get(0);
+        Assertions.assertEquals("introSort", event.getString("algorithm"));
+        Assertions.assertEquals(1000, event.getInt("size"));
+        Assertions.assertTrue(event.getLong("comparisons") >= 999);
+    }
+}
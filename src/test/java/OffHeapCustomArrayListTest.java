@@ -0,0 +1,126 @@
+import ru.sviridov.Cat;
+import ru.sviridov.CatCodec;
+import ru.sviridov.ElementCodec;
+import ru.sviridov.OffHeapCustomArrayList;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.lang.management.ManagementFactory;
+import java.text.MessageFormat;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Random;
+
+public class OffHeapCustomArrayListTest {
+
+    @Test
+    @DisplayName("Проверка добавления, получения и удаления вне кучи")
+    void addGetRemoveTest() {
+        try (OffHeapCustomArrayList<Integer> list = new OffHeapCustomArrayList<>(ElementCodec.ints(), 4)) {
+            for (int i = 0; i < 10; i++) {
+                list.add(i);
+            }
+            list.add(0, -1);
+            list.add(11, 100);
+            Assertions.assertEquals(12, list.size());
+            Assertions.assertEquals(12, list.getCapacity());
+            Assertions.assertEquals("[-1, 0, 1, 2, 3, 4, 5, 6, 7, 8, 9, 100]", list.toString());
+            Assertions.assertTrue(list.remove(4));
+            Assertions.assertFalse(list.contains(4));
+            Assertions.assertEquals(5, list.indexOf(5));
+            Assertions.assertThrows(IndexOutOfBoundsException.class, () -> list.get(11));
+            Assertions.assertThrows(ArrayIndexOutOfBoundsException.class, () -> list.add(-1, 5));
+            Assertions.assertThrows(NullPointerException.class, () -> list.add(null));
+            list.clear();
+            list.trimToSize();
+            Assertions.assertEquals(0, list.offHeapBytes());
+        }
+    }
+
+    @Test
+    @DisplayName("Проверка кодека Cat и сортировки с компаратором вне кучи")
+    void catCodecSortTest() {
+        Cat barsik = new Cat("Барсик", 10, 20);
+        Cat murka = new Cat("Мурка", 6, 28);
+        Cat gepard = new Cat("Гепард", 50, 100);
+        Cat leopard = new Cat("Леопард", 31, 58);
+        CatCodec codec = new CatCodec();
+        try (OffHeapCustomArrayList<Cat> list = new OffHeapCustomArrayList<>(codec)) {
+            list.add(barsik);
+            list.add(murka);
+            list.add(gepard);
+            list.add(leopard);
+            list.add(new Cat("Барсик", 1, 1));
+            Assertions.assertEquals(4, codec.dictionarySize());
+            Assertions.assertEquals(1, list.indexOf(new Cat("Мурка", 6, 28)));
+            Assertions.assertTrue(list.remove(new Cat("Барсик", 1, 1)));
+            list.sort(Comparator.comparing(Cat::getMaxSpeed));
+            Assertions.assertEquals(MessageFormat.format("[{0}, {1}, {2}, {3}]", barsik, murka, leopard, gepard), list.toString());
+            list.sort(Comparator.comparing(Cat::getName));
+            Assertions.assertEquals(MessageFormat.format("[{0}, {1}, {2}, {3}]", barsik, gepard, leopard, murka), list.toString());
+            list.sort(codec.byWeight());
+            Assertions.assertEquals(MessageFormat.format("[{0}, {1}, {2}, {3}]", murka, barsik, leopard, gepard), list.toString());
+            list.sort(codec.byMaxSpeed());
+            Assertions.assertEquals(MessageFormat.format("[{0}, {1}, {2}, {3}]", barsik, murka, leopard, gepard), list.toString());
+            list.sort(codec.byName());
+            Assertions.assertEquals(MessageFormat.format("[{0}, {1}, {2}, {3}]", barsik, gepard, leopard, murka), list.toString());
+        }
+    }
+
+    @Test
+    @DisplayName("Проверка сортировки большого списка и освобождения памяти")
+    void sortAndCloseTest() {
+        Random random = new Random(5);
+        OffHeapCustomArrayList<Long> list = new OffHeapCustomArrayList<>(ElementCodec.longs(), 1 << 10);
+        long[] expected = new long[20_000];
+        for (int i = 0; i < expected.length; i++) {
+            expected[i] = random.nextLong();
+            list.add(expected[i]);
+        }
+        list.sort();
+        Arrays.sort(expected);
+        for (int i = 0; i < expected.length; i++) {
+            Assertions.assertEquals(expected[i], list.get(i));
+        }
+        list.close();
+        Assertions.assertTrue(list.isClosed());
+        Assertions.assertThrows(IllegalStateException.class, () -> list.get(0));
+        list.close();
+    }
+
+    @Test
+    @DisplayName("Проверка, что сортировка закодированных записей не создает объектов в куче")
+    void encodedSortAllocationTest() {
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long thread = Thread.currentThread().getId();
+        Random random = new Random(7);
+        try (OffHeapCustomArrayList<Long> list = new OffHeapCustomArrayList<>(ElementCodec.longs(), 1 << 10)) {
+            for (int i = 0; i < 20_000; i++) {
+                list.add(random.nextLong());
+            }
+            list.sort(Comparator.reverseOrder());
+            long before = threads.getThreadAllocatedBytes(thread);
+            list.sort();
+            long encoded = threads.getThreadAllocatedBytes(thread) - before;
+            for (int i = 1; i < list.size(); i += 97) {
+                Assertions.assertTrue(list.get(i - 1) <= list.get(i));
+            }
+
+            list.sort(Comparator.reverseOrder());
+            before = threads.getThreadAllocatedBytes(thread);
+            list.sort(Comparator.naturalOrder());
+            long decoded = threads.getThreadAllocatedBytes(thread) - before;
+            // сравнение объектов декодирует записи: O(n log(n)) объектов Long против почти нуля
+            Assertions.assertTrue(encoded < 64 * 1024, "encoded sort allocated " + encoded + " bytes");
+            Assertions.assertTrue(decoded > 16 * encoded, "comparator sort allocated " + decoded + " bytes");
+        }
+    }
+
+    @Test
+    @DisplayName("Проверка предела памяти вне кучи по умолчанию")
+    void defaultDirectMemoryLimitTest() {
+        // surefire не задает -XX:MaxDirectMemorySize, поэтому предел равен размеру кучи
+        Assertions.assertEquals(Runtime.getRuntime().maxMemory(), OffHeapCustomArrayList.maxOffHeapBytes());
+    }
+}
@@ -0,0 +1,39 @@
+import ru.sviridov.ElementCodec;
+import ru.sviridov.OffHeapCustomArrayList;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Запускается surefire в отдельной JVM с -XX:MaxDirectMemorySize=8m (выполнение direct-memory-test).
+ */
+public class OffHeapDirectMemoryLimitTest {
+
+    private static final long LIMIT = 8L << 20;
+
+    @Test
+    @DisplayName("Проверка, что список вне кучи ограничен -XX:MaxDirectMemorySize, а не кучей")
+    void directMemoryLimitTest() {
+        Assertions.assertEquals(LIMIT, OffHeapCustomArrayList.maxOffHeapBytes());
+        OffHeapCustomArrayList<Long> list = new OffHeapCustomArrayList<>(ElementCodec.longs(), 1 << 14);
+        OutOfMemoryError error = Assertions.assertThrows(OutOfMemoryError.class, () -> {
+            for (long i = 0; ; i++) {
+                list.add(i);
+            }
+        });
+        Assertions.assertTrue(error.getMessage().contains("MaxDirectMemorySize"), error.getMessage());
+        Assertions.assertTrue(list.offHeapBytes() <= LIMIT);
+        Assertions.assertTrue(list.offHeapBytes() >= LIMIT / 2);
+        int size = list.size();
+        Assertions.assertEquals(size - 1, list.get(size - 1));
+
+        // после close память возвращается, и новый список снова может ее занять
+        list.close();
+        try (OffHeapCustomArrayList<Long> other = new OffHeapCustomArrayList<>(ElementCodec.longs(), 1 << 14)) {
+            for (long i = 0; i < size; i++) {
+                other.add(i);
+            }
+            Assertions.assertEquals(size, other.size());
+        }
+    }
+}
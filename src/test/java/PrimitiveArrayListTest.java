@@ -0,0 +1,89 @@
+import ru.sviridov.DoubleArrayList;
+import ru.sviridov.IntArrayList;
+import ru.sviridov.LongArrayList;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Random;
+
+public class PrimitiveArrayListTest {
+
+    @Test
+    @DisplayName("Проверка добавления, получения и удаления в IntArrayList")
+    void intAddGetRemoveTest() {
+        IntArrayList list = new IntArrayList();
+        for (int i = 0; i < 20; i++) {
+            list.add(i);
+        }
+        list.add(0, -1);
+        Assertions.assertEquals(21, list.size());
+        Assertions.assertEquals(-1, list.get(0));
+        Assertions.assertEquals(19, list.get(20));
+        Assertions.assertThrows(IndexOutOfBoundsException.class, () -> list.get(21));
+        Assertions.assertThrows(ArrayIndexOutOfBoundsException.class, () -> list.add(-1, 5));
+        Assertions.assertTrue(list.remove(10));
+        Assertions.assertFalse(list.contains(10));
+        Assertions.assertEquals(11, list.indexOf(11));
+        Assertions.assertFalse(list.remove(100));
+        list.trimToSize();
+        Assertions.assertEquals(20, list.getCapacity());
+        list.clear();
+        Assertions.assertEquals(0, list.size());
+        Assertions.assertThrows(IllegalArgumentException.class, () -> new IntArrayList(0));
+    }
+
+    @Test
+    @DisplayName("Проверка поразрядной сортировки IntArrayList и LongArrayList")
+    void radixSortTest() {
+        Random random = new Random(11);
+        for (int n : new int[]{100, 100_000}) {
+            IntArrayList ints = new IntArrayList();
+            LongArrayList longs = new LongArrayList();
+            int[] expectedInts = new int[n];
+            long[] expectedLongs = new long[n];
+            for (int i = 0; i < n; i++) {
+                expectedInts[i] = i % 3 == 0 ? random.nextInt(100) - 50 : random.nextInt();
+                expectedLongs[i] = i % 3 == 0 ? random.nextInt(100) - 50 : random.nextLong();
+                ints.add(expectedInts[i]);
+                longs.add(expectedLongs[i]);
+            }
+            ints.sort();
+            longs.sort();
+            Arrays.sort(expectedInts);
+            Arrays.sort(expectedLongs);
+            Assertions.assertArrayEquals(expectedInts, ints.toArray());
+            Assertions.assertArrayEquals(expectedLongs, longs.toArray());
+        }
+    }
+
+    @Test
+    @DisplayName("Проверка LongArrayList")
+    void longListTest() {
+        LongArrayList list = new LongArrayList(1);
+        list.add(Long.MAX_VALUE);
+        list.add(Long.MIN_VALUE);
+        list.add(1, 0L);
+        Assertions.assertEquals("[9223372036854775807, 0, -9223372036854775808]", list.toString());
+        Assertions.assertTrue(list.remove(0L));
+        Assertions.assertEquals(1, list.indexOf(Long.MIN_VALUE));
+    }
+
+    @Test
+    @DisplayName("Проверка DoubleArrayList (сравнение значений и сортировка)")
+    void doubleListTest() {
+        DoubleArrayList list = new DoubleArrayList();
+        list.add(Double.NaN);
+        list.add(2.5);
+        list.add(0.0);
+        list.add(-0.0);
+        list.add(-1.0);
+        Assertions.assertEquals(0, list.indexOf(Double.NaN));
+        Assertions.assertEquals(3, list.indexOf(-0.0));
+        list.sort();
+        Assertions.assertEquals("[-1.0, -0.0, 0.0, 2.5, NaN]", list.toString());
+        Assertions.assertTrue(list.remove(Double.NaN));
+        Assertions.assertEquals(4, list.size());
+    }
+}
@@ -0,0 +1,107 @@
+import ru.sviridov.Cat;
+import ru.sviridov.CustomArrayList;
+import ru.sviridov.CustomArrayListSnapshot;
+import ru.sviridov.SortedCustomArrayList;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+
+public class SortedCustomArrayListTest {
+
+    @Test
+    @DisplayName("Проверка вставки, поиска и диапазонов")
+    void insertSearchTest() {
+        SortedCustomArrayList<Integer> list = new SortedCustomArrayList<>();
+        for (int value : new int[]{50, 10, 40, 20, 30, 20}) {
+            list.insert(value);
+        }
+        Assertions.assertEquals("[10, 20, 20, 30, 40, 50]", list.toString());
+        Assertions.assertEquals(1, list.binarySearch(20));
+        Assertions.assertEquals(-4, list.binarySearch(25));
+        Assertions.assertEquals(-1, list.indexOf(25));
+        Assertions.assertTrue(list.contains(50));
+        Assertions.assertEquals(20, list.floor(29));
+        Assertions.assertEquals(30, list.ceiling(21));
+        Assertions.assertNull(list.floor(5));
+        Assertions.assertNull(list.ceiling(51));
+        Assertions.assertEquals("[20, 20, 30]", list.subRange(20, 40).toString());
+        Assertions.assertEquals(0, list.subRange(41, 41).size());
+        Assertions.assertThrows(IllegalArgumentException.class, () -> list.subRange(40, 20));
+        Assertions.assertTrue(list.remove(20));
+        Assertions.assertFalse(list.remove(25));
+        Assertions.assertEquals("[10, 20, 30, 40, 50]", list.toString());
+        int sum = 0;
+        for (int value : list) {
+            sum += value;
+        }
+        Assertions.assertEquals(150, sum);
+    }
+
+    @Test
+    @DisplayName("Проверка случайных вставок и слияний против сортировки ArrayList")
+    void randomTest() {
+        Random random = new Random(17);
+        SortedCustomArrayList<Integer> list = new SortedCustomArrayList<>(Comparator.reverseOrder());
+        List<Integer> expected = new ArrayList<>();
+        for (int round = 0; round < 200; round++) {
+            if (random.nextBoolean()) {
+                int value = random.nextInt(500);
+                int pos = list.insert(value);
+                Assertions.assertEquals(value, list.get(pos));
+                expected.add(value);
+            } else {
+                Integer[] batch = new Integer[random.nextInt(30)];
+                for (int i = 0; i < batch.length; i++) {
+                    batch[i] = random.nextInt(500);
+                }
+                Arrays.sort(batch, Comparator.reverseOrder());
+                list.mergeSorted(batch);
+                expected.addAll(Arrays.asList(batch));
+            }
+        }
+        expected.sort(Comparator.reverseOrder());
+        Assertions.assertEquals(expected.toString(), list.toString());
+        for (int probe = 0; probe < 500; probe++) {
+            Assertions.assertEquals(expected.indexOf(probe), list.indexOf(probe));
+        }
+    }
+
+    @Test
+    @DisplayName("Проверка стабильности: равные элементы в порядке добавления")
+    void stabilityTest() {
+        SortedCustomArrayList<Cat> cats = new SortedCustomArrayList<>(Comparator.comparingInt(Cat::getWeight));
+        Cat tom = new Cat("Tom", 5, 20);
+        Cat kitty = new Cat("Kitty", 5, 25);
+        Cat garfield = new Cat("Garfield", 9, 10);
+        Cat felix = new Cat("Felix", 5, 30);
+        cats.insert(garfield);
+        cats.insert(tom);
+        cats.insert(kitty);
+        cats.mergeSorted(new Cat[]{felix, new Cat("Simba", 9, 40)});
+        Assertions.assertSame(tom, cats.get(0));
+        Assertions.assertSame(kitty, cats.get(1));
+        Assertions.assertSame(felix, cats.get(2));
+        Assertions.assertSame(garfield, cats.get(3));
+        Assertions.assertEquals("Simba", cats.get(4).getName());
+        Assertions.assertThrows(IllegalArgumentException.class, () -> cats.mergeSorted(new Cat[]{garfield, tom}));
+    }
+
+    @Test
+    @DisplayName("Проверка слияния при разделенном со снимком массиве")
+    void mergeWithSnapshotTest() {
+        SortedCustomArrayList<Integer> list = new SortedCustomArrayList<>();
+        list.mergeSorted(new Integer[]{2, 4, 6});
+        CustomArrayList<Integer> copy = list.subRange(0, 10);
+        CustomArrayListSnapshot<Integer> snapshot = list.snapshot();
+        list.mergeSorted(new Integer[]{1, 3, 5, 7});
+        Assertions.assertEquals("[1, 2, 3, 4, 5, 6, 7]", list.toString());
+        Assertions.assertEquals("[2, 4, 6]", snapshot.toString());
+        Assertions.assertEquals("[2, 4, 6]", copy.toString());
+    }
+}